@@ -11,17 +11,20 @@ import com.webank.wecross.stub.TransactionContext;
 import com.webank.wecross.stub.TransactionRequest;
 import com.webank.wecross.stub.bcos3.common.BCOSConstant;
 import com.webank.wecross.stub.bcos3.common.BCOSStatusCode;
+import com.webank.wecross.stub.bcos3.common.BCOSStubRuntime;
 import com.webank.wecross.stub.bcos3.common.LRUCache;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 public class AsyncBfsService {
     private static final Logger logger = LoggerFactory.getLogger(AsyncBfsService.class);
@@ -30,9 +33,16 @@ public class AsyncBfsService {
 
     private LRUCache<String, String> abiCache = new LRUCache<>(32);
     private ScheduledExecutorService scheduledExecutorService =
-            new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("AsyncBfsService-"));
+            BCOSStubRuntime.getInstance().getScheduledExecutorService();
     private static final long CLEAR_EXPIRES = 30L * 60L; // 30 min
-    private Semaphore queryABISemaphore = new Semaphore(1, true);
+
+    /** name => callbacks of the queries waiting for the abi of the name, one readlink per name */
+    private final Map<String, List<QueryCallback>> pendingQueries = new HashMap<>();
+
+    /** names waiting for the parallelism limit, guarded by pendingQueries */
+    private final Queue<Runnable> waitingQueries = new ArrayDeque<>();
+
+    private int runningQueries = 0;
 
     private BCOSDriver bcosDriver = null;
 
@@ -73,28 +83,58 @@ public class AsyncBfsService {
                 return;
             }
 
-            queryABISemaphore.acquire(1); // Only 1 thread can query abi remote
-            abi = abiCache.get(name);
+            int parallelism = BCOSStubRuntime.getInstance().getAbiQueryParallelism();
+            boolean startQuery;
+            synchronized (pendingQueries) {
+                // checked again, the abi may be cached by a query just completed
+                abi = abiCache.get(name);
+                if (abi == null) {
+                    List<QueryCallback> callbacks = pendingQueries.get(name);
+                    if (Objects.nonNull(callbacks)) {
+                        // the same name is being resolved, share its result
+                        callbacks.add(callback);
+                        return;
+                    }
+
+                    callbacks = new ArrayList<>();
+                    callbacks.add(callback);
+                    pendingQueries.put(name, callbacks);
+                    startQuery = runningQueries < parallelism;
+                    if (startQuery) {
+                        runningQueries++;
+                    } else {
+                        waitingQueries.add(() -> readlinkABI(name, driver, connection));
+                    }
+                } else {
+                    startQuery = false;
+                }
+            }
+
             if (abi != null) {
-                queryABISemaphore.release();
                 callback.onResponse(null, abi);
-                return;
+            } else if (startQuery) {
+                readlinkABI(name, driver, connection);
             }
+        } catch (Exception e) {
+            callback.onResponse(e, null);
+        }
+    }
 
+    /** resolve the abi of the name for all the pending queries of the name */
+    private void readlinkABI(String name, Driver driver, Connection connection) {
+        try {
             readlink(
                     name,
                     connection,
                     driver,
                     (exception, infoList) -> {
-                        queryABISemaphore.release();
-
                         if (Objects.nonNull(exception)) {
-                            callback.onResponse(exception, null);
+                            onQueryComplete(name, exception, null);
                             return;
                         }
 
                         if (Objects.isNull(infoList) || infoList.isEmpty()) {
-                            callback.onResponse(null, null);
+                            onQueryComplete(name, null, null);
                         } else {
                             int size = infoList.size();
                             String currentAbi = infoList.get(size - 1);
@@ -105,12 +145,39 @@ public class AsyncBfsService {
                                 logger.debug("queryABI name:{}, abi:{}", name, currentAbi);
                             }
 
-                            callback.onResponse(null, currentAbi);
+                            onQueryComplete(name, null, currentAbi);
                         }
                     });
         } catch (Exception e) {
-            queryABISemaphore.release();
-            callback.onResponse(e, null);
+            onQueryComplete(name, e, null);
+        }
+    }
+
+    private void onQueryComplete(String name, Exception e, String abi) {
+        List<QueryCallback> callbacks;
+        Runnable waitingQuery;
+        synchronized (pendingQueries) {
+            callbacks = pendingQueries.remove(name);
+            waitingQuery = waitingQueries.poll();
+            if (Objects.isNull(waitingQuery)) {
+                runningQueries--;
+            }
+        }
+
+        if (Objects.nonNull(waitingQuery)) {
+            // the slot is handed over to the next name, off this callback thread
+            BCOSStubRuntime.execute(BCOSStubRuntime.getInstance().getIoExecutor(), waitingQuery);
+        }
+
+        if (Objects.isNull(callbacks)) {
+            return;
+        }
+        for (QueryCallback callback : callbacks) {
+            try {
+                callback.onResponse(e, abi);
+            } catch (Exception callbackException) {
+                logger.warn(" queryABI callback exception, name: {}, e: ", name, callbackException);
+            }
         }
     }
 
@@ -1,32 +1,52 @@
 package com.webank.wecross.stub.bcos3;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.webank.wecross.exception.WeCrossException;
 import com.webank.wecross.stub.Connection;
 import com.webank.wecross.stub.Request;
 import com.webank.wecross.stub.ResourceInfo;
 import com.webank.wecross.stub.Response;
 import com.webank.wecross.stub.bcos3.client.AbstractClientWrapper;
+import com.webank.wecross.stub.bcos3.client.ChainHeadTracker;
+import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
 import com.webank.wecross.stub.bcos3.common.BCOSConstant;
 import com.webank.wecross.stub.bcos3.common.BCOSRequestType;
 import com.webank.wecross.stub.bcos3.common.BCOSStatusCode;
+import com.webank.wecross.stub.bcos3.common.BCOSStubException;
+import com.webank.wecross.stub.bcos3.common.BlockCache;
+import com.webank.wecross.stub.bcos3.common.BlockPrefetcher;
 import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
+import com.webank.wecross.stub.bcos3.common.TransactionCache;
 import com.webank.wecross.stub.bcos3.contract.FunctionUtility;
 import com.webank.wecross.stub.bcos3.protocol.request.TransactionParams;
 import com.webank.wecross.stub.bcos3.protocol.response.TransactionPair;
 import com.webank.wecross.stub.bcos3.protocol.response.TransactionProof;
+import com.webank.wecross.stub.bcos3.protocol.response.TypedResponse;
+import com.webank.wecross.stub.bcos3.verify.BlockVerifierConfig;
+import com.webank.wecross.stub.bcos3.verify.MerkleProofMemo;
+import com.webank.wecross.stub.bcos3.verify.VerifiedHeaderCache;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import org.fisco.bcos.sdk.v3.client.exceptions.ClientException;
 import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
@@ -52,19 +72,73 @@ public class BCOSConnection implements Connection {
 
     private List<ResourceInfo> resourcesCache = null;
 
+    /** resources discovered in proxy contract, keyed by path */
+    private final Map<String, ResourceInfo> discoveredResources = new LinkedHashMap<>();
+
+    /** chain head of the last discovery */
+    private long resourcesBlockNumber = -1;
+
+    /** sequence of the discoveries started and the last one applied, guarded by this */
+    private long resourcesDiscoveryStarted = 0;
+
+    private long resourcesDiscoveryApplied = 0;
+
     private ConnectionEventHandler eventHandler = null;
 
     private final AbstractClientWrapper clientWrapper;
 
     private final ScheduledExecutorService scheduledExecutorService;
 
+    /** executor for blocking rpc requests, null means handle on the caller thread */
+    private ExecutorService dispatchExecutorService = null;
+
     private Map<String, String> properties = new HashMap<>();
 
     private final FunctionEncoderInterface functionEncoder;
 
+    /** callbacks waiting for the in-flight request of the same type and data */
+    private final Map<String, List<Callback>> inflightRequests = new ConcurrentHashMap<>();
+
+    /** whether the node returns the signature list in the block body */
+    private volatile boolean blockWithSignature = false;
+
+    /** latest block number pushed or polled from node, null means always query node */
+    private ChainHeadTracker chainHeadTracker = null;
+
+    /** committed blocks converted by the driver, null means always query node */
+    private BlockCache blockCache = null;
+
+    /** read ahead of sequential block requests into blockCache, null means no prefetch */
+    private BlockPrefetcher blockPrefetcher = null;
+
+    /** merkle nodes proven per root, a root is removed once blockCache evicts its block */
+    private MerkleProofMemo merkleProofMemo = null;
+
+    /**
+     * committed transactions and proofs by tx hash, filled by the driver once a proof is verified,
+     * null means always query node
+     */
+    private TransactionCache transactionCache = null;
+
+    /** the VERIFIER property compiled, recompiled when the property changes */
+    private volatile BlockVerifierConfig blockVerifierConfig = null;
+
+    /** headers verified with blockVerifierConfig, null means always verify */
+    private volatile VerifiedHeaderCache verifiedHeaderCache = null;
+
     public BCOSConnection(
             AbstractClientWrapper clientWrapper,
             ScheduledExecutorService scheduledExecutorService) {
+        this(
+                clientWrapper,
+                scheduledExecutorService,
+                ClientDefaultConfig.DEFAULT_RESOURCES_POLL_INTERVAL);
+    }
+
+    public BCOSConnection(
+            AbstractClientWrapper clientWrapper,
+            ScheduledExecutorService scheduledExecutorService,
+            long resourcesPollInterval) {
         this.clientWrapper = clientWrapper;
         this.functionEncoder =
                 (clientWrapper.getClient().isWASM()
@@ -74,23 +148,87 @@ public class BCOSConnection implements Connection {
                                 clientWrapper.getCryptoSuite()));
         this.scheduledExecutorService = scheduledExecutorService;
         this.objectMapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
-        this.scheduledExecutorService.scheduleAtFixedRate(
-                () -> {
-                    if (Objects.nonNull(eventHandler)) {
-                        noteOnResourcesChange();
-                    }
-                },
-                10000,
-                30000,
-                TimeUnit.MILLISECONDS);
+        if (resourcesPollInterval > 0) {
+            this.scheduledExecutorService.scheduleAtFixedRate(
+                    () -> {
+                        if (Objects.nonNull(eventHandler)) {
+                            noteOnResourcesChange(false);
+                        }
+                    },
+                    Math.min(10000, resourcesPollInterval),
+                    resourcesPollInterval,
+                    TimeUnit.MILLISECONDS);
+        }
     }
 
-    private void noteOnResourcesChange() {
+    /**
+     * discover the paths in proxy contract, the discovery is skipped if no block is produced since
+     * the last discovery, the handler is notified only if some paths are added or removed
+     *
+     * @param force discover even if the chain head is not moved, e.g. after a deploy or register
+     *     receipt whose block may not be seen by the chain head tracker yet
+     */
+    void noteOnResourcesChange(boolean force) {
+        long blockNumber = getChainHeadForDiscovery();
+        long discovery;
+        synchronized (this) {
+            if (!force
+                    && blockNumber >= 0
+                    && blockNumber == resourcesBlockNumber
+                    && Objects.nonNull(resourcesCache)) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace(" chain head not moved, skip discovery, blk: {}", blockNumber);
+                }
+                return;
+            }
+            discovery = ++resourcesDiscoveryStarted;
+        }
+
+        // queried without the lock, a slow rpc does not block the other users of the connection
+        String[] paths = listPaths();
+        if (Objects.isNull(paths)) {
+            return;
+        }
+
         synchronized (this) {
-            List<ResourceInfo> resources = getResources();
+            if (discovery < resourcesDiscoveryApplied) {
+                // a later discovery is already applied, the paths may be stale
+                return;
+            }
+            resourcesDiscoveryApplied = discovery;
+            resourcesBlockNumber = blockNumber;
+
+            Set<String> pathSet = new LinkedHashSet<>(Arrays.asList(paths));
+            List<String> removed = new ArrayList<>();
+            for (String path : discoveredResources.keySet()) {
+                if (!pathSet.contains(path)) {
+                    removed.add(path);
+                }
+            }
+            List<String> added = new ArrayList<>();
+            for (String path : pathSet) {
+                if (!discoveredResources.containsKey(path)) {
+                    added.add(path);
+                }
+            }
+
+            if (added.isEmpty() && removed.isEmpty() && Objects.nonNull(resourcesCache)) {
+                return;
+            }
+
+            for (String path : removed) {
+                discoveredResources.remove(path);
+            }
+            for (String path : added) {
+                discoveredResources.put(path, newResourceInfo(path));
+            }
+
+            List<ResourceInfo> resources = new ArrayList<>(resourceInfoList);
+            resources.addAll(discoveredResources.values());
             if (!resources.equals(resourcesCache) && !resources.isEmpty()) {
                 eventHandler.onResourcesChange(resources);
                 resourcesCache = resources;
+                logger.info(" resources notify, added: {}, removed: {}", added, removed);
                 if (logger.isDebugEnabled()) {
                     logger.debug(" resources notify, resources: {}", resources);
                 }
@@ -98,6 +236,23 @@ public class BCOSConnection implements Connection {
         }
     }
 
+    /** @return the chain head, -1 if unknown */
+    private long getChainHeadForDiscovery() {
+        if (Objects.nonNull(chainHeadTracker)) {
+            long blockNumber = chainHeadTracker.getBlockNumber();
+            if (blockNumber >= 0) {
+                return blockNumber;
+            }
+        }
+
+        try {
+            return clientWrapper.getBlockNumber().longValue();
+        } catch (Exception e) {
+            logger.warn(" query block number for discovery failed, e: ", e);
+            return -1;
+        }
+    }
+
     public List<ResourceInfo> getResourceInfoList() {
         return resourceInfoList;
     }
@@ -110,6 +265,92 @@ public class BCOSConnection implements Connection {
         return clientWrapper;
     }
 
+    public ExecutorService getDispatchExecutorService() {
+        return dispatchExecutorService;
+    }
+
+    public void setDispatchExecutorService(ExecutorService dispatchExecutorService) {
+        this.dispatchExecutorService = dispatchExecutorService;
+    }
+
+    public ChainHeadTracker getChainHeadTracker() {
+        return chainHeadTracker;
+    }
+
+    public void setChainHeadTracker(ChainHeadTracker chainHeadTracker) {
+        this.chainHeadTracker = chainHeadTracker;
+    }
+
+    public BlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    public void setBlockCache(BlockCache blockCache) {
+        this.blockCache = blockCache;
+    }
+
+    public MerkleProofMemo getMerkleProofMemo() {
+        return merkleProofMemo;
+    }
+
+    public void setMerkleProofMemo(MerkleProofMemo merkleProofMemo) {
+        this.merkleProofMemo = merkleProofMemo;
+    }
+
+    public BlockPrefetcher getBlockPrefetcher() {
+        return blockPrefetcher;
+    }
+
+    public void setBlockPrefetcher(BlockPrefetcher blockPrefetcher) {
+        this.blockPrefetcher = blockPrefetcher;
+    }
+
+    public TransactionCache getTransactionCache() {
+        return transactionCache;
+    }
+
+    public void setTransactionCache(TransactionCache transactionCache) {
+        this.transactionCache = transactionCache;
+    }
+
+    /**
+     * @return the VERIFIER property compiled, null if the property is not set
+     * @throws WeCrossException if the property is not a valid verifier config
+     */
+    public BlockVerifierConfig getBlockVerifierConfig() throws WeCrossException {
+        String blockVerifierString = properties.get(BCOSConstant.BCOS_SEALER_LIST);
+        if (Objects.isNull(blockVerifierString)) {
+            return null;
+        }
+
+        BlockVerifierConfig config = blockVerifierConfig;
+        if (Objects.isNull(config) || !config.isCompiledFrom(blockVerifierString)) {
+            synchronized (this) {
+                config = blockVerifierConfig;
+                if (Objects.isNull(config) || !config.isCompiledFrom(blockVerifierString)) {
+                    config = BlockVerifierConfig.compile(blockVerifierString);
+                    blockVerifierConfig = config;
+                    if (Objects.nonNull(verifiedHeaderCache)) {
+                        // verified with the old sealers, the headers being verified are dropped
+                        verifiedHeaderCache.reset(config);
+                    }
+                }
+            }
+        }
+        return config;
+    }
+
+    public VerifiedHeaderCache getVerifiedHeaderCache() {
+        return verifiedHeaderCache;
+    }
+
+    public synchronized void setVerifiedHeaderCache(VerifiedHeaderCache verifiedHeaderCache) {
+        if (Objects.nonNull(verifiedHeaderCache)) {
+            verifiedHeaderCache.reset(blockVerifierConfig);
+        }
+        this.verifiedHeaderCache = verifiedHeaderCache;
+    }
+
     public List<ResourceInfo> getResourcesCache() {
         return resourcesCache;
     }
@@ -129,21 +370,25 @@ public class BCOSConnection implements Connection {
         String[] paths = listPaths();
         if (Objects.nonNull(paths)) {
             for (String path : paths) {
-                ResourceInfo resourceInfo = new ResourceInfo();
-                resourceInfo.setStubType(properties.get(BCOSConstant.BCOS_STUB_TYPE));
-                resourceInfo.setName(path.split("\\.")[2]);
-                Map<Object, Object> resourceProperties = new HashMap<>();
-                resourceProperties.put(
-                        BCOSConstant.BCOS_GROUP_ID, properties.get(BCOSConstant.BCOS_GROUP_ID));
-                resourceProperties.put(
-                        BCOSConstant.BCOS_CHAIN_ID, properties.get(BCOSConstant.BCOS_CHAIN_ID));
-                resourceInfo.setProperties(resourceProperties);
-                resources.add(resourceInfo);
+                resources.add(newResourceInfo(path));
             }
         }
         return resources;
     }
 
+    private ResourceInfo newResourceInfo(String path) {
+        ResourceInfo resourceInfo = new ResourceInfo();
+        resourceInfo.setStubType(properties.get(BCOSConstant.BCOS_STUB_TYPE));
+        resourceInfo.setName(path.split("\\.")[2]);
+        Map<Object, Object> resourceProperties = new HashMap<>();
+        resourceProperties.put(
+                BCOSConstant.BCOS_GROUP_ID, properties.get(BCOSConstant.BCOS_GROUP_ID));
+        resourceProperties.put(
+                BCOSConstant.BCOS_CHAIN_ID, properties.get(BCOSConstant.BCOS_CHAIN_ID));
+        resourceInfo.setProperties(resourceProperties);
+        return resourceInfo;
+    }
+
     @Override
     public Map<String, String> getProperties() {
         return properties;
@@ -221,15 +466,29 @@ public class BCOSConnection implements Connection {
         if (request.getType() == BCOSRequestType.SEND_TRANSACTION) {
             handleAsyncTransactionRequest(request, callback);
         } else if (request.getType() == BCOSRequestType.GET_BLOCK_BY_NUMBER) {
-            handleAsyncGetBlockRequest(request, callback);
+            coalesce(request, callback, cb -> handleAsyncGetBlockRequest(request, cb));
+        } else if (request.getType() == BCOSRequestType.GET_BLOCK_HEADER_BY_NUMBER) {
+            coalesce(request, callback, cb -> handleAsyncGetBlockHeaderRequest(request, cb));
         } else if (request.getType() == BCOSRequestType.GET_BLOCK_NUMBER) {
-            handleAsyncGetBlockNumberRequest(callback);
+            if (handleGetBlockNumberFromTracker(callback)) {
+                return;
+            }
+            coalesce(
+                    request,
+                    callback,
+                    cb -> dispatch(request, cb, () -> handleAsyncGetBlockNumberRequest(cb)));
         } else if (request.getType() == BCOSRequestType.GET_TRANSACTION_PROOF) {
-            asyncGetTransactionProof(request, callback);
+            if (handleGetTransactionProofFromCache(request, callback)) {
+                return;
+            }
+            coalesce(request, callback, cb -> asyncGetTransactionProof(request, cb));
         } else if (request.getType() == BCOSRequestType.GET_TRANSACTION) {
+            if (handleGetTransactionFromCache(request, callback)) {
+                return;
+            }
             asyncGetTransaction(request, callback);
         } else if (request.getType() == BCOSRequestType.CALL) {
-            handleAsyncCallRequest(request, callback);
+            dispatch(request, callback, () -> handleAsyncCallRequest(request, callback));
         } else {
             // Does not support asynchronous operation, async to sync
             logger.warn(" unrecognized request type, type: {}", request.getType());
@@ -243,8 +502,83 @@ public class BCOSConnection implements Connection {
         }
     }
 
+    /**
+     * identical requests in flight share one rpc, the response is fanned out to all callbacks
+     * of the flight, so its data must not be modified by the callbacks
+     *
+     * @param request
+     * @param callback
+     * @param handler
+     */
+    private void coalesce(Request request, Callback callback, Consumer<Callback> handler) {
+        String key =
+                request.getType()
+                        + "-"
+                        + (Objects.isNull(request.getData())
+                                ? ""
+                                : Hex.toHexString(request.getData()));
+        boolean[] leader = new boolean[] {false};
+        inflightRequests.compute(
+                key,
+                (k, callbacks) -> {
+                    if (Objects.isNull(callbacks)) {
+                        leader[0] = true;
+                        callbacks = new ArrayList<>();
+                    }
+                    callbacks.add(callback);
+                    return callbacks;
+                });
+
+        if (!leader[0]) {
+            if (logger.isTraceEnabled()) {
+                logger.trace(" coalesce in-flight request, key: {}", key);
+            }
+            return;
+        }
+
+        handler.accept(
+                response -> {
+                    List<Callback> callbacks = inflightRequests.remove(key);
+                    for (Callback cb : callbacks) {
+                        try {
+                            cb.onResponse(response);
+                        } catch (Exception e) {
+                            logger.warn(" coalesced callback exception, key: {}, e: ", key, e);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * run the blocking request handler on the dispatch executor if configured, otherwise on the
+     * caller thread
+     *
+     * @param request
+     * @param callback
+     * @param handler
+     */
+    private void dispatch(Request request, Callback callback, Runnable handler) {
+        if (Objects.isNull(dispatchExecutorService)) {
+            handler.run();
+            return;
+        }
+
+        try {
+            dispatchExecutorService.execute(handler);
+        } catch (RejectedExecutionException e) {
+            logger.warn(" dispatch request rejected, type: {}, e: ", request.getType(), e);
+            Response response = new Response();
+            response.setErrorCode(BCOSStatusCode.RequestDispatchRejected);
+            response.setErrorMessage(
+                    BCOSStatusCode.getStatusMessage(BCOSStatusCode.RequestDispatchRejected)
+                            + " ,type: "
+                            + request.getType());
+            callback.onResponse(response);
+        }
+    }
+
     public void handleAsyncCallRequest(Request request, Callback callback) {
-        Response response = new Response();
+        TypedResponse<Call.CallOutput> response = new TypedResponse<>();
         try {
             TransactionParams transaction =
                     objectMapper.readValue(request.getData(), TransactionParams.class);
@@ -268,7 +602,7 @@ public class BCOSConnection implements Connection {
 
             response.setErrorCode(BCOSStatusCode.Success);
             response.setErrorMessage(BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
-            response.setData(objectMapper.writeValueAsBytes(callOutput));
+            response.setValue(callOutput);
         } catch (Exception e) {
             logger.warn("handleCallRequest Exception:", e);
             response.setErrorCode(BCOSStatusCode.HandleCallRequestFailed);
@@ -279,7 +613,7 @@ public class BCOSConnection implements Connection {
 
     public void handleAsyncTransactionRequest(Request request, Callback callback) {
 
-        Response response = new Response();
+        TypedResponse<TransactionReceipt> response = new TypedResponse<>();
         try {
             TransactionParams transaction =
                     objectMapper.readValue(request.getData(), TransactionParams.class);
@@ -311,18 +645,10 @@ public class BCOSConnection implements Connection {
                                         BCOSStatusCode.getStatusMessage(
                                                 BCOSStatusCode.TransactionReceiptNotExist));
                             } else {
-                                try {
-                                    response.setErrorCode(BCOSStatusCode.Success);
-                                    response.setErrorMessage(
-                                            BCOSStatusCode.getStatusMessage(
-                                                    BCOSStatusCode.Success));
-                                    response.setData(objectMapper.writeValueAsBytes(receipt));
-                                } catch (JsonProcessingException e) {
-                                    logger.error(" e:", e);
-                                    response.setErrorCode(
-                                            BCOSStatusCode.HandleSendTransactionFailed);
-                                    response.setErrorMessage(e.getMessage());
-                                }
+                                response.setErrorCode(BCOSStatusCode.Success);
+                                response.setErrorMessage(
+                                        BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
+                                response.setValue(receipt);
                             }
 
                             callback.onResponse(response);
@@ -339,7 +665,9 @@ public class BCOSConnection implements Connection {
                                                     .equals(BCOSConstant.PROXY_METHOD_REGISTER))) {
 
                                 scheduledExecutorService.schedule(
-                                        () -> noteOnResourcesChange(), 1, TimeUnit.MILLISECONDS);
+                                        () -> noteOnResourcesChange(true),
+                                        1,
+                                        TimeUnit.MILLISECONDS);
                             }
                         }
                     });
@@ -351,10 +679,37 @@ public class BCOSConnection implements Connection {
         }
     }
 
+    /**
+     * answer the block number request from the chain head tracker if its block number is fresh
+     *
+     * @param callback
+     * @return false if the request should be sent to node
+     */
+    private boolean handleGetBlockNumberFromTracker(Callback callback) {
+        if (Objects.isNull(chainHeadTracker)) {
+            return false;
+        }
+
+        long blockNumber = chainHeadTracker.getBlockNumber();
+        if (blockNumber < 0) {
+            return false;
+        }
+
+        Response response = new Response();
+        response.setErrorCode(BCOSStatusCode.Success);
+        response.setErrorMessage(BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
+        response.setData(BigInteger.valueOf(blockNumber).toByteArray());
+        callback.onResponse(response);
+        return true;
+    }
+
     public void handleAsyncGetBlockNumberRequest(Callback callback) {
         Response response = new Response();
         try {
             BigInteger blockNumber = clientWrapper.getBlockNumber();
+            if (Objects.nonNull(chainHeadTracker)) {
+                chainHeadTracker.onBlockNumber(blockNumber.longValue());
+            }
 
             response.setErrorCode(BCOSStatusCode.Success);
             response.setErrorMessage(BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
@@ -369,57 +724,124 @@ public class BCOSConnection implements Connection {
         callback.onResponse(response);
     }
 
+    private boolean handleGetTransactionProofFromCache(Request request, Callback callback) {
+        if (Objects.isNull(transactionCache)) {
+            return false;
+        }
+
+        String txHash = new String(request.getData(), StandardCharsets.UTF_8);
+        TransactionProof transactionProof = transactionCache.getTransactionProof(txHash);
+        if (Objects.isNull(transactionProof)) {
+            return false;
+        }
+
+        TypedResponse<TransactionProof> response = new TypedResponse<>();
+        response.setErrorCode(BCOSStatusCode.Success);
+        response.setErrorMessage(BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
+        response.setValue(transactionProof);
+        callback.onResponse(response);
+        return true;
+    }
+
+    private boolean handleGetTransactionFromCache(Request request, Callback callback) {
+        if (Objects.isNull(transactionCache)) {
+            return false;
+        }
+
+        String txHash = new String(request.getData(), StandardCharsets.UTF_8);
+        TransactionPair transactionPair = transactionCache.getTransactionPair(txHash);
+        if (Objects.isNull(transactionPair)) {
+            return false;
+        }
+
+        TypedResponse<TransactionPair> response = new TypedResponse<>();
+        response.setErrorCode(BCOSStatusCode.Success);
+        response.setErrorMessage(BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
+        response.setValue(transactionPair);
+        callback.onResponse(response);
+        return true;
+    }
+
     /**
-     * get TransAndProof and ReceiptAndProof by transaction hash
+     * get TransAndProof and ReceiptAndProof by transaction hash, the two lookups are issued
+     * concurrently and the response fails fast once either of them is not found
      *
      * @param request
      */
     private void asyncGetTransactionProof(Request request, Callback callback) {
         String txHash = new String(request.getData(), StandardCharsets.UTF_8);
-        Response response = new Response();
         try {
             // get transaction and transaction merkle proof
-            JsonTransactionResponse transAndProof =
-                    clientWrapper.getTransactionByHashWithProof(txHash);
+            CompletableFuture<JsonTransactionResponse> transFuture =
+                    clientWrapper
+                            .getTransactionByHashWithProofAsync(txHash)
+                            .thenApply(
+                                    transAndProof -> {
+                                        if (Objects.isNull(transAndProof)
+                                                || Objects.isNull(transAndProof.getHash())) {
+                                            throw newNotExistException(
+                                                    BCOSStatusCode.TransactionReceiptProofNotExist,
+                                                    "Transaction proof not found, tx hash: "
+                                                            + txHash);
+                                        }
+                                        return transAndProof;
+                                    });
 
-            if (Objects.isNull(transAndProof) || Objects.isNull(transAndProof.getHash())) {
-                response.setErrorCode(BCOSStatusCode.TransactionReceiptProofNotExist);
-                response.setErrorMessage("Transaction proof not found, tx hash: " + txHash);
-                callback.onResponse(response);
-                return;
-            }
+            CompletableFuture<TransactionReceipt> receiptFuture =
+                    clientWrapper
+                            .getTransactionReceiptByHashWithProofAsync(txHash)
+                            .thenApply(
+                                    receiptAndProof -> {
+                                        if (Objects.isNull(receiptAndProof)
+                                                || Objects.isNull(
+                                                        receiptAndProof.getTransactionHash())) {
+                                            throw newNotExistException(
+                                                    BCOSStatusCode.TransactionReceiptProofNotExist,
+                                                    "Transaction proof not found, tx hash: "
+                                                            + txHash);
+                                        }
+                                        return receiptAndProof;
+                                    });
 
-            TransactionReceipt receiptAndProof =
-                    clientWrapper.getTransactionReceiptByHashWithProof(txHash);
-            if (Objects.isNull(receiptAndProof)
-                    || Objects.isNull(receiptAndProof.getTransactionHash())) {
-                response.setErrorCode(BCOSStatusCode.TransactionReceiptProofNotExist);
-                response.setErrorMessage("Transaction proof not found, tx hash: " + txHash);
-                callback.onResponse(response);
-                return;
-            }
-
-            TransactionProof transactionProof =
-                    new TransactionProof(transAndProof, receiptAndProof);
+            combineFailFast(transFuture, receiptFuture, TransactionProof::new)
+                    .whenComplete(
+                            (transactionProof, throwable) -> {
+                                TypedResponse<TransactionProof> response = new TypedResponse<>();
+                                if (Objects.nonNull(throwable)) {
+                                    Throwable e = unwrapCompletionException(throwable);
+                                    if (e instanceof BCOSStubException) {
+                                        response.setErrorCode(
+                                                ((BCOSStubException) e).getErrorCode());
+                                        response.setErrorMessage(e.getMessage());
+                                    } else if (e instanceof UnsupportedOperationException) {
+                                        response.setErrorCode(BCOSStatusCode.UnsupportedRPC);
+                                        response.setErrorMessage(e.getMessage());
+                                    } else if (e instanceof ClientException) {
+                                        response.setErrorCode(
+                                                BCOSStatusCode.TransactionReceiptProofNotExist);
+                                        response.setErrorMessage(
+                                                "transaction proof not found, tx hash: " + txHash);
+                                    } else {
+                                        response.setErrorCode(BCOSStatusCode.UnclassifiedError);
+                                        response.setErrorMessage(e.getMessage());
+                                    }
+                                    callback.onResponse(response);
+                                    return;
+                                }
 
-            response.setErrorCode(BCOSStatusCode.Success);
-            response.setErrorMessage(BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
-            response.setData(objectMapper.writeValueAsBytes(transactionProof));
-            logger.debug(
-                    " getTransactionProof, tx hash: {}, transAndProof: {}, receiptAndProof: {}",
-                    txHash,
-                    transactionProof.getTransWithProof(),
-                    transactionProof.getReceiptWithProof());
-            callback.onResponse(response);
-        } catch (UnsupportedOperationException e) {
-            response.setErrorCode(BCOSStatusCode.UnsupportedRPC);
-            response.setErrorMessage(e.getMessage());
-            callback.onResponse(response);
-        } catch (ClientException e) {
-            response.setErrorCode(BCOSStatusCode.TransactionReceiptProofNotExist);
-            response.setErrorMessage("transaction proof not found, tx hash: " + txHash);
-            callback.onResponse(response);
+                                response.setErrorCode(BCOSStatusCode.Success);
+                                response.setErrorMessage(
+                                        BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
+                                response.setValue(transactionProof);
+                                logger.debug(
+                                        " getTransactionProof, tx hash: {}, transAndProof: {}, receiptAndProof: {}",
+                                        txHash,
+                                        transactionProof.getTransWithProof(),
+                                        transactionProof.getReceiptWithProof());
+                                callback.onResponse(response);
+                            });
         } catch (Exception e) {
+            Response response = new Response();
             response.setErrorCode(BCOSStatusCode.UnclassifiedError);
             response.setErrorMessage(e.getMessage());
             callback.onResponse(response);
@@ -427,79 +849,282 @@ public class BCOSConnection implements Connection {
     }
 
     /**
-     * get transaction
+     * get transaction, the transaction and the receipt are fetched concurrently
      *
      * @param request
      */
     private void asyncGetTransaction(Request request, Callback callback) {
         String txHash = new String(request.getData(), StandardCharsets.UTF_8);
-        Response response = new Response();
         try {
-            JsonTransactionResponse transaction = clientWrapper.getTransaction(txHash);
-            TransactionReceipt transactionReceipt = clientWrapper.getTransactionReceipt(txHash);
-
-            if (Objects.isNull(transaction)
-                    || Objects.isNull(transaction.getHash())
-                    || Objects.isNull(transactionReceipt)
-                    || Objects.isNull(transactionReceipt.getTransactionHash())) {
-                response.setErrorCode(BCOSStatusCode.TransactionNotExist);
-                response.setErrorMessage("transaction not found, tx hash: " + txHash);
-                callback.onResponse(response);
-                return;
-            }
+            CompletableFuture<JsonTransactionResponse> transactionFuture =
+                    clientWrapper
+                            .getTransactionAsync(txHash)
+                            .thenApply(
+                                    transaction -> {
+                                        if (Objects.isNull(transaction)
+                                                || Objects.isNull(transaction.getHash())) {
+                                            throw newNotExistException(
+                                                    BCOSStatusCode.TransactionNotExist,
+                                                    "transaction not found, tx hash: " + txHash);
+                                        }
+                                        return transaction;
+                                    });
 
-            response.setErrorCode(BCOSStatusCode.Success);
-            response.setErrorMessage(BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
-            response.setData(
-                    objectMapper.writeValueAsBytes(
-                            new TransactionPair(transaction, transactionReceipt)));
+            CompletableFuture<TransactionReceipt> receiptFuture =
+                    clientWrapper
+                            .getTransactionReceiptAsync(txHash)
+                            .thenApply(
+                                    transactionReceipt -> {
+                                        if (Objects.isNull(transactionReceipt)
+                                                || Objects.isNull(
+                                                        transactionReceipt.getTransactionHash())) {
+                                            throw newNotExistException(
+                                                    BCOSStatusCode.TransactionNotExist,
+                                                    "transaction not found, tx hash: " + txHash);
+                                        }
+                                        return transactionReceipt;
+                                    });
 
-            if (logger.isDebugEnabled()) {
-                logger.debug(
-                        " getTransaction, tx hash: {}, transaction: {}, transactionReceipt: {}",
-                        txHash,
-                        transaction,
-                        transactionReceipt);
-            }
+            combineFailFast(transactionFuture, receiptFuture, TransactionPair::new)
+                    .whenComplete(
+                            (transactionPair, throwable) -> {
+                                TypedResponse<TransactionPair> response = new TypedResponse<>();
+                                if (Objects.nonNull(throwable)) {
+                                    Throwable e = unwrapCompletionException(throwable);
+                                    response.setErrorCode(
+                                            e instanceof BCOSStubException
+                                                    ? ((BCOSStubException) e).getErrorCode()
+                                                    : BCOSStatusCode.UnclassifiedError);
+                                    response.setErrorMessage(e.getMessage());
+                                    callback.onResponse(response);
+                                    return;
+                                }
 
-            callback.onResponse(response);
+                                response.setErrorCode(BCOSStatusCode.Success);
+                                response.setErrorMessage(
+                                        BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
+                                response.setValue(transactionPair);
+
+                                if (logger.isDebugEnabled()) {
+                                    logger.debug(
+                                            " getTransaction, tx hash: {}, transaction: {}, transactionReceipt: {}",
+                                            txHash,
+                                            transactionPair.getTransaction(),
+                                            transactionPair.getReceipt());
+                                }
+                                callback.onResponse(response);
+                            });
         } catch (Exception e) {
+            Response response = new Response();
             response.setErrorMessage(e.getMessage());
             response.setErrorCode(BCOSStatusCode.UnclassifiedError);
             callback.onResponse(response);
         }
     }
 
+    private static CompletionException newNotExistException(int errorCode, String message) {
+        return new CompletionException(new BCOSStubException(errorCode, message));
+    }
+
+    private static Throwable unwrapCompletionException(Throwable throwable) {
+        if (throwable instanceof CompletionException && Objects.nonNull(throwable.getCause())) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    /**
+     * combine two independent futures, unlike thenCombine the result completes exceptionally as
+     * soon as either of them fails instead of waiting for the other one
+     */
+    private static <A, B, R> CompletableFuture<R> combineFailFast(
+            CompletableFuture<A> first,
+            CompletableFuture<B> second,
+            BiFunction<? super A, ? super B, ? extends R> combiner) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        BiConsumer<Object, Throwable> failFast =
+                (value, throwable) -> {
+                    if (Objects.nonNull(throwable)) {
+                        result.completeExceptionally(throwable);
+                    }
+                };
+        first.whenComplete(failFast);
+        second.whenComplete(failFast);
+        first.thenCombine(second, combiner)
+                .whenComplete(
+                        (value, throwable) -> {
+                            if (Objects.nonNull(throwable)) {
+                                result.completeExceptionally(throwable);
+                            } else {
+                                result.complete(value);
+                            }
+                        });
+        return result;
+    }
+
+    /**
+     * get block with the signature list of its header, the body and the header are fetched
+     * concurrently. Once the node is seen to return signatures in the body, the header rpc is only
+     * issued for bodies without signatures.
+     *
+     * @param request
+     * @param callback
+     */
     public void handleAsyncGetBlockRequest(Request request, Callback callback) {
-        Response response = new Response();
         try {
-            BigInteger blockNumber = new BigInteger(request.getData());
-            BcosBlock.Block block = clientWrapper.getBlockByNumber(blockNumber.longValue(), false);
-            try {
-                BcosBlockHeader.BlockHeader blockHeader =
-                        clientWrapper.getBlockHeaderByNumber(blockNumber.longValue());
-                String headerData = objectMapper.writeValueAsString(blockHeader);
-                block.setExtraData(headerData);
+            long blockNumber = new BigInteger(request.getData()).longValue();
+            CompletableFuture<BcosBlock.Block> blockFuture =
+                    clientWrapper.getBlockByNumberAsync(blockNumber, false);
 
-                if (logger.isDebugEnabled()) {
-                    logger.debug("handleAsyncGetBlockRequest: block.Ext: {}", headerData);
-                }
-            } catch (UnsupportedOperationException e) {
-                logger.debug(" UnsupportedOperationException getBlockHeaderByNumber");
+            CompletableFuture<BcosBlockHeader.BlockHeader> headerFuture;
+            if (blockWithSignature) {
+                headerFuture =
+                        blockFuture.thenCompose(
+                                block ->
+                                        hasSignature(block) || block.getNumber() == 0
+                                                ? CompletableFuture.completedFuture(null)
+                                                : getBlockHeaderAsync(blockNumber));
+            } else {
+                headerFuture = getBlockHeaderAsync(blockNumber);
             }
 
-            response.setErrorCode(BCOSStatusCode.Success);
-            response.setErrorMessage(BCOSStatusCode.getStatusMessage(BCOSStatusCode.Success));
-            response.setData(objectMapper.writeValueAsBytes(block));
-            if (logger.isDebugEnabled()) {
-                logger.debug(" getBlockByNumber, blockNumber: {}, block: {}", blockNumber, block);
-            }
+            combineFailFast(blockFuture, headerFuture, this::mergeBlockHeader)
+                    .whenComplete(
+                            (block, throwable) -> {
+                                TypedResponse<BcosBlock.Block> response = new TypedResponse<>();
+                                try {
+                                    if (Objects.nonNull(throwable)) {
+                                        throw unwrapCompletionException(throwable);
+                                    }
+
+                                    response.setErrorCode(BCOSStatusCode.Success);
+                                    response.setErrorMessage(
+                                            BCOSStatusCode.getStatusMessage(
+                                                    BCOSStatusCode.Success));
+                                    response.setValue(block);
+                                    if (logger.isDebugEnabled()) {
+                                        logger.debug(
+                                                " getBlockByNumber, blockNumber: {}, block: {}",
+                                                blockNumber,
+                                                block);
+                                    }
+                                } catch (Throwable e) {
+                                    logger.warn(" Exception, e: ", e);
+                                    response.setErrorCode(BCOSStatusCode.HandleGetBlockFailed);
+                                    response.setErrorMessage(e.getMessage());
+                                }
+                                callback.onResponse(response);
+                            });
         } catch (Exception e) {
             logger.warn(" Exception, e: ", e);
+            Response response = new Response();
             response.setErrorCode(BCOSStatusCode.HandleGetBlockFailed);
             response.setErrorMessage(e.getMessage());
+            callback.onResponse(response);
         }
-        callback.onResponse(response);
+    }
+
+    /**
+     * get the block header without transactions, the response is a block with empty transaction
+     * list, the full block is fetched if the node does not support header query
+     *
+     * @param request
+     * @param callback
+     */
+    public void handleAsyncGetBlockHeaderRequest(Request request, Callback callback) {
+        try {
+            long blockNumber = new BigInteger(request.getData()).longValue();
+            getBlockHeaderAsync(blockNumber)
+                    .whenComplete(
+                            (blockHeader, throwable) -> {
+                                if (Objects.isNull(throwable) && Objects.isNull(blockHeader)) {
+                                    handleAsyncGetBlockRequest(request, callback);
+                                    return;
+                                }
+
+                                TypedResponse<BcosBlock.Block> response = new TypedResponse<>();
+                                try {
+                                    if (Objects.nonNull(throwable)) {
+                                        throw unwrapCompletionException(throwable);
+                                    }
+
+                                    response.setErrorCode(BCOSStatusCode.Success);
+                                    response.setErrorMessage(
+                                            BCOSStatusCode.getStatusMessage(
+                                                    BCOSStatusCode.Success));
+                                    response.setValue(toHeaderBlock(blockHeader));
+                                    if (logger.isDebugEnabled()) {
+                                        logger.debug(
+                                                " getBlockHeader, blockNumber: {}, header: {}",
+                                                blockNumber,
+                                                blockHeader);
+                                    }
+                                } catch (Throwable e) {
+                                    logger.warn(" Exception, e: ", e);
+                                    response.setErrorCode(BCOSStatusCode.HandleGetBlockFailed);
+                                    response.setErrorMessage(e.getMessage());
+                                }
+                                callback.onResponse(response);
+                            });
+        } catch (Exception e) {
+            logger.warn(" Exception, e: ", e);
+            Response response = new Response();
+            response.setErrorCode(BCOSStatusCode.HandleGetBlockFailed);
+            response.setErrorMessage(e.getMessage());
+            callback.onResponse(response);
+        }
+    }
+
+    /** the header rpc returns a block without transactions, other headers are copied into one */
+    private BcosBlock.Block toHeaderBlock(BcosBlockHeader.BlockHeader blockHeader) {
+        if (blockHeader instanceof BcosBlock.Block) {
+            return (BcosBlock.Block) blockHeader;
+        }
+        return objectMapper.convertValue(blockHeader, BcosBlock.Block.class);
+    }
+
+    /** get block header with signature list, null if the node does not support it */
+    private CompletableFuture<BcosBlockHeader.BlockHeader> getBlockHeaderAsync(long blockNumber) {
+        return clientWrapper
+                .getBlockHeaderByNumberAsync(blockNumber)
+                .exceptionally(
+                        throwable -> {
+                            Throwable e = unwrapCompletionException(throwable);
+                            if (e instanceof UnsupportedOperationException) {
+                                logger.debug(
+                                        " UnsupportedOperationException getBlockHeaderByNumber");
+                                return null;
+                            }
+                            throw new CompletionException(e);
+                        });
+    }
+
+    /**
+     * fill the sealer and signature list of the header into the typed fields of the block
+     *
+     * @param block
+     * @param blockHeader
+     * @return
+     */
+    private BcosBlock.Block mergeBlockHeader(
+            BcosBlock.Block block, BcosBlockHeader.BlockHeader blockHeader) {
+        if (hasSignature(block)) {
+            blockWithSignature = true;
+            return block;
+        }
+
+        if (Objects.nonNull(blockHeader)) {
+            block.setSignatureList(blockHeader.getSignatureList());
+            if (Objects.isNull(block.getSealerList()) || block.getSealerList().isEmpty()) {
+                block.setSealerList(blockHeader.getSealerList());
+            }
+        }
+        return block;
+    }
+
+    private static boolean hasSignature(BcosBlockHeader.BlockHeader blockHeader) {
+        return Objects.nonNull(blockHeader.getSignatureList())
+                && !blockHeader.getSignatureList().isEmpty();
     }
 
     public boolean hasProxyDeployed() {
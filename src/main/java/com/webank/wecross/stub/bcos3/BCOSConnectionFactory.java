@@ -1,29 +1,37 @@
 package com.webank.wecross.stub.bcos3;
 
 import com.webank.wecross.stub.bcos3.client.AbstractClientWrapper;
+import com.webank.wecross.stub.bcos3.client.ChainHeadTracker;
+import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
 import com.webank.wecross.stub.bcos3.client.ClientWrapperFactory;
 import com.webank.wecross.stub.bcos3.common.BCOSConstant;
+import com.webank.wecross.stub.bcos3.common.BCOSStubRuntime;
+import com.webank.wecross.stub.bcos3.common.BlockCache;
+import com.webank.wecross.stub.bcos3.common.BlockPrefetcher;
+import com.webank.wecross.stub.bcos3.common.TransactionCache;
 import com.webank.wecross.stub.bcos3.config.BCOSStubConfig;
 import com.webank.wecross.stub.bcos3.config.BCOSStubConfigParser;
 import com.webank.wecross.stub.bcos3.preparation.BfsServiceWrapper;
+import com.webank.wecross.stub.bcos3.verify.MerkleProofMemo;
+import com.webank.wecross.stub.bcos3.verify.VerifiedHeaderCache;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosGroupInfo;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosGroupNodeInfo;
 import org.fisco.bcos.sdk.v3.contract.precompiled.bfs.BFSInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 public class BCOSConnectionFactory {
     private static final Logger logger = LoggerFactory.getLogger(BCOSConnectionFactory.class);
 
+    public static ScheduledExecutorService getDefaultScheduledExecutorService() {
+        return BCOSStubRuntime.getInstance().getScheduledExecutorService();
+    }
+
     public static BCOSConnection build(String stubConfigPath, String configName) throws Exception {
-        ScheduledExecutorService executorService =
-                new ScheduledThreadPoolExecutor(4, new CustomizableThreadFactory("tmpBCOSConn-"));
-        return build(stubConfigPath, configName, executorService);
+        return build(stubConfigPath, configName, getDefaultScheduledExecutorService());
     }
 
     public static BCOSConnection build(
@@ -42,9 +50,7 @@ public class BCOSConnectionFactory {
 
     public static BCOSConnection build(
             BCOSStubConfig bcosStubConfig, AbstractClientWrapper clientWrapper) {
-        ScheduledExecutorService scheduledExecutorService =
-                new ScheduledThreadPoolExecutor(4, new CustomizableThreadFactory("tmpBCOSConn-"));
-        return build(bcosStubConfig, clientWrapper, scheduledExecutorService);
+        return build(bcosStubConfig, clientWrapper, getDefaultScheduledExecutorService());
     }
 
     public static BCOSConnection build(
@@ -53,9 +59,76 @@ public class BCOSConnectionFactory {
             ScheduledExecutorService executorService) {
 
         logger.info("bcosStubConfig: {}", bcosStubConfig);
-        BCOSConnection bcosConnection = new BCOSConnection(clientWrapper, executorService);
+        BCOSStubConfig.Service serviceConfig = bcosStubConfig.getService();
+        BCOSStubRuntime.getInstance().configure(bcosStubConfig.getRuntime());
+        BCOSConnection bcosConnection =
+                new BCOSConnection(
+                        clientWrapper,
+                        executorService,
+                        Objects.nonNull(serviceConfig)
+                                ? serviceConfig.getResourcesPollInterval()
+                                : ClientDefaultConfig.DEFAULT_RESOURCES_POLL_INTERVAL);
         bcosConnection.setResourceInfoList(bcosStubConfig.convertToResourceInfos());
 
+        if (Objects.nonNull(serviceConfig) && serviceConfig.getDispatchThreadNum() > 0) {
+            BCOSStubRuntime runtime = BCOSStubRuntime.getInstance();
+            if (serviceConfig.getDispatchThreadNum() != runtime.getIoThreadNum()) {
+                logger.warn(
+                        " dispatchThreadNum: {} does not size a pool of the connection, requests"
+                                + " are dispatched to the shared io pool, threads: {}, see"
+                                + " ioThreadNum of [runtime]",
+                        serviceConfig.getDispatchThreadNum(),
+                        runtime.getIoThreadNum());
+            }
+            bcosConnection.setDispatchExecutorService(runtime.getIoExecutor());
+        }
+
+        if (Objects.nonNull(serviceConfig) && serviceConfig.getBlockNumberMaxStaleness() > 0) {
+            ChainHeadTracker chainHeadTracker =
+                    new ChainHeadTracker(clientWrapper, serviceConfig.getBlockNumberMaxStaleness());
+            chainHeadTracker.start(executorService, serviceConfig.getBlockNumberPollInterval());
+            bcosConnection.setChainHeadTracker(chainHeadTracker);
+        }
+
+        if (Objects.nonNull(serviceConfig)
+                && (serviceConfig.getBlockCacheMaxBytes() > 0
+                        || serviceConfig.getBlockHeaderCacheMaxBytes() > 0)) {
+            BlockCache blockCache =
+                    new BlockCache(
+                            serviceConfig.getBlockCacheMaxBytes(),
+                            serviceConfig.getBlockHeaderCacheMaxBytes());
+            bcosConnection.setBlockCache(blockCache);
+            if (serviceConfig.getBlockPrefetchWindow() > 0) {
+                bcosConnection.setBlockPrefetcher(
+                        new BlockPrefetcher(blockCache, serviceConfig.getBlockPrefetchWindow()));
+            }
+        }
+
+        if (Objects.nonNull(serviceConfig) && serviceConfig.getMerkleMemoMaxNodes() > 0) {
+            MerkleProofMemo merkleProofMemo =
+                    new MerkleProofMemo(serviceConfig.getMerkleMemoMaxNodes());
+            bcosConnection.setMerkleProofMemo(merkleProofMemo);
+            BlockCache blockCache = bcosConnection.getBlockCache();
+            if (Objects.nonNull(blockCache)) {
+                // the proofs of an evicted block are unlikely to be verified again
+                blockCache.setEvictionListener(
+                        block -> {
+                            merkleProofMemo.remove(block.getBlockHeader().getTransactionRoot());
+                            merkleProofMemo.remove(block.getBlockHeader().getReceiptRoot());
+                        });
+            }
+        }
+
+        if (Objects.nonNull(serviceConfig) && serviceConfig.getTransactionCacheMaxBytes() > 0) {
+            bcosConnection.setTransactionCache(
+                    new TransactionCache(serviceConfig.getTransactionCacheMaxBytes()));
+        }
+
+        if (Objects.nonNull(serviceConfig) && serviceConfig.getVerifiedHeaderCacheSize() > 0) {
+            bcosConnection.setVerifiedHeaderCache(
+                    new VerifiedHeaderCache(serviceConfig.getVerifiedHeaderCacheSize()));
+        }
+
         bcosConnection.addProperty(
                 BCOSConstant.BCOS_GROUP_ID, String.valueOf(bcosStubConfig.getChain().getGroupID()));
         bcosConnection.addProperty(
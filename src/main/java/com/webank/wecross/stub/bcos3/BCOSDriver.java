@@ -5,6 +5,7 @@ import static org.fisco.bcos.sdk.v3.client.protocol.model.TransactionAttribute.L
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.webank.wecross.exception.WeCrossException;
 import com.webank.wecross.stub.Account;
 import com.webank.wecross.stub.Block;
 import com.webank.wecross.stub.BlockManager;
@@ -13,6 +14,7 @@ import com.webank.wecross.stub.Driver;
 import com.webank.wecross.stub.Path;
 import com.webank.wecross.stub.Request;
 import com.webank.wecross.stub.ResourceInfo;
+import com.webank.wecross.stub.Response;
 import com.webank.wecross.stub.StubConstant;
 import com.webank.wecross.stub.Transaction;
 import com.webank.wecross.stub.TransactionContext;
@@ -20,6 +22,8 @@ import com.webank.wecross.stub.TransactionException;
 import com.webank.wecross.stub.TransactionRequest;
 import com.webank.wecross.stub.TransactionResponse;
 import com.webank.wecross.stub.bcos3.account.BCOSAccount;
+import com.webank.wecross.stub.bcos3.client.ChainHeadTracker;
+import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
 import com.webank.wecross.stub.bcos3.common.*;
 import com.webank.wecross.stub.bcos3.contract.BlockUtility;
 import com.webank.wecross.stub.bcos3.contract.FunctionUtility;
@@ -28,20 +32,27 @@ import com.webank.wecross.stub.bcos3.custom.CommandHandler;
 import com.webank.wecross.stub.bcos3.custom.CommandHandlerDispatcher;
 import com.webank.wecross.stub.bcos3.protocol.request.TransactionParams;
 import com.webank.wecross.stub.bcos3.protocol.response.TransactionProof;
+import com.webank.wecross.stub.bcos3.protocol.response.TypedResponse;
 import com.webank.wecross.stub.bcos3.uaproof.Signer;
 import com.webank.wecross.stub.bcos3.verify.BlockHeaderValidation;
+import com.webank.wecross.stub.bcos3.verify.BlockVerifierConfig;
+import com.webank.wecross.stub.bcos3.verify.HeaderChainValidation;
+import com.webank.wecross.stub.bcos3.verify.MerkleProofMemo;
 import com.webank.wecross.stub.bcos3.verify.MerkleValidation;
+import com.webank.wecross.stub.bcos3.verify.VerifiedHeaderCache;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.security.InvalidParameterException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.fisco.bcos.sdk.jni.utilities.tx.TransactionBuilderJniObj;
 import org.fisco.bcos.sdk.jni.utilities.tx.TxPair;
 import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
 import org.fisco.bcos.sdk.v3.client.protocol.response.Call;
 import org.fisco.bcos.sdk.v3.codec.ContractCodec;
 import org.fisco.bcos.sdk.v3.codec.FunctionEncoderInterface;
@@ -83,6 +94,12 @@ public class BCOSDriver implements Driver {
     private final Signer signer;
     private final FunctionEncoderInterface functionEncoder;
 
+    /** executor of block signature and merkle verification, null means the shared crypto pool */
+    private Executor verifyExecutor = null;
+
+    /** executor of block decoding and conversion, null means the shared codec pool */
+    private Executor codecExecutor = null;
+
     public BCOSDriver(CryptoSuite cryptoSuite, boolean isWasm) {
         objectMapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
         this.contractCodecJsonWrapper = new ContractCodecJsonWrapper();
@@ -411,8 +428,8 @@ public class BCOSDriver implements Driver {
                                             }
 
                                             Call.CallOutput callOutput =
-                                                    objectMapper.readValue(
-                                                            connectionResponse.getData(),
+                                                    TypedResponse.readValue(
+                                                            connectionResponse,
                                                             Call.CallOutput.class);
 
                                             if (logger.isDebugEnabled()) {
@@ -525,39 +542,40 @@ public class BCOSDriver implements Driver {
             // chainId
             String chainId = properties.get(BCOSConstant.BCOS_CHAIN_ID);
 
-            context.getBlockManager()
-                    .asyncGetBlockNumber(
-                            (blockNumberException, blockNumber) -> {
-                                if (Objects.nonNull(blockNumberException)) {
-                                    callback.onTransactionResponse(
-                                            new TransactionException(
-                                                    BCOSStatusCode.HandleGetBlockNumberFailed,
-                                                    blockNumberException.getMessage()),
-                                            null);
-                                    return;
-                                }
-                                // BCOSAccount to get credentials to sign the transaction
-                                BCOSAccount bcosAccount = (BCOSAccount) context.getAccount();
-                                CryptoKeyPair credentials = bcosAccount.getCredentials();
+            asyncGetBlockNumberForBlockLimit(
+                    context,
+                    connection,
+                    (blockNumberException, blockNumber) -> {
+                        if (Objects.nonNull(blockNumberException)) {
+                            callback.onTransactionResponse(
+                                    new TransactionException(
+                                            BCOSStatusCode.HandleGetBlockNumberFailed,
+                                            blockNumberException.getMessage()),
+                                    null);
+                            return;
+                        }
+                        // BCOSAccount to get credentials to sign the transaction
+                        BCOSAccount bcosAccount = (BCOSAccount) context.getAccount();
+                        CryptoKeyPair credentials = bcosAccount.getCredentials();
 
-                                Path path = context.getPath();
-                                String name = path.getResource();
+                        Path path = context.getPath();
+                        String name = path.getResource();
 
-                                // query abi
-                                queryAbiAndSendTx(
-                                        context,
-                                        request,
-                                        connection,
-                                        callback,
-                                        contractAddress,
-                                        groupId,
-                                        chainId,
-                                        blockNumber,
-                                        credentials,
-                                        path,
-                                        name,
-                                        true);
-                            });
+                        // query abi
+                        queryAbiAndSendTx(
+                                context,
+                                request,
+                                connection,
+                                callback,
+                                contractAddress,
+                                groupId,
+                                chainId,
+                                blockNumber,
+                                credentials,
+                                path,
+                                name,
+                                true);
+                    });
 
         } catch (BCOSStubException e) {
             logger.warn(" e: ", e);
@@ -582,79 +600,79 @@ public class BCOSDriver implements Driver {
             String groupId = properties.get(BCOSConstant.BCOS_GROUP_ID);
             // chainId
             String chainId = properties.get(BCOSConstant.BCOS_CHAIN_ID);
-            context.getBlockManager()
-                    .asyncGetBlockNumber(
-                            (blockNumberException, blockNumber) -> {
-                                if (Objects.nonNull(blockNumberException)) {
-                                    callback.onTransactionResponse(
-                                            new TransactionException(
-                                                    BCOSStatusCode.HandleGetBlockNumberFailed,
-                                                    blockNumberException.getMessage()),
-                                            null);
-                                    return;
-                                }
-                                // BCOSAccount to get credentials to sign the transaction
-                                BCOSAccount bcosAccount = (BCOSAccount) context.getAccount();
-                                CryptoKeyPair credentials = bcosAccount.getCredentials();
-
-                                Path path = context.getPath();
-                                String name = path.getResource();
-                                if (Objects.equals(
-                                        request.getMethod(), BCOSConstant.CUSTOM_COMMAND_DEPLOY)) {
-                                    // deploy
-                                    deployContract(
-                                            context,
-                                            request,
-                                            connection,
-                                            callback,
-                                            groupId,
-                                            chainId,
-                                            blockNumber,
-                                            credentials,
-                                            path);
-                                } else {
-                                    // query abi
-                                    asyncBfsService.readlink(
-                                            name,
-                                            connection,
-                                            this,
-                                            (Exception e, List<String> bfsInfoList) -> {
-                                                if (Objects.nonNull(e)) {
-                                                    logger.warn(" e: ", e);
-                                                    callback.onTransactionResponse(
-                                                            new TransactionException(
-                                                                    BCOSStatusCode.ABINotExist,
-                                                                    e.getMessage()),
-                                                            null);
-                                                    return;
-                                                }
-                                                if (Objects.isNull(bfsInfoList)
-                                                        || bfsInfoList.isEmpty()) {
-                                                    callback.onTransactionResponse(
-                                                            new TransactionException(
-                                                                    BCOSStatusCode.ABINotExist,
-                                                                    "abi not exist"),
-                                                            null);
-                                                    return;
-                                                }
-                                                String contractAddress = bfsInfoList.get(1);
-                                                String abi = bfsInfoList.get(2);
-                                                sendTxWithAbi(
-                                                        context,
-                                                        request,
-                                                        connection,
-                                                        callback,
-                                                        contractAddress,
-                                                        groupId,
-                                                        chainId,
-                                                        blockNumber,
-                                                        credentials,
-                                                        path,
-                                                        abi,
-                                                        false);
-                                            });
-                                }
-                            });
+            asyncGetBlockNumberForBlockLimit(
+                    context,
+                    connection,
+                    (blockNumberException, blockNumber) -> {
+                        if (Objects.nonNull(blockNumberException)) {
+                            callback.onTransactionResponse(
+                                    new TransactionException(
+                                            BCOSStatusCode.HandleGetBlockNumberFailed,
+                                            blockNumberException.getMessage()),
+                                    null);
+                            return;
+                        }
+                        // BCOSAccount to get credentials to sign the transaction
+                        BCOSAccount bcosAccount = (BCOSAccount) context.getAccount();
+                        CryptoKeyPair credentials = bcosAccount.getCredentials();
+
+                        Path path = context.getPath();
+                        String name = path.getResource();
+                        if (Objects.equals(
+                                request.getMethod(), BCOSConstant.CUSTOM_COMMAND_DEPLOY)) {
+                            // deploy
+                            deployContract(
+                                    context,
+                                    request,
+                                    connection,
+                                    callback,
+                                    groupId,
+                                    chainId,
+                                    blockNumber,
+                                    credentials,
+                                    path);
+                        } else {
+                            // query abi
+                            asyncBfsService.readlink(
+                                    name,
+                                    connection,
+                                    this,
+                                    (Exception e, List<String> bfsInfoList) -> {
+                                        if (Objects.nonNull(e)) {
+                                            logger.warn(" e: ", e);
+                                            callback.onTransactionResponse(
+                                                    new TransactionException(
+                                                            BCOSStatusCode.ABINotExist,
+                                                            e.getMessage()),
+                                                    null);
+                                            return;
+                                        }
+                                        if (Objects.isNull(bfsInfoList) || bfsInfoList.isEmpty()) {
+                                            callback.onTransactionResponse(
+                                                    new TransactionException(
+                                                            BCOSStatusCode.ABINotExist,
+                                                            "abi not exist"),
+                                                    null);
+                                            return;
+                                        }
+                                        String contractAddress = bfsInfoList.get(1);
+                                        String abi = bfsInfoList.get(2);
+                                        sendTxWithAbi(
+                                                context,
+                                                request,
+                                                connection,
+                                                callback,
+                                                contractAddress,
+                                                groupId,
+                                                chainId,
+                                                blockNumber,
+                                                credentials,
+                                                path,
+                                                abi,
+                                                false);
+                                    });
+                        }
+                    });
         } catch (BCOSStubException e) {
             logger.warn(" e: ", e);
             callback.onTransactionResponse(
@@ -914,6 +932,74 @@ public class BCOSDriver implements Driver {
         }
     }
 
+    /** verify and assemble on the verify executor, a saturated executor fails the transaction */
+    private void submitVerifyAndAssemble(
+            TransactionReceipt receipt,
+            Block block,
+            TransactionProof proof,
+            Callback callback,
+            List<ABIDefinition> functions,
+            boolean byProxy,
+            Connection connection) {
+        if (!BCOSStubRuntime.tryExecute(
+                getVerifyExecutor(),
+                () ->
+                        verifyAndAssemble(
+                                receipt, block, proof, callback, functions, byProxy, connection))) {
+            callback.onTransactionResponse(
+                    new TransactionException(
+                            BCOSStatusCode.VerifyRejected,
+                            BCOSStatusCode.getStatusMessage(BCOSStatusCode.VerifyRejected)),
+                    null);
+        }
+    }
+
+    /**
+     * verify the receipt of the sent transaction, then assemble the response
+     *
+     * @param receipt
+     * @param block
+     * @param proof the fetched proof, null to verify the proof in the receipt
+     * @param callback
+     * @param functions
+     * @param byProxy
+     * @param connection
+     */
+    private void verifyAndAssemble(
+            TransactionReceipt receipt,
+            Block block,
+            TransactionProof proof,
+            Callback callback,
+            List<ABIDefinition> functions,
+            boolean byProxy,
+            Connection connection) {
+        MerkleProofMemo merkleProofMemo = getMerkleProofMemo(connection);
+        try {
+            if (Objects.nonNull(proof)) {
+                MerkleValidation.verifyTransactionProof(
+                        receipt.getTransactionHash(),
+                        block.getBlockHeader(),
+                        proof,
+                        cryptoSuite,
+                        merkleProofMemo);
+                cacheVerifiedProof(connection, receipt.getTransactionHash(), proof);
+            } else {
+                MerkleValidation.verifyTransactionReceiptProof(
+                        receipt.getTransactionHash(),
+                        block.getBlockHeader(),
+                        receipt,
+                        cryptoSuite,
+                        merkleProofMemo);
+            }
+        } catch (BCOSStubException e) {
+            logger.warn(" e: ", e);
+            callback.onTransactionResponse(
+                    new TransactionException(e.getErrorCode(), e.getMessage()), null);
+            return;
+        }
+        assembleTransactionResponse(receipt, callback, functions, byProxy);
+    }
+
     private void sendTxWithEncodedRequest(
             TransactionContext context,
             Connection connection,
@@ -936,8 +1022,7 @@ public class BCOSDriver implements Driver {
                         }
 
                         TransactionReceipt receipt =
-                                objectMapper.readValue(
-                                        response.getData(), TransactionReceipt.class);
+                                TypedResponse.readValue(response, TransactionReceipt.class);
                         if (logger.isDebugEnabled()) {
                             logger.debug("TransactionReceipt: {}", receipt);
                         }
@@ -970,43 +1055,30 @@ public class BCOSDriver implements Driver {
                                                                                     .HandleGetTransactionProofFailed,
                                                                             exception.getMessage()),
                                                                     null);
+                                                            return;
                                                         }
-                                                        try {
-                                                            MerkleValidation.verifyTransactionProof(
-                                                                    receipt.getTransactionHash(),
-                                                                    block.getBlockHeader(),
-                                                                    proof,
-                                                                    cryptoSuite);
-                                                            assembleTransactionResponse(
-                                                                    receipt, callback, functions,
-                                                                    byProxy);
-                                                        } catch (BCOSStubException e) {
-                                                            logger.warn(" e: ", e);
-                                                            callback.onTransactionResponse(
-                                                                    new TransactionException(
-                                                                            e.getErrorCode(),
-                                                                            e.getMessage()),
-                                                                    null);
-                                                        }
+                                                        submitVerifyAndAssemble(
+                                                                receipt,
+                                                                block,
+                                                                proof,
+                                                                callback,
+                                                                functions,
+                                                                byProxy,
+                                                                connection);
                                                     });
                                             return;
                                         } else if (FeatureSupport.isSupportGetTxProof(nodeVersion)
                                                 && receipt.getTxProof() != null) {
                                             // 3.2+ txProof != null verifyTransactionReceiptProof
-                                            try {
-                                                MerkleValidation.verifyTransactionReceiptProof(
-                                                        receipt.getTransactionHash(),
-                                                        block.getBlockHeader(),
-                                                        receipt,
-                                                        cryptoSuite);
-                                            } catch (BCOSStubException e) {
-                                                logger.warn(" e: ", e);
-                                                callback.onTransactionResponse(
-                                                        new TransactionException(
-                                                                e.getErrorCode(), e.getMessage()),
-                                                        null);
-                                                return;
-                                            }
+                                            submitVerifyAndAssemble(
+                                                    receipt,
+                                                    block,
+                                                    null,
+                                                    callback,
+                                                    functions,
+                                                    byProxy,
+                                                    connection);
+                                            return;
                                         }
                                         // 3.0 3.1 need not verify
                                         assembleTransactionResponse(
@@ -1088,6 +1160,31 @@ public class BCOSDriver implements Driver {
         }
     }
 
+    /**
+     * the block number used as the base of block limit, the tracked chain head of the connection
+     * is used if it is fresh, otherwise query it by the block manager
+     *
+     * @param context
+     * @param connection
+     * @param callback
+     */
+    private void asyncGetBlockNumberForBlockLimit(
+            TransactionContext context,
+            Connection connection,
+            BlockManager.GetBlockNumberCallback callback) {
+        if (connection instanceof BCOSConnection) {
+            ChainHeadTracker chainHeadTracker = ((BCOSConnection) connection).getChainHeadTracker();
+            long blockNumber =
+                    Objects.nonNull(chainHeadTracker) ? chainHeadTracker.getBlockNumber() : -1;
+            if (blockNumber >= 0) {
+                callback.onResponse(null, blockNumber);
+                return;
+            }
+        }
+
+        context.getBlockManager().asyncGetBlockNumber(callback);
+    }
+
     @Override
     public void asyncGetBlockNumber(Connection connection, GetBlockNumberCallback callback) {
 
@@ -1117,12 +1214,234 @@ public class BCOSDriver implements Driver {
             Connection connection,
             GetBlockCallback callback) {
 
+        BlockCache blockCache = null;
+        if (connection instanceof BCOSConnection) {
+            BCOSConnection bcosConnection = (BCOSConnection) connection;
+            blockCache = bcosConnection.getBlockCache();
+            BlockPrefetcher blockPrefetcher = bcosConnection.getBlockPrefetcher();
+            if (Objects.nonNull(blockPrefetcher)) {
+                ChainHeadTracker chainHeadTracker = bcosConnection.getChainHeadTracker();
+                blockPrefetcher.onRequest(
+                        blockNumber,
+                        onlyHeader,
+                        Objects.nonNull(chainHeadTracker) ? chainHeadTracker.getBlockNumber() : -1,
+                        (number, header, cb) -> requestBlock(number, header, connection, cb));
+            }
+        }
+
+        if (Objects.nonNull(blockCache)) {
+            Block cachedBlock = blockCache.get(blockNumber, onlyHeader);
+            if (Objects.nonNull(cachedBlock)) {
+                callback.onResponse(null, cachedBlock);
+                return;
+            }
+        }
+
+        requestBlock(blockNumber, onlyHeader, connection, callback);
+    }
+
+    public BlockRangeFetcher asyncGetBlocks(
+            long fromBlockNumber,
+            long toBlockNumber,
+            boolean onlyHeader,
+            Connection connection,
+            BlockRangeFetcher.Callback callback) {
+        return asyncGetBlocks(
+                fromBlockNumber,
+                toBlockNumber,
+                onlyHeader,
+                connection,
+                ClientDefaultConfig.DEFAULT_BLOCK_RANGE_PARALLELISM,
+                ClientDefaultConfig.DEFAULT_BLOCK_RANGE_MAX_BUFFERED_BYTES,
+                callback);
+    }
+
+    /**
+     * get the blocks of [fromBlockNumber, toBlockNumber], each block is verified like
+     * asyncGetBlock and delivered to the callback in block number order
+     *
+     * @param fromBlockNumber
+     * @param toBlockNumber
+     * @param onlyHeader
+     * @param connection
+     * @param parallelism block requests in flight
+     * @param maxBufferedBytes bytes of out-of-order blocks waiting for delivery
+     * @param callback
+     * @return the fetcher to cancel
+     */
+    public BlockRangeFetcher asyncGetBlocks(
+            long fromBlockNumber,
+            long toBlockNumber,
+            boolean onlyHeader,
+            Connection connection,
+            int parallelism,
+            long maxBufferedBytes,
+            BlockRangeFetcher.Callback callback) {
+        BlockCache blockCache =
+                connection instanceof BCOSConnection
+                        ? ((BCOSConnection) connection).getBlockCache()
+                        : null;
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        fromBlockNumber,
+                        toBlockNumber,
+                        onlyHeader,
+                        parallelism,
+                        maxBufferedBytes,
+                        (number, header, cb) -> {
+                            Block cachedBlock =
+                                    Objects.nonNull(blockCache)
+                                            ? blockCache.get(number, header)
+                                            : null;
+                            if (Objects.nonNull(cachedBlock)) {
+                                cb.onResponse(null, cachedBlock);
+                            } else {
+                                requestBlock(number, header, connection, cb);
+                            }
+                        });
+        blockRangeFetcher.start(callback);
+        return blockRangeFetcher;
+    }
+
+    public BlockRangeFetcher asyncSyncBlockHeaders(
+            long fromBlockNumber,
+            long toBlockNumber,
+            Connection connection,
+            BlockRangeFetcher.Callback callback) {
+        return asyncSyncBlockHeaders(
+                fromBlockNumber,
+                toBlockNumber,
+                ClientDefaultConfig.DEFAULT_CHECKPOINT_INTERVAL,
+                connection,
+                callback);
+    }
+
+    /**
+     * get the block headers of [fromBlockNumber, toBlockNumber] for bulk sync, delivered to the
+     * callback in block number order. Only the signatures of checkpoint blocks, every
+     * checkpointInterval blocks and toBlockNumber, are verified, the blocks between checkpoints
+     * are verified backwards by hash links to the next checkpoint.
+     *
+     * @param fromBlockNumber
+     * @param toBlockNumber
+     * @param checkpointInterval
+     * @param connection
+     * @param callback
+     * @return the fetcher to cancel
+     */
+    public BlockRangeFetcher asyncSyncBlockHeaders(
+            long fromBlockNumber,
+            long toBlockNumber,
+            int checkpointInterval,
+            Connection connection,
+            BlockRangeFetcher.Callback callback) {
+        BlockCache blockCache =
+                connection instanceof BCOSConnection
+                        ? ((BCOSConnection) connection).getBlockCache()
+                        : null;
+        CheckpointHeaderSync checkpointHeaderSync =
+                new CheckpointHeaderSync(
+                        toBlockNumber,
+                        checkpointInterval,
+                        getVerifyExecutor(),
+                        chunk -> verifyHeaderChunk(chunk, connection),
+                        callback);
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        fromBlockNumber,
+                        toBlockNumber,
+                        true,
+                        ClientDefaultConfig.DEFAULT_BLOCK_RANGE_PARALLELISM,
+                        ClientDefaultConfig.DEFAULT_BLOCK_RANGE_MAX_BUFFERED_BYTES,
+                        (number, header, cb) -> {
+                            Block cachedBlock =
+                                    Objects.nonNull(blockCache)
+                                            ? blockCache.get(number, header)
+                                            : null;
+                            if (Objects.nonNull(cachedBlock)) {
+                                cb.onResponse(null, cachedBlock);
+                            } else {
+                                requestBlock(number, header, false, connection, cb);
+                            }
+                        });
+        checkpointHeaderSync.setBlockRangeFetcher(blockRangeFetcher);
+        blockRangeFetcher.start(checkpointHeaderSync);
+        return blockRangeFetcher;
+    }
+
+    /**
+     * verify the signatures of the last block, the checkpoint, and the blocks before it by hash
+     * links, then cache the headers
+     *
+     * @param chunk consecutive blocks ending at a checkpoint
+     * @param connection
+     * @throws Exception
+     */
+    private void verifyHeaderChunk(List<Block> chunk, Connection connection) throws Exception {
+        Block checkpoint = chunk.get(chunk.size() - 1);
+        if (Objects.nonNull(connection.getProperties().get(BCOSConstant.BCOS_SEALER_LIST))) {
+            if (checkpoint.getBlockHeader().getNumber() != 0) {
+                verifyBlockHeader((BCOSBlockHeader) checkpoint.getBlockHeader(), connection);
+            }
+
+            List<BcosBlockHeader.BlockHeader> headers = new ArrayList<>(chunk.size());
+            for (Block block : chunk) {
+                headers.add(objectMapper.readValue(block.getRawBytes(), BcosBlock.Block.class));
+            }
+            HeaderChainValidation.verifyHeaderChain(headers, cryptoSuite.getHashImpl());
+        }
+
+        BlockCache blockCache =
+                connection instanceof BCOSConnection
+                        ? ((BCOSConnection) connection).getBlockCache()
+                        : null;
+        if (Objects.nonNull(blockCache)) {
+            for (Block block : chunk) {
+                blockCache.put(block.getBlockHeader().getNumber(), true, block);
+            }
+        }
+    }
+
+    /**
+     * query the block from node, verify its header and put it into the block cache
+     *
+     * @param blockNumber
+     * @param onlyHeader
+     * @param connection
+     * @param callback
+     */
+    private void requestBlock(
+            long blockNumber,
+            boolean onlyHeader,
+            Connection connection,
+            GetBlockCallback callback) {
+        requestBlock(blockNumber, onlyHeader, true, connection, callback);
+    }
+
+    /**
+     * @param blockNumber
+     * @param onlyHeader
+     * @param verify false if the caller verifies the block, which is not cached then
+     * @param connection
+     * @param callback
+     */
+    private void requestBlock(
+            long blockNumber,
+            boolean onlyHeader,
+            boolean verify,
+            Connection connection,
+            GetBlockCallback callback) {
+
+        // a header request skips the transactions of the block
         Request request =
                 Request.newRequest(
-                        BCOSRequestType.GET_BLOCK_BY_NUMBER,
+                        onlyHeader
+                                ? BCOSRequestType.GET_BLOCK_HEADER_BY_NUMBER
+                                : BCOSRequestType.GET_BLOCK_BY_NUMBER,
                         BigInteger.valueOf(blockNumber).toByteArray());
 
         String blockVerifierString = connection.getProperties().get(BCOSConstant.BCOS_SEALER_LIST);
+        boolean verifyHeader = verify && blockVerifierString != null && blockNumber != 0;
 
         connection.asyncSend(
                 request,
@@ -1135,40 +1454,176 @@ public class BCOSDriver implements Driver {
 
                         callback.onResponse(new Exception(response.getErrorMessage()), null);
                     } else {
-                        try {
-                            Block block =
-                                    BlockUtility.convertToBlock(response.getData(), onlyHeader);
-                            if (block.getTransactionsHashes().isEmpty()) {
-                                BcosBlock.Block bcosBlock =
-                                        ObjectMapperFactory.getObjectMapper()
-                                                .readValue(
-                                                        response.getData(), BcosBlock.Block.class);
-                                for (int i = 0; i < bcosBlock.getTransactionObject().size(); i++) {
-                                    BcosBlock.TransactionObject transactionObject =
-                                            (BcosBlock.TransactionObject)
-                                                    bcosBlock.getTransactions().get(i);
-                                    assembleJsonTransactionResponse(
-                                            blockNumber, transactionObject, connection, block);
-                                }
-                            }
-                            if (blockVerifierString != null && blockNumber != 0) {
-                                BCOSBlockHeader bcosBlockHeader =
-                                        (BCOSBlockHeader) block.blockHeader;
-                                BlockHeaderValidation.verifyBlockHeader(
-                                        bcosBlockHeader,
-                                        blockVerifierString,
-                                        connection.getProperties().get(BCOSConstant.BCOS_STUB_TYPE),
-                                        cryptoSuite);
-                            }
-                            callback.onResponse(null, block);
-                        } catch (Exception e) {
-                            logger.warn(" blockNumber: {}, e: ", blockNumber, e);
-                            callback.onResponse(e, null);
-                        }
+                        // decode off the thread delivering the response
+                        BCOSStubRuntime.execute(
+                                getCodecExecutor(),
+                                () ->
+                                        handleBlockResponse(
+                                                blockNumber,
+                                                onlyHeader,
+                                                response,
+                                                verifyHeader,
+                                                verify,
+                                                connection,
+                                                callback));
                     }
                 });
     }
 
+    /** convert the block in the response, then verify and cache it */
+    private void handleBlockResponse(
+            long blockNumber,
+            boolean onlyHeader,
+            Response response,
+            boolean verifyHeader,
+            boolean cache,
+            Connection connection,
+            GetBlockCallback callback) {
+        Block block;
+        try {
+            BcosBlock.Block bcosBlock = TypedResponse.readValue(response, BcosBlock.Block.class);
+            block = BlockUtility.convertToBlock(bcosBlock, onlyHeader);
+            block.setRawBytes(response.getData());
+            if (!onlyHeader && block.getTransactionsHashes().isEmpty()) {
+                for (int i = 0; i < bcosBlock.getTransactionObject().size(); i++) {
+                    BcosBlock.TransactionObject transactionObject =
+                            (BcosBlock.TransactionObject) bcosBlock.getTransactions().get(i);
+                    assembleJsonTransactionResponse(
+                            blockNumber, transactionObject, connection, block);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn(" blockNumber: {}, e: ", blockNumber, e);
+            callback.onResponse(e, null);
+            return;
+        }
+
+        Runnable handler =
+                () ->
+                        verifyAndCacheBlock(
+                                blockNumber,
+                                onlyHeader,
+                                block,
+                                verifyHeader,
+                                cache,
+                                connection,
+                                callback);
+        if (verifyHeader) {
+            // keep signature verification off the codec threads, a saturated pool fails the request
+            if (!BCOSStubRuntime.tryExecute(getVerifyExecutor(), handler)) {
+                callback.onResponse(BCOSStubRuntime.newVerifyRejectedException(), null);
+            }
+        } else {
+            handler.run();
+        }
+    }
+
+    private void verifyAndCacheBlock(
+            long blockNumber,
+            boolean onlyHeader,
+            Block block,
+            boolean verifyHeader,
+            boolean cache,
+            Connection connection,
+            GetBlockCallback callback) {
+        try {
+            if (verifyHeader) {
+                verifyBlockHeader((BCOSBlockHeader) block.blockHeader, connection);
+            }
+            BlockCache blockCache =
+                    connection instanceof BCOSConnection
+                            ? ((BCOSConnection) connection).getBlockCache()
+                            : null;
+            if (cache && Objects.nonNull(blockCache)) {
+                // only verified blocks are cached
+                blockCache.put(blockNumber, onlyHeader, block);
+            }
+            callback.onResponse(null, block);
+        } catch (Exception e) {
+            logger.warn(" blockNumber: {}, e: ", blockNumber, e);
+            callback.onResponse(e, null);
+        }
+    }
+
+    /**
+     * verify the sealer signatures of the header, unless the header of the same number and hash is
+     * already verified on the connection
+     *
+     * @param bcosBlockHeader
+     * @param connection
+     * @throws WeCrossException
+     */
+    private void verifyBlockHeader(BCOSBlockHeader bcosBlockHeader, Connection connection)
+            throws WeCrossException {
+        // compiled first, a changed config resets the verified headers
+        BlockVerifierConfig blockVerifierConfig = getBlockVerifierConfig(connection);
+        VerifiedHeaderCache verifiedHeaderCache =
+                connection instanceof BCOSConnection
+                        ? ((BCOSConnection) connection).getVerifiedHeaderCache()
+                        : null;
+        if (Objects.nonNull(verifiedHeaderCache)
+                && verifiedHeaderCache.isVerified(
+                        blockVerifierConfig,
+                        bcosBlockHeader.getNumber(),
+                        bcosBlockHeader.getHash())) {
+            return;
+        }
+
+        BlockHeaderValidation.verifyBlockHeader(
+                bcosBlockHeader,
+                blockVerifierConfig,
+                connection.getProperties().get(BCOSConstant.BCOS_STUB_TYPE),
+                cryptoSuite);
+        if (Objects.nonNull(verifiedHeaderCache)) {
+            // dropped if the config is changed during the verification
+            verifiedHeaderCache.putVerified(
+                    blockVerifierConfig, bcosBlockHeader.getNumber(), bcosBlockHeader.getHash());
+        }
+    }
+
+    /**
+     * @param connection
+     * @return the VERIFIER property compiled, kept by a BCOSConnection until the property changes
+     * @throws WeCrossException
+     */
+    private static BlockVerifierConfig getBlockVerifierConfig(Connection connection)
+            throws WeCrossException {
+        if (connection instanceof BCOSConnection) {
+            return ((BCOSConnection) connection).getBlockVerifierConfig();
+        }
+        return BlockVerifierConfig.compile(
+                connection.getProperties().get(BCOSConstant.BCOS_SEALER_LIST));
+    }
+
+    /**
+     * @param connection
+     * @return the merkle proof memo of a BCOSConnection, null if none
+     */
+    private static MerkleProofMemo getMerkleProofMemo(Connection connection) {
+        return connection instanceof BCOSConnection
+                ? ((BCOSConnection) connection).getMerkleProofMemo()
+                : null;
+    }
+
+    /**
+     * cache the proof in the connection once it is verified, so a wrong proof from a node is never
+     * served again from the cache
+     *
+     * @param connection
+     * @param txHash
+     * @param proof
+     */
+    private static void cacheVerifiedProof(
+            Connection connection, String txHash, TransactionProof proof) {
+        TransactionCache transactionCache =
+                connection instanceof BCOSConnection
+                        ? ((BCOSConnection) connection).getTransactionCache()
+                        : null;
+        if (Objects.nonNull(transactionCache)) {
+            transactionCache.putTransactionProof(txHash, proof);
+        }
+    }
+
     @Override
     public void asyncGetTransaction(
             String transactionHash,
@@ -1209,6 +1664,7 @@ public class BCOSDriver implements Driver {
                                         callback.onResponse(verifyException, null);
                                         return;
                                     }
+                                    cacheVerifiedProof(connection, transactionHash, proof);
                                     assembleTransaction(
                                             transactionHash,
                                             transaction,
@@ -1216,7 +1672,9 @@ public class BCOSDriver implements Driver {
                                             connection,
                                             callback);
                                 },
-                                cryptoSuite);
+                                cryptoSuite,
+                                getVerifyExecutor(),
+                                getMerkleProofMemo(connection));
                     } else {
                         assembleTransaction(
                                 transactionHash,
@@ -1538,7 +1996,7 @@ public class BCOSDriver implements Driver {
                         }
 
                         TransactionProof transactionProof =
-                                objectMapper.readValue(response.getData(), TransactionProof.class);
+                                TypedResponse.readValue(response, TransactionProof.class);
                         if (logger.isDebugEnabled()) {
                             logger.debug(
                                     " transactionHash: {}, transactionProof: {}",
@@ -1659,6 +2117,26 @@ public class BCOSDriver implements Driver {
         this.asyncBfsService = asyncBfsService;
     }
 
+    public Executor getVerifyExecutor() {
+        return Objects.nonNull(verifyExecutor)
+                ? verifyExecutor
+                : BCOSStubRuntime.getInstance().getCryptoExecutor();
+    }
+
+    public void setVerifyExecutor(Executor verifyExecutor) {
+        this.verifyExecutor = verifyExecutor;
+    }
+
+    public Executor getCodecExecutor() {
+        return Objects.nonNull(codecExecutor)
+                ? codecExecutor
+                : BCOSStubRuntime.getInstance().getCodecExecutor();
+    }
+
+    public void setCodecExecutor(Executor codecExecutor) {
+        this.codecExecutor = codecExecutor;
+    }
+
     public boolean isWasm() {
         return isWasm;
     }
@@ -3,7 +3,11 @@ package com.webank.wecross.stub.bcos3.client;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.fisco.bcos.sdk.jni.BlockNotifier;
 import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.client.exceptions.ClientException;
 import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
 import org.fisco.bcos.sdk.v3.client.protocol.request.Transaction;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
@@ -12,10 +16,12 @@ import org.fisco.bcos.sdk.v3.client.protocol.response.BcosGroupInfo;
 import org.fisco.bcos.sdk.v3.client.protocol.response.Call;
 import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
 import org.fisco.bcos.sdk.v3.model.CryptoType;
+import org.fisco.bcos.sdk.v3.model.Response;
 import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+import org.fisco.bcos.sdk.v3.model.callback.RespCallback;
 import org.fisco.bcos.sdk.v3.model.callback.TransactionCallback;
 
-public abstract class AbstractClientWrapper implements ClientWrapper {
+public abstract class AbstractClientWrapper implements ClientWrapper, AsyncClientWrapper {
 
     private Client client;
     private CryptoSuite cryptoSuite;
@@ -88,6 +94,145 @@ public abstract class AbstractClientWrapper implements ClientWrapper {
         return getClient().getGroupInfo();
     }
 
+    @Override
+    public CompletableFuture<BcosBlock.Block> getBlockByNumberAsync(
+            long blockNumber, boolean onlyTxHash) {
+        CompletableFuture<BcosBlock.Block> future = new CompletableFuture<>();
+        getClient()
+                .getBlockByNumberAsync(
+                        BigInteger.valueOf(blockNumber),
+                        false,
+                        onlyTxHash,
+                        newRespCallback(future, BcosBlock::getBlock));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<BcosBlockHeader.BlockHeader> getBlockHeaderByNumberAsync(
+            long blockNumber) {
+        CompletableFuture<BcosBlockHeader.BlockHeader> future = new CompletableFuture<>();
+        getClient()
+                .getBlockByNumberAsync(
+                        BigInteger.valueOf(blockNumber),
+                        true,
+                        false,
+                        newRespCallback(future, BcosBlock::getBlock));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<BigInteger> getBlockNumberAsync() {
+        CompletableFuture<BigInteger> future = new CompletableFuture<>();
+        getClient()
+                .getBlockNumberAsync(
+                        newRespCallback(future, blockNumber -> blockNumber.getBlockNumber()));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptByHashWithProofAsync(
+            String transactionHash) {
+        CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        getClient()
+                .getTransactionReceiptAsync(
+                        transactionHash,
+                        true,
+                        newRespCallback(future, receipt -> receipt.getResult()));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<JsonTransactionResponse> getTransactionByHashWithProofAsync(
+            String transactionHash) {
+        CompletableFuture<JsonTransactionResponse> future = new CompletableFuture<>();
+        getClient()
+                .getTransactionAsync(
+                        transactionHash,
+                        true,
+                        newRespCallback(future, transaction -> transaction.getResult()));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptAsync(
+            String transactionHash) {
+        CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        getClient()
+                .getTransactionReceiptAsync(
+                        transactionHash,
+                        false,
+                        newRespCallback(future, receipt -> receipt.getResult()));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<JsonTransactionResponse> getTransactionAsync(String transactionHash) {
+        CompletableFuture<JsonTransactionResponse> future = new CompletableFuture<>();
+        getClient()
+                .getTransactionAsync(
+                        transactionHash,
+                        false,
+                        newRespCallback(future, transaction -> transaction.getResult()));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Call.CallOutput> callAsync(
+            String accountAddress, String contractAddress, byte[] data) {
+        CompletableFuture<Call.CallOutput> future = new CompletableFuture<>();
+        Transaction transaction = new Transaction(accountAddress, contractAddress, data);
+        getClient().callAsync(transaction, newRespCallback(future, Call::getCallResult));
+        return future;
+    }
+
+    /**
+     * register the notifier of new blocks pushed by node
+     *
+     * @param notifier
+     * @return false if the client does not support block notification
+     */
+    public boolean registerBlockNotifier(BlockNotifier notifier) {
+        return false;
+    }
+
+    /**
+     * adapt the sdk callback to the future, rpc error and exception thrown by the mapper complete
+     * the future exceptionally
+     *
+     * @param future
+     * @param mapper
+     * @return
+     */
+    protected static <T, R> RespCallback<T> newRespCallback(
+            CompletableFuture<R> future, Function<T, R> mapper) {
+        return new RespCallback<T>() {
+            @Override
+            public void onResponse(T response) {
+                try {
+                    future.complete(mapper.apply(response));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onError(Response errorResponse) {
+                int errorCode =
+                        Objects.nonNull(errorResponse.getErrorCode())
+                                ? errorResponse.getErrorCode()
+                                : -1;
+                future.completeExceptionally(
+                        new ClientException(
+                                errorCode,
+                                errorResponse.getErrorMessage(),
+                                "rpc error, code: "
+                                        + errorCode
+                                        + ", message: "
+                                        + errorResponse.getErrorMessage()));
+            }
+        };
+    }
+
     public Client getClient() {
         return client;
     }
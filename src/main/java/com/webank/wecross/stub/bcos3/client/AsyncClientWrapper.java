@@ -0,0 +1,34 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
+import org.fisco.bcos.sdk.v3.client.protocol.response.Call;
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+
+/**
+ * Async wrapper interface for JavaSDK, the returned future is completed by the sdk callback thread
+ * without blocking the caller, rpc errors complete the future exceptionally
+ */
+public interface AsyncClientWrapper {
+    CompletableFuture<BcosBlock.Block> getBlockByNumberAsync(long blockNumber, boolean onlyTxHash);
+
+    CompletableFuture<BcosBlockHeader.BlockHeader> getBlockHeaderByNumberAsync(long blockNumber);
+
+    CompletableFuture<BigInteger> getBlockNumberAsync();
+
+    CompletableFuture<TransactionReceipt> getTransactionReceiptByHashWithProofAsync(
+            String transactionHash);
+
+    CompletableFuture<JsonTransactionResponse> getTransactionByHashWithProofAsync(
+            String transactionHash);
+
+    CompletableFuture<TransactionReceipt> getTransactionReceiptAsync(String transactionHash);
+
+    CompletableFuture<JsonTransactionResponse> getTransactionAsync(String transactionHash);
+
+    CompletableFuture<Call.CallOutput> callAsync(
+            String accountAddress, String contractAddress, byte[] data);
+}
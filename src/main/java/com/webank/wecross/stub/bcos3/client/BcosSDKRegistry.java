@@ -0,0 +1,67 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import org.fisco.bcos.sdk.v3.BcosSDK;
+import org.fisco.bcos.sdk.v3.client.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of BcosSDK shared by connections with the same peers and crypto material, so that the
+ * connections of different groups on the same chain share the sockets and threads of one sdk, the
+ * client of each group is also built only once
+ */
+public class BcosSDKRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(BcosSDKRegistry.class);
+
+    private static final Map<String, BcosSDK> bcosSDKs = new ConcurrentHashMap<>();
+
+    private static final Map<BcosSDK, Map<String, Client>> clients = new ConcurrentHashMap<>();
+
+    /**
+     * get the sdk of the key, the sdk is created by creator if not exists
+     *
+     * @param key peers, crypto material and network options of the sdk
+     * @param creator
+     * @return
+     * @throws Exception
+     */
+    public static synchronized BcosSDK getBcosSDK(String key, Callable<BcosSDK> creator)
+            throws Exception {
+        BcosSDK bcosSDK = bcosSDKs.get(key);
+        if (Objects.nonNull(bcosSDK)) {
+            logger.info(" reuse BcosSDK, key: {}", key);
+            return bcosSDK;
+        }
+
+        bcosSDK = creator.call();
+        bcosSDKs.put(key, bcosSDK);
+        logger.info(" new BcosSDK, key: {}, sdk count: {}", key, bcosSDKs.size());
+        return bcosSDK;
+    }
+
+    public static Client getClient(BcosSDK bcosSDK, String groupID) {
+        return clients.computeIfAbsent(bcosSDK, sdk -> new ConcurrentHashMap<>())
+                .computeIfAbsent(groupID, bcosSDK::getClient);
+    }
+
+    public static int size() {
+        return bcosSDKs.size();
+    }
+
+    /** stop all sdk and clear the registry */
+    public static synchronized void stopAll() {
+        for (Map.Entry<String, BcosSDK> entry : bcosSDKs.entrySet()) {
+            try {
+                entry.getValue().stopAll();
+            } catch (Exception e) {
+                logger.warn(" stop BcosSDK failed, key: {}, e: ", entry.getKey(), e);
+            }
+        }
+        bcosSDKs.clear();
+        clients.clear();
+    }
+}
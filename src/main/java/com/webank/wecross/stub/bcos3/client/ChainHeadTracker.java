@@ -0,0 +1,115 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Track the latest block number of the chain, refreshed by the block notification of the node
+ * and by polling when no notification arrives within the poll interval, the block number is only
+ * served while it is not older than maxStaleness
+ */
+public class ChainHeadTracker {
+    private static final Logger logger = LoggerFactory.getLogger(ChainHeadTracker.class);
+
+    private final AbstractClientWrapper clientWrapper;
+
+    /** ms, 0 means the tracked block number is never served */
+    private final long maxStaleness;
+
+    private final AtomicLong blockNumber = new AtomicLong(-1);
+
+    private volatile long updateTimestamp = 0;
+
+    private ScheduledFuture<?> pollFuture = null;
+
+    public ChainHeadTracker(AbstractClientWrapper clientWrapper, long maxStaleness) {
+        this.clientWrapper = clientWrapper;
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * register block notifier and start polling
+     *
+     * @param scheduledExecutorService
+     * @param pollInterval ms
+     */
+    public synchronized void start(
+            ScheduledExecutorService scheduledExecutorService, long pollInterval) {
+        if (Objects.nonNull(pollFuture)) {
+            return;
+        }
+
+        try {
+            boolean registered =
+                    clientWrapper.registerBlockNotifier(
+                            (group, number) -> onBlockNumber(number.longValue()));
+            logger.info(" register block notifier, result: {}", registered);
+        } catch (Exception e) {
+            logger.warn(" register block notifier failed, e: ", e);
+        }
+
+        pollFuture =
+                scheduledExecutorService.scheduleAtFixedRate(
+                        () -> {
+                            if (System.currentTimeMillis() - updateTimestamp >= pollInterval) {
+                                poll();
+                            }
+                        },
+                        0,
+                        pollInterval,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (Objects.nonNull(pollFuture)) {
+            pollFuture.cancel(false);
+            pollFuture = null;
+        }
+    }
+
+    public void poll() {
+        clientWrapper
+                .getBlockNumberAsync()
+                .whenComplete(
+                        (number, e) -> {
+                            if (Objects.nonNull(e)) {
+                                logger.warn(" poll block number failed, e: ", e);
+                                return;
+                            }
+                            onBlockNumber(number.longValue());
+                        });
+    }
+
+    /**
+     * the block number never goes backwards, a lower number only refreshes the timestamp
+     *
+     * @param number
+     */
+    public void onBlockNumber(long number) {
+        blockNumber.accumulateAndGet(number, Math::max);
+        updateTimestamp = System.currentTimeMillis();
+        if (logger.isTraceEnabled()) {
+            logger.trace(" chain head updated, blockNumber: {}", blockNumber.get());
+        }
+    }
+
+    /** @return the tracked block number, -1 if unknown or staler than maxStaleness */
+    public long getBlockNumber() {
+        long number = blockNumber.get();
+        if (number < 0
+                || maxStaleness <= 0
+                || System.currentTimeMillis() - updateTimestamp > maxStaleness) {
+            return -1;
+        }
+        return number;
+    }
+
+    public long getMaxStaleness() {
+        return maxStaleness;
+    }
+}
@@ -2,16 +2,31 @@ package com.webank.wecross.stub.bcos3.client;
 
 import com.webank.wecross.stub.Block;
 import com.webank.wecross.stub.BlockManager;
+import com.webank.wecross.stub.bcos3.common.BlockCache;
+import com.webank.wecross.stub.bcos3.common.BlockRangeFetcher;
 import com.webank.wecross.stub.bcos3.contract.BlockUtility;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Objects;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
 
 public class ClientBlockManager implements BlockManager {
     private ClientWrapper clientWrapper;
 
+    /** committed blocks never change, null means always query node */
+    private BlockCache blockCache;
+
     public ClientBlockManager(ClientWrapper clientWrapper) {
+        this(
+                clientWrapper,
+                new BlockCache(
+                        ClientDefaultConfig.DEFAULT_BLOCK_CACHE_MAX_BYTES,
+                        ClientDefaultConfig.DEFAULT_BLOCK_HEADER_CACHE_MAX_BYTES));
+    }
+
+    public ClientBlockManager(ClientWrapper clientWrapper, BlockCache blockCache) {
         this.clientWrapper = clientWrapper;
+        this.blockCache = blockCache;
     }
 
     public long getBlockNumber() throws IOException {
@@ -20,8 +35,23 @@ public class ClientBlockManager implements BlockManager {
     }
 
     public Block getBlock(long blockNumber) throws IOException {
+        if (Objects.nonNull(blockCache)) {
+            Block cachedBlock = blockCache.get(blockNumber, false);
+            if (Objects.nonNull(cachedBlock)) {
+                return cachedBlock;
+            }
+        }
+
         BcosBlock.Block block = clientWrapper.getBlockByNumber(blockNumber, true);
-        return BlockUtility.convertToBlock(block, false);
+        Block stubBlock = BlockUtility.convertToBlock(block, false);
+        if (Objects.nonNull(blockCache)) {
+            blockCache.put(blockNumber, false, stubBlock);
+        }
+        return stubBlock;
+    }
+
+    public BlockCache getBlockCache() {
+        return blockCache;
     }
 
     @Override
@@ -40,6 +70,29 @@ public class ClientBlockManager implements BlockManager {
         }
     }
 
+    /**
+     * get the blocks of [fromBlockNumber, toBlockNumber] one by one in block number order
+     *
+     * @param fromBlockNumber
+     * @param toBlockNumber
+     * @param callback
+     * @return the fetcher to cancel
+     */
+    public BlockRangeFetcher asyncGetBlocks(
+            long fromBlockNumber, long toBlockNumber, BlockRangeFetcher.Callback callback) {
+        // the blocks are queried synchronously, requests in parallel are never in flight
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        fromBlockNumber,
+                        toBlockNumber,
+                        false,
+                        1,
+                        ClientDefaultConfig.DEFAULT_BLOCK_RANGE_MAX_BUFFERED_BYTES,
+                        (number, onlyHeader, cb) -> asyncGetBlock(number, cb::onResponse));
+        blockRangeFetcher.start(callback);
+        return blockRangeFetcher;
+    }
+
     @Override
     public void asyncGetBlock(long blockNumber, GetBlockCallback callback) {
         try {
@@ -11,4 +11,70 @@ public class ClientDefaultConfig {
     public static final int DEFAULT_SERVICE_THREAD_NUMBER = 16;
 
     public static final boolean DEFAULT_SERVICE_DISABLE_SSL = false;
+
+    /** 0 means requests are handled on the caller thread, others use the shared io pool */
+    public static final int DEFAULT_DISPATCH_THREAD_NUMBER = 0;
+
+    /** io thread num of the runtime, 0 means twice the number of processors */
+    public static final int DEFAULT_IO_THREAD_NUMBER = 0;
+
+    /** queue capacity of each pool of the runtime */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    /** ms, block number is polled only when no block notification arrives within the interval */
+    public static final int DEFAULT_BLOCK_NUMBER_POLL_INTERVAL = 5000;
+
+    /** ms, 0 means always query block number from node */
+    public static final int DEFAULT_BLOCK_NUMBER_MAX_STALENESS = 10000;
+
+    /** ms, interval of discovering resources in proxy contract, 0 means no discovery */
+    public static final int DEFAULT_RESOURCES_POLL_INTERVAL = 30000;
+
+    /** route read requests to the node with the lowest latency */
+    public static final boolean DEFAULT_PEER_ROUTING = false;
+
+    /** hedge a read request to another node if it is slower than p95 latency */
+    public static final boolean DEFAULT_HEDGED_READ = false;
+
+    /** crypto thread num, 0 means the number of processors */
+    public static final int DEFAULT_CRYPTO_THREAD_NUMBER = 0;
+
+    /** codec thread num, 0 means the number of processors */
+    public static final int DEFAULT_CODEC_THREAD_NUMBER = 0;
+
+    /** scheduler thread num */
+    public static final int DEFAULT_SCHEDULER_THREAD_NUMBER = 4;
+
+    /** bytes of cached full blocks, 0 disables the cache */
+    public static final long DEFAULT_BLOCK_CACHE_MAX_BYTES = 33554432L;
+
+    /** bytes of cached block headers, 0 disables the cache */
+    public static final long DEFAULT_BLOCK_HEADER_CACHE_MAX_BYTES = 8388608L;
+
+    /** max blocks prefetched ahead of sequential block sync, 0 disables prefetch */
+    public static final int DEFAULT_BLOCK_PREFETCH_WINDOW = 16;
+
+    /** block requests in flight of a block range fetch */
+    public static final int DEFAULT_BLOCK_RANGE_PARALLELISM = 8;
+
+    /** bytes of out-of-order blocks buffered by a block range fetch */
+    public static final int DEFAULT_BLOCK_RANGE_MAX_BUFFERED_BYTES = 16777216;
+
+    /** blocks between checkpoints whose signatures are verified by a header sync */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
+    /** chunks of a header sync waiting for verification or delivery before the fetch is held */
+    public static final int DEFAULT_CHECKPOINT_MAX_PENDING_CHUNKS = 4;
+
+    /** bytes of cached committed transactions and proofs, 0 disables the cache */
+    public static final long DEFAULT_TRANSACTION_CACHE_MAX_BYTES = 16777216L;
+
+    /** nodes of merkle trees remembered as verified by a connection, about 200 bytes each */
+    public static final int DEFAULT_MERKLE_MEMO_MAX_NODES = 262144;
+
+    /** block headers remembered as signature verified, 0 disables the cache */
+    public static final int DEFAULT_VERIFIED_HEADER_CACHE_SIZE = 4096;
+
+    /** names whose ABI are resolved in parallel */
+    public static final int DEFAULT_ABI_QUERY_PARALLELISM = 8;
 }
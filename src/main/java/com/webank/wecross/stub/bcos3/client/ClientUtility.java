@@ -3,8 +3,12 @@ package com.webank.wecross.stub.bcos3.client;
 import com.webank.wecross.exception.WeCrossException;
 import com.webank.wecross.stub.bcos3.config.BCOSStubConfig;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import org.fisco.bcos.sdk.v3.BcosSDK;
 import org.fisco.bcos.sdk.v3.client.Client;
 import org.fisco.bcos.sdk.v3.config.ConfigOption;
@@ -19,9 +23,20 @@ public class ClientUtility {
     private static final Logger logger = LoggerFactory.getLogger(ClientUtility.class);
 
     public static Client initClient(BCOSStubConfig bcosStubConfig) throws Exception {
-        BCOSStubConfig.Service serviceConfig = bcosStubConfig.getService();
         // groupID
         String groupID = bcosStubConfig.getChain().getGroupID();
+        return BcosSDKRegistry.getClient(initBcosSDK(bcosStubConfig), groupID);
+    }
+
+    /**
+     * the sdk is shared by the configs with the same peers, crypto material and network options
+     *
+     * @param bcosStubConfig
+     * @return
+     * @throws Exception
+     */
+    public static BcosSDK initBcosSDK(BCOSStubConfig bcosStubConfig) throws Exception {
+        BCOSStubConfig.Service serviceConfig = bcosStubConfig.getService();
 
         // cryptoMaterial
         Map<String, Object> cryptoMaterial = buildCryptoMaterial(bcosStubConfig);
@@ -42,12 +57,24 @@ public class ClientUtility {
         configProperty.setNetwork(network);
         configProperty.setThreadPool(threadPool);
 
-        // configOption
-        ConfigOption configOption = new ConfigOption(configProperty);
-
         // bcosSDK
-        BcosSDK bcosSDK = new BcosSDK(configOption);
-        return bcosSDK.getClient(groupID);
+        String key = buildBcosSDKKey(cryptoMaterial, serviceConfig);
+        return BcosSDKRegistry.getBcosSDK(
+                key, () -> new BcosSDK(new ConfigOption(configProperty)));
+    }
+
+    private static String buildBcosSDKKey(
+            Map<String, Object> cryptoMaterial, BCOSStubConfig.Service serviceConfig) {
+        List<String> peers = new ArrayList<>(serviceConfig.getConnectionsStr());
+        Collections.sort(peers);
+        return "peers="
+                + peers
+                + ", cryptoMaterial="
+                + new TreeMap<>(cryptoMaterial)
+                + ", messageTimeout="
+                + serviceConfig.getMessageTimeout()
+                + ", threadPoolSize="
+                + serviceConfig.getThreadPoolSize();
     }
 
     private static Map<String, Object> buildCryptoMaterial(BCOSStubConfig bcosStubConfig)
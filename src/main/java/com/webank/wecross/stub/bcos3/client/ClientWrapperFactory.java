@@ -1,7 +1,14 @@
 package com.webank.wecross.stub.bcos3.client;
 
+import com.webank.wecross.stub.bcos3.common.BCOSStubRuntime;
 import com.webank.wecross.stub.bcos3.config.BCOSStubConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.fisco.bcos.sdk.v3.BcosSDK;
 import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosGroupInfo;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosGroupNodeInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,7 +19,39 @@ public class ClientWrapperFactory {
     public static AbstractClientWrapper createClientWrapperInstance(BCOSStubConfig bcosStubConfig)
             throws Exception {
         logger.info("BCOSStubConfig: {}", bcosStubConfig);
-        Client client = ClientUtility.initClient(bcosStubConfig);
-        return new ClientWrapperImpl(client);
+        BcosSDK bcosSDK = ClientUtility.initBcosSDK(bcosStubConfig);
+        Client client =
+                BcosSDKRegistry.getClient(bcosSDK, bcosStubConfig.getChain().getGroupID());
+
+        BCOSStubConfig.Service serviceConfig = bcosStubConfig.getService();
+        if (serviceConfig.isPeerRouting()) {
+            List<String> nodes = getGroupNodes(client);
+            if (nodes.size() > 1) {
+                logger.info(
+                        " peer routing enabled, nodes: {}, hedgedRead: {}",
+                        nodes,
+                        serviceConfig.isHedgedRead());
+                PeerRouter peerRouter =
+                        new PeerRouter(
+                                nodes,
+                                serviceConfig.isHedgedRead(),
+                                BCOSStubRuntime.getInstance().getScheduledExecutorService());
+                return new RoutedClientWrapper(bcosSDK, client, peerRouter);
+            }
+            logger.info(" peer routing disabled, nodes: {}", nodes);
+        }
+        return new ClientWrapperImpl(bcosSDK, client);
+    }
+
+    private static List<String> getGroupNodes(Client client) {
+        List<String> nodes = new ArrayList<>();
+        BcosGroupInfo bcosGroupInfo = client.getGroupInfo();
+        if (Objects.isNull(bcosGroupInfo) || Objects.isNull(bcosGroupInfo.getResult())) {
+            return nodes;
+        }
+        for (BcosGroupNodeInfo.GroupNodeInfo nodeInfo : bcosGroupInfo.getResult().getNodeList()) {
+            nodes.add(nodeInfo.getName());
+        }
+        return nodes;
     }
 }
@@ -1,10 +1,33 @@
 package com.webank.wecross.stub.bcos3.client;
 
+import java.util.Objects;
+import org.fisco.bcos.sdk.jni.BlockNotifier;
+import org.fisco.bcos.sdk.v3.BcosSDK;
 import org.fisco.bcos.sdk.v3.client.Client;
 
 public class ClientWrapperImpl extends AbstractClientWrapper {
 
+    private BcosSDK bcosSDK;
+
     public ClientWrapperImpl(Client client) {
         super(client);
     }
+
+    public ClientWrapperImpl(BcosSDK bcosSDK, Client client) {
+        super(client);
+        this.bcosSDK = bcosSDK;
+    }
+
+    @Override
+    public boolean registerBlockNotifier(BlockNotifier notifier) {
+        if (Objects.isNull(bcosSDK) || Objects.isNull(getClient())) {
+            return false;
+        }
+        bcosSDK.registerBlockNotifier(getClient().getGroup(), notifier);
+        return true;
+    }
+
+    public BcosSDK getBcosSDK() {
+        return bcosSDK;
+    }
 }
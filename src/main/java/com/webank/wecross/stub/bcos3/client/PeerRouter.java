@@ -0,0 +1,298 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.fisco.bcos.sdk.v3.client.exceptions.ClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Route read requests to the node with the lowest EWMA latency weighted by EWMA error rate. A
+ * read failed in transport is retried once on the next best node, and with hedged read enabled the
+ * second node is also requested once the first one is slower than the p95 latency of recent reads.
+ * An rpc error answered by the node, a ClientException, is returned to the caller as is.
+ */
+public class PeerRouter {
+    private static final Logger logger = LoggerFactory.getLogger(PeerRouter.class);
+
+    /** weight of the latest sample in EWMA */
+    private static final double EWMA_ALPHA = 0.2;
+
+    /** penalty factor of error rate on latency */
+    private static final double ERROR_PENALTY = 10;
+
+    /** one of every PROBE_INTERVAL reads is sent to the next node in turn to refresh its stats */
+    private static final int PROBE_INTERVAL = 64;
+
+    private static final int LATENCY_WINDOW = 256;
+
+    /** ms */
+    private static final long MIN_HEDGE_DELAY = 5;
+
+    private final List<PeerStats> peers;
+
+    private final boolean hedgedRead;
+
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private final AtomicLong readCount = new AtomicLong(0);
+
+    private final AtomicLong hedgeCount = new AtomicLong(0);
+
+    private final long[] latencyWindow = new long[LATENCY_WINDOW];
+
+    private int latencyIndex = 0;
+
+    private int latencySize = 0;
+
+    /**
+     * @param nodes
+     * @param hedgedRead
+     * @param scheduledExecutorService timer of hedged read, not used if hedgedRead is false
+     */
+    public PeerRouter(
+            List<String> nodes,
+            boolean hedgedRead,
+            ScheduledExecutorService scheduledExecutorService) {
+        List<PeerStats> peerStatsList = new ArrayList<>();
+        for (String node : nodes) {
+            peerStatsList.add(new PeerStats(node));
+        }
+        this.peers = Collections.unmodifiableList(peerStatsList);
+        this.hedgedRead = hedgedRead && Objects.nonNull(scheduledExecutorService);
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    /**
+     * send the read request to the best node
+     *
+     * @param request issue the request to the given node
+     * @return
+     */
+    public <T> CompletableFuture<T> read(Function<String, CompletableFuture<T>> request) {
+        List<PeerStats> ranked = rank();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (ranked.size() == 1) {
+            send(ranked.get(0), request, result, result::completeExceptionally);
+            return result;
+        }
+
+        PeerStats first = ranked.get(0);
+        PeerStats second = ranked.get(1);
+        AtomicBoolean secondSent = new AtomicBoolean(false);
+        AtomicInteger pending = new AtomicInteger(1);
+        Function<Throwable, Boolean> sendSecond =
+                e -> {
+                    if (result.isDone() || !secondSent.compareAndSet(false, true)) {
+                        return false;
+                    }
+                    pending.incrementAndGet();
+                    send(
+                            second,
+                            request,
+                            result,
+                            secondException -> {
+                                if (pending.decrementAndGet() == 0) {
+                                    result.completeExceptionally(secondException);
+                                }
+                            });
+                    return true;
+                };
+
+        send(
+                first,
+                request,
+                result,
+                e -> {
+                    // retry on the next best node
+                    sendSecond.apply(e);
+                    if (pending.decrementAndGet() == 0) {
+                        result.completeExceptionally(e);
+                    }
+                });
+
+        if (hedgedRead && !result.isDone()) {
+            scheduledExecutorService.schedule(
+                    () -> {
+                        if (sendSecond.apply(null)) {
+                            hedgeCount.incrementAndGet();
+                            if (logger.isTraceEnabled()) {
+                                logger.trace(
+                                        " hedged read, slow: {}, hedge: {}",
+                                        first.getNode(),
+                                        second.getNode());
+                            }
+                        }
+                    },
+                    getHedgeDelay(),
+                    TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    private <T> void send(
+            PeerStats peer,
+            Function<String, CompletableFuture<T>> request,
+            CompletableFuture<T> result,
+            Consumer<Throwable> onError) {
+        long startTime = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = request.apply(peer.getNode());
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+
+        future.whenComplete(
+                (value, e) -> {
+                    long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    if (Objects.isNull(e)) {
+                        peer.onResponse(latency, true);
+                        addLatency(latency);
+                        result.complete(value);
+                        return;
+                    }
+
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof ClientException) {
+                        // the node is healthy, another node would answer the same
+                        peer.onResponse(latency, true);
+                        logger.debug(" rpc error, node: {}, e: {}", peer.getNode(), cause);
+                        result.completeExceptionally(cause);
+                        return;
+                    }
+
+                    peer.onResponse(latency, false);
+                    logger.debug(" read failed, node: {}, e: {}", peer.getNode(), cause);
+                    onError.accept(cause);
+                });
+    }
+
+    /** @return peers ordered by score, a probe read moves the next node in turn to the head */
+    private List<PeerStats> rank() {
+        // snapshot the scores, they are updated concurrently
+        Map<PeerStats, Double> scores = new HashMap<>();
+        for (PeerStats peer : peers) {
+            scores.put(peer, peer.getScore());
+        }
+        List<PeerStats> ranked = new ArrayList<>(peers);
+        ranked.sort(Comparator.comparingDouble(scores::get));
+        long count = readCount.incrementAndGet();
+        if (ranked.size() > 1 && count % PROBE_INTERVAL == 0) {
+            int probe = (int) ((count / PROBE_INTERVAL) % ranked.size());
+            ranked.add(0, ranked.remove(probe));
+        }
+        return ranked;
+    }
+
+    private synchronized void addLatency(long latency) {
+        latencyWindow[latencyIndex] = latency;
+        latencyIndex = (latencyIndex + 1) % LATENCY_WINDOW;
+        latencySize = Math.min(latencySize + 1, LATENCY_WINDOW);
+    }
+
+    /** @return ms, p95 latency of recent reads */
+    public synchronized long getHedgeDelay() {
+        if (latencySize == 0) {
+            return ClientDefaultConfig.DEFAULT_SERVICE_TIMEOUT;
+        }
+        long[] latencies = Arrays.copyOf(latencyWindow, latencySize);
+        Arrays.sort(latencies);
+        return Math.max(MIN_HEDGE_DELAY, latencies[(int) (latencySize * 0.95)]);
+    }
+
+    public List<PeerStats> getPeers() {
+        return peers;
+    }
+
+    public long getReadCount() {
+        return readCount.get();
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    public static class PeerStats {
+        private final String node;
+        private volatile double latency = 0;
+        private volatile double errorRate = 0;
+        private volatile long requestCount = 0;
+
+        public PeerStats(String node) {
+            this.node = node;
+        }
+
+        private long latencySampleCount = 0;
+
+        /**
+         * only successful responses are sampled in latency, failures raise the error rate
+         *
+         * @param latency ms
+         * @param success
+         */
+        public synchronized void onResponse(long latency, boolean success) {
+            if (success) {
+                this.latency =
+                        latencySampleCount == 0
+                                ? latency
+                                : this.latency * (1 - EWMA_ALPHA) + latency * EWMA_ALPHA;
+                latencySampleCount++;
+            }
+            this.errorRate = this.errorRate * (1 - EWMA_ALPHA) + (success ? 0 : EWMA_ALPHA);
+            requestCount++;
+        }
+
+        /** @return lower is better, nodes never requested come first */
+        public double getScore() {
+            return (latency + 1) * (1 + ERROR_PENALTY * errorRate);
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public double getLatency() {
+            return latency;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        @Override
+        public String toString() {
+            return "PeerStats{"
+                    + "node='"
+                    + node
+                    + '\''
+                    + ", latency="
+                    + latency
+                    + ", errorRate="
+                    + errorRate
+                    + ", requestCount="
+                    + requestCount
+                    + '}';
+        }
+    }
+}
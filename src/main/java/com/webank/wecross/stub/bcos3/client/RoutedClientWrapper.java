@@ -0,0 +1,234 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.fisco.bcos.sdk.v3.BcosSDK;
+import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.client.exceptions.ClientException;
+import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
+import org.fisco.bcos.sdk.v3.client.protocol.request.Transaction;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosTransaction;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosTransactionReceipt;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BlockNumber;
+import org.fisco.bcos.sdk.v3.client.protocol.response.Call;
+import org.fisco.bcos.sdk.v3.model.Response;
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+import org.fisco.bcos.sdk.v3.model.callback.RespCallback;
+
+/**
+ * Client wrapper sending read requests to the node chosen by PeerRouter, the blocking reads wait
+ * for the routed async ones
+ */
+public class RoutedClientWrapper extends ClientWrapperImpl {
+
+    private final PeerRouter peerRouter;
+
+    public RoutedClientWrapper(BcosSDK bcosSDK, Client client, PeerRouter peerRouter) {
+        super(bcosSDK, client);
+        this.peerRouter = peerRouter;
+    }
+
+    @Override
+    public BcosBlock.Block getBlockByNumber(long blockNumber, boolean onlyTxHash)
+            throws IOException {
+        return join(getBlockByNumberAsync(blockNumber, onlyTxHash));
+    }
+
+    @Override
+    public BcosBlockHeader.BlockHeader getBlockHeaderByNumber(long blockNumber) throws IOException {
+        return join(getBlockHeaderByNumberAsync(blockNumber));
+    }
+
+    @Override
+    public BigInteger getBlockNumber() throws IOException {
+        return join(getBlockNumberAsync());
+    }
+
+    @Override
+    public TransactionReceipt getTransactionReceiptByHashWithProof(String transactionHash)
+            throws IOException {
+        return join(getTransactionReceiptByHashWithProofAsync(transactionHash));
+    }
+
+    @Override
+    public JsonTransactionResponse getTransactionByHashWithProof(String transactionHash)
+            throws IOException {
+        return join(getTransactionByHashWithProofAsync(transactionHash));
+    }
+
+    @Override
+    public TransactionReceipt getTransactionReceipt(String transactionHash) {
+        try {
+            return join(getTransactionReceiptAsync(transactionHash));
+        } catch (IOException e) {
+            // thrown by the sdk as well when no node answers
+            throw new ClientException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public JsonTransactionResponse getTransaction(String transactionHash) {
+        try {
+            return join(getTransactionAsync(transactionHash));
+        } catch (IOException e) {
+            throw new ClientException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Call.CallOutput call(String accountAddress, String contractAddress, byte[] data)
+            throws IOException {
+        return join(callAsync(accountAddress, contractAddress, data));
+    }
+
+    @Override
+    public CompletableFuture<BigInteger> getBlockNumberAsync() {
+        return read(
+                (node, callback) -> getClient().getBlockNumberAsync(node, callback),
+                BlockNumber::getBlockNumber);
+    }
+
+    @Override
+    public CompletableFuture<BcosBlock.Block> getBlockByNumberAsync(
+            long blockNumber, boolean onlyTxHash) {
+        return read(
+                (node, callback) ->
+                        getClient()
+                                .getBlockByNumberAsync(
+                                        node,
+                                        BigInteger.valueOf(blockNumber),
+                                        false,
+                                        onlyTxHash,
+                                        callback),
+                BcosBlock::getBlock);
+    }
+
+    @Override
+    public CompletableFuture<BcosBlockHeader.BlockHeader> getBlockHeaderByNumberAsync(
+            long blockNumber) {
+        return read(
+                (node, callback) ->
+                        getClient()
+                                .getBlockByNumberAsync(
+                                        node,
+                                        BigInteger.valueOf(blockNumber),
+                                        true,
+                                        false,
+                                        callback),
+                BcosBlock::getBlock);
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptByHashWithProofAsync(
+            String transactionHash) {
+        return read(
+                (node, callback) ->
+                        getClient()
+                                .getTransactionReceiptAsync(node, transactionHash, true, callback),
+                BcosTransactionReceipt::getResult);
+    }
+
+    @Override
+    public CompletableFuture<JsonTransactionResponse> getTransactionByHashWithProofAsync(
+            String transactionHash) {
+        return read(
+                (node, callback) ->
+                        getClient().getTransactionAsync(node, transactionHash, true, callback),
+                BcosTransaction::getResult);
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptAsync(
+            String transactionHash) {
+        return read(
+                (node, callback) ->
+                        getClient()
+                                .getTransactionReceiptAsync(node, transactionHash, false, callback),
+                BcosTransactionReceipt::getResult);
+    }
+
+    @Override
+    public CompletableFuture<JsonTransactionResponse> getTransactionAsync(String transactionHash) {
+        return read(
+                (node, callback) ->
+                        getClient().getTransactionAsync(node, transactionHash, false, callback),
+                BcosTransaction::getResult);
+    }
+
+    @Override
+    public CompletableFuture<Call.CallOutput> callAsync(
+            String accountAddress, String contractAddress, byte[] data) {
+        Transaction transaction = new Transaction(accountAddress, contractAddress, data);
+        return read(
+                (node, callback) -> getClient().callAsync(node, transaction, callback),
+                Call::getCallResult);
+    }
+
+    /** wait for a routed read, an rpc error is thrown as is, a transport failure as IOException */
+    private static <R> R join(CompletableFuture<R> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private <T, R> CompletableFuture<R> read(
+            BiConsumer<String, RespCallback<T>> request, Function<T, R> mapper) {
+        return peerRouter.read(
+                node -> {
+                    CompletableFuture<R> future = new CompletableFuture<>();
+                    request.accept(node, newRoutedRespCallback(node, future, mapper));
+                    return future;
+                });
+    }
+
+    /**
+     * an error without reply content is a transport failure, which fails the future with an
+     * IOException so PeerRouter retries it, an rpc error answered by the node is a ClientException
+     */
+    private static <T, R> RespCallback<T> newRoutedRespCallback(
+            String node, CompletableFuture<R> future, Function<T, R> mapper) {
+        RespCallback<T> callback = newRespCallback(future, mapper);
+        return new RespCallback<T>() {
+            @Override
+            public void onResponse(T response) {
+                callback.onResponse(response);
+            }
+
+            @Override
+            public void onError(Response errorResponse) {
+                byte[] content = errorResponse.getContent();
+                if (Objects.nonNull(content) && content.length > 0) {
+                    callback.onError(errorResponse);
+                    return;
+                }
+                future.completeExceptionally(
+                        new IOException(
+                                "rpc failed, node: "
+                                        + node
+                                        + ", code: "
+                                        + errorResponse.getErrorCode()
+                                        + ", message: "
+                                        + errorResponse.getErrorMessage()));
+            }
+        };
+    }
+
+    public PeerRouter getPeerRouter() {
+        return peerRouter;
+    }
+}
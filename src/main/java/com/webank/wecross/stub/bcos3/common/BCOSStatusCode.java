@@ -32,6 +32,8 @@ public class BCOSStatusCode {
     public static final int MethodNotExist = 2042;
 
     public static final int UnsupportedRPC = 2050;
+    public static final int RequestDispatchRejected = 2051;
+    public static final int VerifyRejected = 2052;
     public static final int UnclassifiedError = 2100;
 
     public static String getStatusMessage(int status) {
@@ -72,6 +74,12 @@ public class BCOSStatusCode {
             case BlockNotExist:
                 message = "block not exist";
                 break;
+            case RequestDispatchRejected:
+                message = "request dispatch rejected, connection is busy";
+                break;
+            case VerifyRejected:
+                message = "verification rejected, crypto pool is busy";
+                break;
             default:
                 message = "unrecognized status: " + status;
                 break;
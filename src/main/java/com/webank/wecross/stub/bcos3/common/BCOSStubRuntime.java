@@ -0,0 +1,512 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import com.webank.wecross.stub.bcos3.client.BcosSDKRegistry;
+import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
+import com.webank.wecross.stub.bcos3.config.BCOSStubConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Thread pools shared by all connections and drivers of the stub: io for dispatching blocking rpc
+ * requests, crypto for signing and verification, codec for encoding and decoding, and scheduling.
+ * Each pool is created on first use and sized by the [runtime] config of the first connection, a
+ * pool created before is resized to it. The queues are bounded and the rejected tasks are counted
+ * in the metrics. The runtime is shut down by a jvm shutdown hook, see {@link #shutdown()}.
+ */
+public class BCOSStubRuntime {
+    private static final Logger logger = LoggerFactory.getLogger(BCOSStubRuntime.class);
+
+    public static final String IO_POOL = "io";
+    public static final String CRYPTO_POOL = "crypto";
+    public static final String CODEC_POOL = "codec";
+    public static final String SCHEDULER_POOL = "scheduler";
+
+    private static BCOSStubRuntime instance = null;
+
+    private final int processors = Runtime.getRuntime().availableProcessors();
+
+    private boolean configured = false;
+    private int ioThreadNum = 2 * processors;
+    private int cryptoThreadNum = processors;
+    private int codecThreadNum = processors;
+    private int schedulerThreadNum = ClientDefaultConfig.DEFAULT_SCHEDULER_THREAD_NUMBER;
+    private int queueCapacity = ClientDefaultConfig.DEFAULT_QUEUE_CAPACITY;
+    private int abiQueryParallelism = ClientDefaultConfig.DEFAULT_ABI_QUERY_PARALLELISM;
+
+    private ThreadPoolExecutor ioExecutor = null;
+    private ThreadPoolExecutor cryptoExecutor = null;
+    private ThreadPoolExecutor codecExecutor = null;
+    private ScheduledThreadPoolExecutor scheduledExecutorService = null;
+
+    private final AtomicLong ioRejectedCount = new AtomicLong(0);
+    private final AtomicLong cryptoRejectedCount = new AtomicLong(0);
+    private final AtomicLong codecRejectedCount = new AtomicLong(0);
+
+    /** shutdown the runtime when the router process exits, removed by an explicit shutdown */
+    private final Thread shutdownHook = new Thread(BCOSStubRuntime::shutdown, "BCOSStubShutdown");
+
+    public static synchronized BCOSStubRuntime getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = new BCOSStubRuntime();
+            Runtime.getRuntime().addShutdownHook(instance.shutdownHook);
+        }
+        return instance;
+    }
+
+    /**
+     * size the pools by the runtime config of a stub. Only the first config takes effect, a later
+     * one that differs is logged and ignored. A pool created before, by a driver for example, is
+     * resized to the config, its queue keeps the capacity it was created with.
+     *
+     * @param runtimeConfig
+     */
+    public synchronized void configure(BCOSStubConfig.Runtime runtimeConfig) {
+        if (Objects.isNull(runtimeConfig)) {
+            return;
+        }
+
+        int io = positiveOrDefault(runtimeConfig.getIoThreadNum(), 2 * processors);
+        int crypto = positiveOrDefault(runtimeConfig.getCryptoThreadNum(), processors);
+        int codec = positiveOrDefault(runtimeConfig.getCodecThreadNum(), processors);
+        int scheduler =
+                positiveOrDefault(
+                        runtimeConfig.getSchedulerThreadNum(),
+                        ClientDefaultConfig.DEFAULT_SCHEDULER_THREAD_NUMBER);
+        int queue =
+                positiveOrDefault(
+                        runtimeConfig.getQueueCapacity(),
+                        ClientDefaultConfig.DEFAULT_QUEUE_CAPACITY);
+        int abiQuery =
+                positiveOrDefault(
+                        runtimeConfig.getAbiQueryParallelism(),
+                        ClientDefaultConfig.DEFAULT_ABI_QUERY_PARALLELISM);
+
+        if (configured) {
+            if (io != ioThreadNum
+                    || crypto != cryptoThreadNum
+                    || codec != codecThreadNum
+                    || scheduler != schedulerThreadNum
+                    || queue != queueCapacity
+                    || abiQuery != abiQueryParallelism) {
+                logger.warn(
+                        " runtime is configured by the first connection, io: {}, crypto: {},"
+                                + " codec: {}, scheduler: {}, queue: {}, abiQuery: {}, ignore {}",
+                        ioThreadNum,
+                        cryptoThreadNum,
+                        codecThreadNum,
+                        schedulerThreadNum,
+                        queueCapacity,
+                        abiQueryParallelism,
+                        runtimeConfig);
+            }
+            return;
+        }
+
+        configured = true;
+        ioThreadNum = io;
+        cryptoThreadNum = crypto;
+        codecThreadNum = codec;
+        schedulerThreadNum = scheduler;
+        queueCapacity = queue;
+        abiQueryParallelism = abiQuery;
+        resize(IO_POOL, ioExecutor, ioThreadNum);
+        resize(CRYPTO_POOL, cryptoExecutor, cryptoThreadNum);
+        resize(CODEC_POOL, codecExecutor, codecThreadNum);
+        if (Objects.nonNull(scheduledExecutorService)
+                && scheduledExecutorService.getCorePoolSize() != schedulerThreadNum) {
+            logger.warn(
+                    " pool {} is created before the runtime is configured, resize threads: {} ->"
+                            + " {}",
+                    SCHEDULER_POOL,
+                    scheduledExecutorService.getCorePoolSize(),
+                    schedulerThreadNum);
+            scheduledExecutorService.setCorePoolSize(schedulerThreadNum);
+        }
+        logger.info(
+                " runtime configured, io: {}, crypto: {}, codec: {}, scheduler: {}, queue: {}",
+                ioThreadNum,
+                cryptoThreadNum,
+                codecThreadNum,
+                schedulerThreadNum,
+                queueCapacity);
+    }
+
+    private static int positiveOrDefault(int value, int defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+
+    private void resize(String name, ThreadPoolExecutor executor, int threadNum) {
+        if (Objects.isNull(executor)) {
+            return;
+        }
+        int capacity = executor.getQueue().size() + executor.getQueue().remainingCapacity();
+        if (capacity != queueCapacity) {
+            logger.warn(
+                    " pool {} is created before the runtime is configured, keep queue: {}, ignore"
+                            + " queue: {}",
+                    name,
+                    capacity,
+                    queueCapacity);
+        }
+        if (executor.getCorePoolSize() == threadNum) {
+            return;
+        }
+        logger.warn(
+                " pool {} is created before the runtime is configured, resize threads: {} -> {}",
+                name,
+                executor.getCorePoolSize(),
+                threadNum);
+        // the core size never exceeds the max size in between
+        if (threadNum > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threadNum);
+            executor.setCorePoolSize(threadNum);
+        } else {
+            executor.setCorePoolSize(threadNum);
+            executor.setMaximumPoolSize(threadNum);
+        }
+    }
+
+    /** @return threads of the io pool, shared by the connections dispatching requests */
+    public synchronized int getIoThreadNum() {
+        return ioThreadNum;
+    }
+
+    Thread getShutdownHook() {
+        return shutdownHook;
+    }
+
+    public synchronized int getCryptoThreadNum() {
+        return cryptoThreadNum;
+    }
+
+    /** @return names whose ABI are resolved from the proxy contract at the same time */
+    public synchronized int getAbiQueryParallelism() {
+        return abiQueryParallelism;
+    }
+
+    /** @return executor of blocking rpc requests, full queue rejects the task */
+    public synchronized ExecutorService getIoExecutor() {
+        if (Objects.isNull(ioExecutor)) {
+            ioExecutor = newThreadPool("BCOSStubIO-", ioThreadNum, ioRejectedCount);
+        }
+        return ioExecutor;
+    }
+
+    /** @return executor of signing and verification, full queue rejects the task */
+    public synchronized ExecutorService getCryptoExecutor() {
+        if (Objects.isNull(cryptoExecutor)) {
+            cryptoExecutor = newThreadPool("BCOSStubCrypto-", cryptoThreadNum, cryptoRejectedCount);
+        }
+        return cryptoExecutor;
+    }
+
+    /** @return executor of encoding and decoding, full queue rejects the task */
+    public synchronized ExecutorService getCodecExecutor() {
+        if (Objects.isNull(codecExecutor)) {
+            codecExecutor = newThreadPool("BCOSStubCodec-", codecThreadNum, codecRejectedCount);
+        }
+        return codecExecutor;
+    }
+
+    public synchronized ScheduledExecutorService getScheduledExecutorService() {
+        if (Objects.isNull(scheduledExecutorService)) {
+            CustomizableThreadFactory threadFactory =
+                    new CustomizableThreadFactory("BCOSStubScheduler-");
+            threadFactory.setDaemon(true);
+            scheduledExecutorService =
+                    new ScheduledThreadPoolExecutor(schedulerThreadNum, threadFactory);
+            scheduledExecutorService.setRemoveOnCancelPolicy(true);
+        }
+        return scheduledExecutorService;
+    }
+
+    /**
+     * run the task on the executor, a saturated executor runs it on the caller thread, so the
+     * producer is slowed down instead of the task failing. Only for producers whose thread may run
+     * the task, verification submitted from the sdk callback threads uses tryExecute instead.
+     *
+     * @param executor
+     * @param task
+     */
+    public static void execute(Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug(" executor saturated, run on the caller thread");
+            task.run();
+        }
+    }
+
+    /**
+     * run the task on the executor, a saturated executor rejects it and the caller fails its
+     * request, so crypto work never falls back to the thread delivering a response
+     *
+     * @param executor
+     * @param task
+     * @return false if the executor rejected the task
+     */
+    public static boolean tryExecute(Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn(" executor saturated, task rejected");
+            return false;
+        }
+    }
+
+    /** @return the error of a request whose verification is rejected by tryExecute */
+    public static BCOSStubException newVerifyRejectedException() {
+        return new BCOSStubException(
+                BCOSStatusCode.VerifyRejected,
+                BCOSStatusCode.getStatusMessage(BCOSStatusCode.VerifyRejected));
+    }
+
+    /**
+     * run the action for every item, in parallel on the executor and the caller thread. The items
+     * are claimed one by one, the caller claims whatever the executor has not started, so it never
+     * waits for a task still queued, and a saturated or busy executor just leaves the items to the
+     * caller. Safe to call from a thread of the executor itself.
+     *
+     * @param executor
+     * @param parallelism threads working on the items at most, including the caller
+     * @param items
+     * @param action
+     */
+    public static <T> void forEach(
+            Executor executor, int parallelism, List<T> items, Consumer<T> action) {
+        AtomicInteger next = new AtomicInteger(0);
+        CountDownLatch done = new CountDownLatch(items.size());
+        AtomicReference<RuntimeException> exception = new AtomicReference<>();
+        Runnable worker =
+                () -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < items.size()) {
+                        try {
+                            action.accept(items.get(i));
+                        } catch (RuntimeException e) {
+                            exception.compareAndSet(null, e);
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                };
+
+        for (int i = 1; i < Math.min(parallelism, items.size()); i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+
+        // only the items being handled by the executor are left
+        boolean interrupted = false;
+        while (done.getCount() > 0) {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (Objects.nonNull(exception.get())) {
+            throw exception.get();
+        }
+    }
+
+    private ThreadPoolExecutor newThreadPool(
+            String threadNamePrefix, int threadNum, AtomicLong rejectedCount) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        RejectedExecutionHandler abortPolicy = new ThreadPoolExecutor.AbortPolicy();
+        logger.info(" new thread pool: {}, threads: {}", threadNamePrefix, threadNum);
+        return new ThreadPoolExecutor(
+                threadNum,
+                threadNum,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                (runnable, executor) -> {
+                    rejectedCount.incrementAndGet();
+                    abortPolicy.rejectedExecution(runnable, executor);
+                });
+    }
+
+    /** @return metrics of the pools already created */
+    public synchronized List<PoolMetrics> getMetrics() {
+        List<PoolMetrics> metrics = new ArrayList<>();
+        if (Objects.nonNull(ioExecutor)) {
+            metrics.add(new PoolMetrics(IO_POOL, ioExecutor, ioRejectedCount.get()));
+        }
+        if (Objects.nonNull(cryptoExecutor)) {
+            metrics.add(new PoolMetrics(CRYPTO_POOL, cryptoExecutor, cryptoRejectedCount.get()));
+        }
+        if (Objects.nonNull(codecExecutor)) {
+            metrics.add(new PoolMetrics(CODEC_POOL, codecExecutor, codecRejectedCount.get()));
+        }
+        if (Objects.nonNull(scheduledExecutorService)) {
+            metrics.add(new PoolMetrics(SCHEDULER_POOL, scheduledExecutorService, 0));
+        }
+        return metrics;
+    }
+
+    /**
+     * shutdown the pools and the shared sdk, called by the shutdown hook when the process exits.
+     * The shutdown is final for the components created before it: drivers and connections keep the
+     * executors they got at construction and their periodic tasks, so they must be created again.
+     * The next getInstance() creates a new runtime for them.
+     */
+    public static void shutdown() {
+        BCOSStubRuntime runtime;
+        synchronized (BCOSStubRuntime.class) {
+            runtime = instance;
+            instance = null;
+        }
+        if (Objects.isNull(runtime)) {
+            return;
+        }
+
+        if (Thread.currentThread() != runtime.shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(runtime.shutdownHook);
+            } catch (IllegalStateException e) {
+                // the process is exiting, the hook runs anyway and finds no runtime
+            }
+        }
+
+        logger.info(" shutdown runtime, metrics: {}", runtime.getMetrics());
+        List<ExecutorService> executors = new ArrayList<>();
+        synchronized (runtime) {
+            executors.add(runtime.scheduledExecutorService);
+            executors.add(runtime.ioExecutor);
+            executors.add(runtime.cryptoExecutor);
+            executors.add(runtime.codecExecutor);
+        }
+        for (ExecutorService executor : executors) {
+            if (Objects.nonNull(executor)) {
+                executor.shutdown();
+            }
+        }
+        for (ExecutorService executor : executors) {
+            try {
+                if (Objects.nonNull(executor)
+                        && !executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        BcosSDKRegistry.stopAll();
+    }
+
+    public static class PoolMetrics {
+        private final String name;
+        private final int poolSize;
+        private final int maxPoolSize;
+        private final int activeCount;
+        private final int queueSize;
+        private final int queueRemainingCapacity;
+        private final long completedTaskCount;
+        private final long rejectedCount;
+
+        public PoolMetrics(String name, ThreadPoolExecutor executor, long rejectedCount) {
+            this.name = name;
+            this.poolSize = executor.getPoolSize();
+            // the max pool size of scheduled executor is unbounded, its core threads are fixed
+            this.maxPoolSize =
+                    executor instanceof ScheduledThreadPoolExecutor
+                            ? executor.getCorePoolSize()
+                            : executor.getMaximumPoolSize();
+            this.activeCount = executor.getActiveCount();
+            this.queueSize = executor.getQueue().size();
+            this.queueRemainingCapacity = executor.getQueue().remainingCapacity();
+            this.completedTaskCount = executor.getCompletedTaskCount();
+            this.rejectedCount = rejectedCount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public int getActiveCount() {
+            return activeCount;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public int getQueueRemainingCapacity() {
+            return queueRemainingCapacity;
+        }
+
+        public long getCompletedTaskCount() {
+            return completedTaskCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        /** @return busy threads over max threads */
+        public double getSaturation() {
+            return maxPoolSize == 0 ? 0 : (double) activeCount / maxPoolSize;
+        }
+
+        @Override
+        public String toString() {
+            return "PoolMetrics{"
+                    + "name='"
+                    + name
+                    + '\''
+                    + ", poolSize="
+                    + poolSize
+                    + ", maxPoolSize="
+                    + maxPoolSize
+                    + ", activeCount="
+                    + activeCount
+                    + ", queueSize="
+                    + queueSize
+                    + ", queueRemainingCapacity="
+                    + queueRemainingCapacity
+                    + ", completedTaskCount="
+                    + completedTaskCount
+                    + ", rejectedCount="
+                    + rejectedCount
+                    + '}';
+        }
+    }
+}
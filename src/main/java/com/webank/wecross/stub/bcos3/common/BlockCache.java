@@ -0,0 +1,239 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import com.webank.wecross.stub.Block;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Cache of blocks by block number. A BCOS block never changes once it is committed by PBFT, so
+ * entries never expire and are only evicted in LRU order when the bytes of a tier exceed its limit.
+ * Header-only blocks and full blocks are kept in separate tiers, a header lookup is also served by
+ * the full tier. The cached blocks are shared by all callers and must not be modified.
+ */
+public class BlockCache {
+    /** estimated bytes of a block header without raw bytes */
+    private static final int ESTIMATED_HEADER_BYTES = 1024;
+
+    /** estimated bytes of a transaction hash string */
+    private static final int ESTIMATED_TX_HASH_BYTES = 128;
+
+    private final Tier headerTier;
+    private final Tier fullTier;
+
+    /** called with a block evicted from both tiers, outside the locks of the tiers */
+    private volatile Consumer<Block> evictionListener = null;
+
+    /**
+     * @param maxBytes bytes of full blocks, 0 disables the full tier
+     * @param headerMaxBytes bytes of header-only blocks, 0 disables the header tier
+     */
+    public BlockCache(long maxBytes, long headerMaxBytes) {
+        this.fullTier = new Tier(maxBytes);
+        this.headerTier = new Tier(headerMaxBytes);
+    }
+
+    /**
+     * @param blockNumber
+     * @param onlyHeader
+     * @return the cached block, null if missing
+     */
+    public Block get(long blockNumber, boolean onlyHeader) {
+        if (!onlyHeader) {
+            return fullTier.get(blockNumber, true);
+        }
+
+        Block block = fullTier.get(blockNumber, false);
+        if (Objects.nonNull(block)) {
+            headerTier.hitCount.incrementAndGet();
+            return block;
+        }
+        return headerTier.get(blockNumber, true);
+    }
+
+    /**
+     * check the block without counting the lookup in stats
+     *
+     * @param blockNumber
+     * @param onlyHeader
+     * @return
+     */
+    public boolean contains(long blockNumber, boolean onlyHeader) {
+        return fullTier.contains(blockNumber)
+                || (onlyHeader && headerTier.contains(blockNumber));
+    }
+
+    public void put(long blockNumber, boolean onlyHeader, Block block) {
+        if (Objects.isNull(block)) {
+            return;
+        }
+
+        Map<Long, Block> evicted =
+                onlyHeader ? headerTier.put(blockNumber, block) : fullTier.put(blockNumber, block);
+        Consumer<Block> listener = evictionListener;
+        if (Objects.isNull(listener)) {
+            return;
+        }
+        for (Map.Entry<Long, Block> entry : evicted.entrySet()) {
+            if (!contains(entry.getKey(), true)) {
+                listener.accept(entry.getValue());
+            }
+        }
+    }
+
+    public void setEvictionListener(Consumer<Block> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    public void clear() {
+        headerTier.clear();
+        fullTier.clear();
+    }
+
+    public Tier getHeaderTier() {
+        return headerTier;
+    }
+
+    public Tier getFullTier() {
+        return fullTier;
+    }
+
+    @Override
+    public String toString() {
+        return "BlockCache{" + "headerTier=" + headerTier + ", fullTier=" + fullTier + '}';
+    }
+
+    /**
+     * @param block
+     * @return estimated bytes of the block in memory
+     */
+    public static long estimateBytes(Block block) {
+        long bytes = ESTIMATED_HEADER_BYTES;
+        if (Objects.nonNull(block.getRawBytes())) {
+            bytes += block.getRawBytes().length;
+        }
+        if (Objects.nonNull(block.getTransactionsHashes())) {
+            bytes += (long) block.getTransactionsHashes().size() * ESTIMATED_TX_HASH_BYTES;
+        }
+        return bytes;
+    }
+
+    public static class Tier {
+        private final long maxBytes;
+        private final LinkedHashMap<Long, Block> blocks = new LinkedHashMap<>(16, 0.75F, true);
+        private final Map<Long, Long> blockBytes = new HashMap<>();
+        private long bytes = 0;
+
+        private final AtomicLong hitCount = new AtomicLong(0);
+        private final AtomicLong missCount = new AtomicLong(0);
+        private final AtomicLong evictionCount = new AtomicLong(0);
+
+        public Tier(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * @param blockNumber
+         * @param countStats false if the lookup is counted by another tier
+         * @return
+         */
+        private Block get(long blockNumber, boolean countStats) {
+            Block block;
+            synchronized (this) {
+                block = blocks.get(blockNumber);
+            }
+            if (countStats && Objects.nonNull(block)) {
+                hitCount.incrementAndGet();
+            } else if (countStats) {
+                missCount.incrementAndGet();
+            }
+            return block;
+        }
+
+        private synchronized boolean contains(long blockNumber) {
+            return blocks.containsKey(blockNumber);
+        }
+
+        /** @return blocks evicted by the put */
+        private synchronized Map<Long, Block> put(long blockNumber, Block block) {
+            long size = estimateBytes(block);
+            if (size > maxBytes) {
+                return Collections.emptyMap();
+            }
+
+            Long oldSize = blockBytes.put(blockNumber, size);
+            if (Objects.nonNull(oldSize)) {
+                bytes -= oldSize;
+            }
+            blocks.put(blockNumber, block);
+            bytes += size;
+
+            Map<Long, Block> evicted = Collections.emptyMap();
+            Iterator<Map.Entry<Long, Block>> iterator = blocks.entrySet().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<Long, Block> eldest = iterator.next();
+                iterator.remove();
+                bytes -= blockBytes.remove(eldest.getKey());
+                evictionCount.incrementAndGet();
+                if (evicted.isEmpty()) {
+                    evicted = new HashMap<>();
+                }
+                evicted.put(eldest.getKey(), eldest.getValue());
+            }
+            return evicted;
+        }
+
+        private synchronized void clear() {
+            blocks.clear();
+            blockBytes.clear();
+            bytes = 0;
+        }
+
+        public synchronized int size() {
+            return blocks.size();
+        }
+
+        public synchronized long getBytes() {
+            return bytes;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public long getHitCount() {
+            return hitCount.get();
+        }
+
+        public long getMissCount() {
+            return missCount.get();
+        }
+
+        public long getEvictionCount() {
+            return evictionCount.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Tier{"
+                    + "size="
+                    + size()
+                    + ", bytes="
+                    + getBytes()
+                    + ", maxBytes="
+                    + maxBytes
+                    + ", hitCount="
+                    + hitCount
+                    + ", missCount="
+                    + missCount
+                    + ", evictionCount="
+                    + evictionCount
+                    + '}';
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import com.webank.wecross.stub.Driver;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read ahead of sequential block access. Once blocks are requested one after another, the
+ * upcoming blocks are fetched into the block cache so the next request is served from memory.
+ * The number of blocks ahead is the EWMA fetch latency over the EWMA interval between requests,
+ * bounded by maxWindow, so a consumer faster than the node keeps more blocks in flight.
+ */
+public class BlockPrefetcher {
+    private static final Logger logger = LoggerFactory.getLogger(BlockPrefetcher.class);
+
+    /** weight of the latest sample in EWMA */
+    private static final double EWMA_ALPHA = 0.2;
+
+    /** sequential requests before prefetching starts */
+    private static final int SEQUENTIAL_THRESHOLD = 2;
+
+    /** window before any fetch latency is sampled */
+    private static final int INITIAL_WINDOW = 2;
+
+    public interface BlockFetcher {
+        /** fetch the block and put it into the block cache */
+        void fetch(long blockNumber, boolean onlyHeader, Driver.GetBlockCallback callback);
+    }
+
+    private final BlockCache blockCache;
+
+    private final int maxWindow;
+
+    private long lastBlockNumber = -1;
+
+    private long lastRequestTimestamp = 0;
+
+    private int sequentialCount = 0;
+
+    /** ms, EWMA interval between sequential requests */
+    private double interval = 0;
+
+    /** ms, EWMA latency of prefetch */
+    private double latency = 0;
+
+    private long latencySampleCount = 0;
+
+    /** the highest block number already prefetched */
+    private long frontier = -1;
+
+    private final AtomicLong prefetchCount = new AtomicLong(0);
+
+    private final AtomicLong failureCount = new AtomicLong(0);
+
+    public BlockPrefetcher(BlockCache blockCache, int maxWindow) {
+        this.blockCache = blockCache;
+        this.maxWindow = maxWindow;
+    }
+
+    /**
+     * called on every block request, prefetch the upcoming blocks if the requests are sequential
+     *
+     * @param blockNumber the requested block number
+     * @param onlyHeader
+     * @param headBlockNumber blocks above are not prefetched, -1 if unknown
+     * @param fetcher
+     */
+    public void onRequest(
+            long blockNumber, boolean onlyHeader, long headBlockNumber, BlockFetcher fetcher) {
+        long from;
+        long to;
+        synchronized (this) {
+            if (blockNumber == lastBlockNumber) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            if (blockNumber == lastBlockNumber + 1) {
+                double elapsed = (now - lastRequestTimestamp) / 1e6;
+                interval =
+                        sequentialCount == 0
+                                ? elapsed
+                                : interval * (1 - EWMA_ALPHA) + elapsed * EWMA_ALPHA;
+                sequentialCount++;
+            } else {
+                sequentialCount = 0;
+                frontier = blockNumber;
+            }
+            lastBlockNumber = blockNumber;
+            lastRequestTimestamp = now;
+
+            if (sequentialCount < SEQUENTIAL_THRESHOLD) {
+                return;
+            }
+
+            from = Math.max(frontier, blockNumber) + 1;
+            to = blockNumber + getWindow();
+            if (headBlockNumber >= 0) {
+                to = Math.min(to, headBlockNumber);
+            }
+            if (from > to) {
+                return;
+            }
+            frontier = to;
+        }
+
+        for (long number = from; number <= to; number++) {
+            if (!blockCache.contains(number, onlyHeader)) {
+                prefetch(number, onlyHeader, fetcher);
+            }
+        }
+    }
+
+    private void prefetch(long blockNumber, boolean onlyHeader, BlockFetcher fetcher) {
+        long startTime = System.nanoTime();
+        prefetchCount.incrementAndGet();
+        fetcher.fetch(
+                blockNumber,
+                onlyHeader,
+                (e, block) -> {
+                    if (Objects.isNull(e)) {
+                        long elapsed =
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                        onLatency(elapsed);
+                        return;
+                    }
+
+                    // most likely beyond the chain head, stop until the requests are sequential
+                    failureCount.incrementAndGet();
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(" prefetch failed, blockNumber: {}, e: ", blockNumber, e);
+                    }
+                    synchronized (this) {
+                        sequentialCount = 0;
+                        frontier = Math.min(frontier, blockNumber - 1);
+                    }
+                });
+    }
+
+    private synchronized void onLatency(long elapsed) {
+        latency =
+                latencySampleCount == 0
+                        ? elapsed
+                        : latency * (1 - EWMA_ALPHA) + elapsed * EWMA_ALPHA;
+        latencySampleCount++;
+    }
+
+    /** @return blocks ahead of the current request */
+    public synchronized int getWindow() {
+        if (latencySampleCount == 0) {
+            return Math.min(INITIAL_WINDOW, maxWindow);
+        }
+        long window = (long) Math.ceil(latency / Math.max(interval, 1)) + 1;
+        return (int) Math.min(window, maxWindow);
+    }
+
+    public int getMaxWindow() {
+        return maxWindow;
+    }
+
+    public long getPrefetchCount() {
+        return prefetchCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+}
@@ -0,0 +1,237 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import com.webank.wecross.stub.Block;
+import java.security.InvalidParameterException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetch the blocks of [from, to] with at most parallelism requests in flight, and deliver them in
+ * block number order. Blocks arriving ahead of the next one to deliver are buffered, no more
+ * requests are sent while the buffered bytes exceed maxBufferedBytes. If a block fails, the blocks
+ * before it are still delivered before the failure completes the fetch. A delivery gate holds the
+ * blocks back in the buffer, so a slow consumer stops the fetch at the same memory ceiling.
+ */
+public class BlockRangeFetcher {
+    private static final Logger logger = LoggerFactory.getLogger(BlockRangeFetcher.class);
+
+    public interface Callback {
+        /** called in block number order, never concurrently */
+        void onBlock(long blockNumber, Block block);
+
+        /** called once, e is null if all blocks are delivered */
+        void onComplete(Exception e);
+    }
+
+    private final long from;
+    private final long to;
+    private final boolean onlyHeader;
+    private final int parallelism;
+    private final long maxBufferedBytes;
+    private final BlockPrefetcher.BlockFetcher fetcher;
+
+    private Callback callback;
+
+    /** blocks are delivered only while the gate is open, null means always open */
+    private BooleanSupplier deliveryGate = null;
+
+    private long nextFetch;
+    private long nextDeliver;
+    private int inflight = 0;
+    private final Map<Long, Block> buffer = new HashMap<>();
+    private long bufferedBytes = 0;
+    /** the exception stopping the fetch at once, e.g. cancellation */
+    private Exception exception = null;
+    /** the blocks before the failed block are still delivered */
+    private Exception fetchException = null;
+    private long failedBlockNumber = Long.MAX_VALUE;
+    private boolean completed = false;
+
+    /** the thread draining the state, other threads only mark more work to do */
+    private final AtomicInteger drainWork = new AtomicInteger(0);
+
+    public BlockRangeFetcher(
+            long from,
+            long to,
+            boolean onlyHeader,
+            int parallelism,
+            long maxBufferedBytes,
+            BlockPrefetcher.BlockFetcher fetcher) {
+        this.from = from;
+        this.to = to;
+        this.onlyHeader = onlyHeader;
+        this.parallelism = Math.max(parallelism, 1);
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.fetcher = fetcher;
+        this.nextFetch = from;
+        this.nextDeliver = from;
+    }
+
+    public void start(Callback callback) {
+        synchronized (this) {
+            this.callback = callback;
+            if (from < 0 || from > to) {
+                exception =
+                        new InvalidParameterException(
+                                "invalid block range, from: " + from + ", to: " + to);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * @param deliveryGate checked before every block, call resume() once it opens again, called
+     *     without any lock of the fetcher held
+     */
+    public void setDeliveryGate(BooleanSupplier deliveryGate) {
+        this.deliveryGate = deliveryGate;
+    }
+
+    /** deliver the blocks held back by the delivery gate and fetch more */
+    public void resume() {
+        drain();
+    }
+
+    /** stop sending requests and delivering blocks, onComplete gets a CancellationException */
+    public void cancel() {
+        synchronized (this) {
+            if (Objects.isNull(exception)) {
+                exception = new CancellationException("block range fetch cancelled");
+            }
+        }
+        drain();
+    }
+
+    private void onFetched(long blockNumber, Exception e, Block block) {
+        synchronized (this) {
+            inflight--;
+            if (Objects.nonNull(e) || Objects.isNull(block)) {
+                logger.warn(" fetch block failed, blockNumber: {}, e: ", blockNumber, e);
+                if (blockNumber < failedBlockNumber) {
+                    failedBlockNumber = blockNumber;
+                    fetchException =
+                            Objects.nonNull(e)
+                                    ? e
+                                    : new Exception("block not found, number: " + blockNumber);
+                }
+            } else if (Objects.isNull(exception)) {
+                buffer.put(blockNumber, block);
+                bufferedBytes += BlockCache.estimateBytes(block);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * deliver the blocks in order and send more requests, a fetcher completing on the caller
+     * thread re-enters here, so the work is looped instead of recursed
+     */
+    private void drain() {
+        if (drainWork.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            deliver();
+            fetch();
+        } while (drainWork.decrementAndGet() != 0);
+    }
+
+    private void deliver() {
+        while (true) {
+            long blockNumber;
+            Block block;
+            Exception e;
+            boolean open = Objects.isNull(deliveryGate) || deliveryGate.getAsBoolean();
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                e = exception;
+                if (Objects.isNull(e) && nextDeliver >= failedBlockNumber) {
+                    e = fetchException;
+                }
+                if (Objects.nonNull(e) || nextDeliver > to) {
+                    completed = true;
+                    buffer.clear();
+                    bufferedBytes = 0;
+                }
+
+                if (completed) {
+                    blockNumber = -1;
+                    block = null;
+                } else {
+                    if (!open) {
+                        return;
+                    }
+                    blockNumber = nextDeliver;
+                    block = buffer.remove(blockNumber);
+                    if (Objects.isNull(block)) {
+                        return;
+                    }
+                    bufferedBytes -= BlockCache.estimateBytes(block);
+                    nextDeliver++;
+                }
+            }
+
+            if (Objects.isNull(block)) {
+                callback.onComplete(e);
+                return;
+            }
+
+            try {
+                callback.onBlock(blockNumber, block);
+            } catch (Exception callbackException) {
+                logger.warn(
+                        " onBlock exception, blockNumber: {}, e: ", blockNumber, callbackException);
+            }
+        }
+    }
+
+    private void fetch() {
+        while (true) {
+            long blockNumber;
+            synchronized (this) {
+                if (completed
+                        || Objects.nonNull(exception)
+                        || Objects.nonNull(fetchException)
+                        || nextFetch > to
+                        || inflight >= parallelism
+                        || (bufferedBytes > 0 && bufferedBytes >= maxBufferedBytes)) {
+                    return;
+                }
+                blockNumber = nextFetch++;
+                inflight++;
+            }
+
+            try {
+                fetcher.fetch(
+                        blockNumber, onlyHeader, (e, block) -> onFetched(blockNumber, e, block));
+            } catch (Exception e) {
+                onFetched(blockNumber, e, null);
+            }
+        }
+    }
+
+    public synchronized long getDeliveredCount() {
+        return nextDeliver - from;
+    }
+
+    public synchronized int getInflight() {
+        return inflight;
+    }
+
+    public synchronized long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+}
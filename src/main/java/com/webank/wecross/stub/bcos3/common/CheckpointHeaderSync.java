@@ -0,0 +1,184 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import com.webank.wecross.stub.Block;
+import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verify the headers of a range fetch by checkpoints. The range is split into chunks ending at
+ * checkpoint blocks, every checkpointInterval blocks and the last block of the range. The chunk
+ * verifier checks the signatures of the checkpoint only, and the blocks before it by hash links
+ * backwards. Chunks are verified in parallel on the executor and delivered in block number order,
+ * the first failure stops the fetch. At most maxPendingChunks chunks wait for verification or
+ * delivery, further blocks are held back in the fetcher, whose buffer limit then stops the fetch.
+ */
+public class CheckpointHeaderSync implements BlockRangeFetcher.Callback {
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointHeaderSync.class);
+
+    public interface ChunkVerifier {
+        /** @param chunk consecutive blocks in block number order, the last one is a checkpoint */
+        void verify(List<Block> chunk) throws Exception;
+    }
+
+    private final long to;
+    private final int checkpointInterval;
+    private final int maxPendingChunks;
+    private final Executor executor;
+    private final ChunkVerifier chunkVerifier;
+    private final BlockRangeFetcher.Callback callback;
+
+    private BlockRangeFetcher blockRangeFetcher = null;
+
+    /** blocks of the current chunk, onBlock is never called concurrently */
+    private List<Block> chunk = new ArrayList<>();
+
+    private long chunkFrom = -1;
+
+    /** chunks submitted and not delivered or dropped yet */
+    private final AtomicInteger pendingChunks = new AtomicInteger(0);
+
+    /** completed once the chunks so far are delivered, with the first failure or null */
+    private CompletableFuture<Exception> delivered = CompletableFuture.completedFuture(null);
+
+    public CheckpointHeaderSync(
+            long to,
+            int checkpointInterval,
+            Executor executor,
+            ChunkVerifier chunkVerifier,
+            BlockRangeFetcher.Callback callback) {
+        this(
+                to,
+                checkpointInterval,
+                ClientDefaultConfig.DEFAULT_CHECKPOINT_MAX_PENDING_CHUNKS,
+                executor,
+                chunkVerifier,
+                callback);
+    }
+
+    public CheckpointHeaderSync(
+            long to,
+            int checkpointInterval,
+            int maxPendingChunks,
+            Executor executor,
+            ChunkVerifier chunkVerifier,
+            BlockRangeFetcher.Callback callback) {
+        this.to = to;
+        this.checkpointInterval = Math.max(checkpointInterval, 1);
+        this.maxPendingChunks = Math.max(maxPendingChunks, 1);
+        this.executor = executor;
+        this.chunkVerifier = chunkVerifier;
+        this.callback = callback;
+    }
+
+    /**
+     * @param blockRangeFetcher cancelled once a chunk fails, and its blocks held back while
+     *     maxPendingChunks chunks are pending
+     */
+    public void setBlockRangeFetcher(BlockRangeFetcher blockRangeFetcher) {
+        this.blockRangeFetcher = blockRangeFetcher;
+        blockRangeFetcher.setDeliveryGate(() -> pendingChunks.get() < maxPendingChunks);
+    }
+
+    public int getPendingChunks() {
+        return pendingChunks.get();
+    }
+
+    public boolean isCheckpoint(long blockNumber) {
+        return blockNumber % checkpointInterval == 0 || blockNumber == to;
+    }
+
+    @Override
+    public void onBlock(long blockNumber, Block block) {
+        if (chunk.isEmpty()) {
+            chunkFrom = blockNumber;
+        }
+        chunk.add(block);
+        if (isCheckpoint(blockNumber)) {
+            submit(chunkFrom, chunk);
+            chunk = new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void onComplete(Exception e) {
+        // blocks after the last checkpoint of a failed fetch can not be verified
+        chunk = new ArrayList<>();
+        delivered.thenAccept(
+                verifyException ->
+                        callback.onComplete(
+                                Objects.nonNull(verifyException) ? verifyException : e));
+    }
+
+    private void submit(long from, List<Block> blocks) {
+        pendingChunks.incrementAndGet();
+        CompletableFuture<Exception> verified = new CompletableFuture<>();
+        boolean submitted =
+                BCOSStubRuntime.tryExecute(
+                        executor,
+                        () -> {
+                            try {
+                                chunkVerifier.verify(blocks);
+                                verified.complete(null);
+                            } catch (Exception e) {
+                                verified.complete(e);
+                            }
+                        });
+        if (!submitted) {
+            // a saturated executor fails the sync instead of verifying on the fetching thread
+            verified.complete(BCOSStubRuntime.newVerifyRejectedException());
+        }
+
+        delivered =
+                delivered.thenCombine(
+                        verified,
+                        (previousException, e) -> {
+                            try {
+                                return onVerified(from, blocks, previousException, e);
+                            } finally {
+                                pendingChunks.decrementAndGet();
+                                if (Objects.nonNull(blockRangeFetcher)) {
+                                    blockRangeFetcher.resume();
+                                }
+                            }
+                        });
+    }
+
+    /** @return the first failure, null if the chunk and the chunks before it are delivered */
+    private Exception onVerified(
+            long from, List<Block> blocks, Exception previousException, Exception e) {
+        if (Objects.nonNull(previousException)) {
+            return previousException;
+        }
+        if (Objects.nonNull(e)) {
+            logger.warn(
+                    " verify chunk failed, from: {}, to: {}, e: ",
+                    from,
+                    from + blocks.size() - 1,
+                    e);
+            if (Objects.nonNull(blockRangeFetcher)) {
+                blockRangeFetcher.cancel();
+            }
+            return e;
+        }
+        deliver(from, blocks);
+        return null;
+    }
+
+    private void deliver(long from, List<Block> blocks) {
+        for (int i = 0; i < blocks.size(); i++) {
+            try {
+                callback.onBlock(from + i, blocks.get(i));
+            } catch (Exception callbackException) {
+                logger.warn(
+                        " onBlock exception, blockNumber: {}, e: ", from + i, callbackException);
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import com.webank.wecross.stub.bcos3.protocol.response.TransactionPair;
+import com.webank.wecross.stub.bcos3.protocol.response.TransactionProof;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+
+/**
+ * Cache of committed transactions by transaction hash. A committed transaction, its receipt and
+ * their merkle proofs never change, so entries never expire and are only evicted in LRU order when
+ * the bytes exceed the limit. A transaction pair lookup is also served by a cached proof, which
+ * carries the same transaction and receipt. Only verified proofs are put by the driver, so a wrong
+ * response of a node is never pinned. The cached objects are shared by all callers and must not be
+ * modified.
+ */
+public class TransactionCache {
+    /** estimated bytes of the fixed fields of a transaction or a receipt */
+    private static final int ESTIMATED_BASE_BYTES = 512;
+
+    /** estimated bytes of a hash string, e.g. a topic or a merkle proof node */
+    private static final int ESTIMATED_HASH_BYTES = 128;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private long bytes = 0;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    /** @param maxBytes 0 disables the cache */
+    public TransactionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param txHash
+     * @return the cached proof, null if missing
+     */
+    public TransactionProof getTransactionProof(String txHash) {
+        Entry entry = getEntry(txHash);
+        TransactionProof proof = Objects.nonNull(entry) ? entry.proof : null;
+        countLookup(Objects.nonNull(proof));
+        return proof;
+    }
+
+    /**
+     * @param txHash
+     * @return the cached pair or the pair of the cached proof, null if missing
+     */
+    public TransactionPair getTransactionPair(String txHash) {
+        Entry entry = getEntry(txHash);
+        TransactionPair pair = null;
+        if (Objects.nonNull(entry) && Objects.nonNull(entry.pair)) {
+            pair = entry.pair;
+        } else if (Objects.nonNull(entry)) {
+            pair =
+                    new TransactionPair(
+                            entry.proof.getTransWithProof(), entry.proof.getReceiptWithProof());
+        }
+        countLookup(Objects.nonNull(pair));
+        return pair;
+    }
+
+    /**
+     * only committed transactions must be put, a proof replaces the cached pair
+     *
+     * @param txHash
+     * @param proof
+     */
+    public void putTransactionProof(String txHash, TransactionProof proof) {
+        if (Objects.isNull(proof)
+                || Objects.isNull(proof.getTransWithProof())
+                || Objects.isNull(proof.getReceiptWithProof())) {
+            return;
+        }
+
+        put(
+                txHash,
+                new Entry(
+                        proof,
+                        null,
+                        estimateBytes(proof.getTransWithProof())
+                                + estimateBytes(proof.getReceiptWithProof())));
+    }
+
+    /**
+     * only committed transactions must be put, a cached proof is kept
+     *
+     * @param txHash
+     * @param pair
+     */
+    public void putTransactionPair(String txHash, TransactionPair pair) {
+        if (Objects.isNull(pair)
+                || Objects.isNull(pair.getTransaction())
+                || Objects.isNull(pair.getReceipt())) {
+            return;
+        }
+
+        put(
+                txHash,
+                new Entry(
+                        null,
+                        pair,
+                        estimateBytes(pair.getTransaction()) + estimateBytes(pair.getReceipt())));
+    }
+
+    private synchronized Entry getEntry(String txHash) {
+        return entries.get(txHash);
+    }
+
+    private void countLookup(boolean hit) {
+        if (hit) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+    }
+
+    private synchronized void put(String txHash, Entry entry) {
+        if (entry.bytes > maxBytes) {
+            return;
+        }
+
+        Entry oldEntry = entries.get(txHash);
+        if (Objects.isNull(entry.proof)
+                && Objects.nonNull(oldEntry)
+                && Objects.nonNull(oldEntry.proof)) {
+            return;
+        }
+        entries.put(txHash, entry);
+        if (Objects.nonNull(oldEntry)) {
+            bytes -= oldEntry.bytes;
+        }
+        bytes += entry.bytes;
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            bytes -= eldest.getValue().bytes;
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /** @return hits over lookups, 0 if never looked up */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionCache{"
+                + "size="
+                + size()
+                + ", bytes="
+                + getBytes()
+                + ", maxBytes="
+                + maxBytes
+                + ", hitCount="
+                + hitCount
+                + ", missCount="
+                + missCount
+                + ", evictionCount="
+                + evictionCount
+                + ", hitRate="
+                + getHitRate()
+                + '}';
+    }
+
+    /**
+     * @param transaction
+     * @return estimated bytes of the transaction in memory
+     */
+    public static long estimateBytes(JsonTransactionResponse transaction) {
+        return ESTIMATED_BASE_BYTES
+                + length(transaction.getInput())
+                + length(transaction.getSignature())
+                + length(transaction.getExtraData())
+                + size(transaction.getTxProof()) * ESTIMATED_HASH_BYTES;
+    }
+
+    /**
+     * @param receipt
+     * @return estimated bytes of the receipt in memory
+     */
+    public static long estimateBytes(TransactionReceipt receipt) {
+        long bytes =
+                ESTIMATED_BASE_BYTES
+                        + length(receipt.getInput())
+                        + length(receipt.getOutput())
+                        + length(receipt.getMessage())
+                        + size(receipt.getTxProof()) * ESTIMATED_HASH_BYTES
+                        + size(receipt.getTxReceiptProof()) * ESTIMATED_HASH_BYTES;
+        if (Objects.nonNull(receipt.getLogEntries())) {
+            for (TransactionReceipt.Logs log : receipt.getLogEntries()) {
+                bytes +=
+                        ESTIMATED_HASH_BYTES
+                                + length(log.getData())
+                                + size(log.getTopics()) * ESTIMATED_HASH_BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private static long length(String value) {
+        return Objects.isNull(value) ? 0 : value.length();
+    }
+
+    private static long size(List<?> list) {
+        return Objects.isNull(list) ? 0 : list.size();
+    }
+
+    private static class Entry {
+        private final TransactionProof proof;
+        private final TransactionPair pair;
+        private final long bytes;
+
+        private Entry(TransactionProof proof, TransactionPair pair, long bytes) {
+            this.proof = proof;
+            this.pair = pair;
+            this.bytes = bytes;
+        }
+    }
+}
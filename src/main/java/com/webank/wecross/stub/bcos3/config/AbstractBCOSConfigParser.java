@@ -33,4 +33,18 @@ public abstract class AbstractBCOSConfigParser {
                             + configFile);
         }
     }
+
+    public void requireFieldNotNegative(Long value, String item, String field, String configFile) {
+        if (Objects.nonNull(value) && value < 0) {
+            throw new InvalidParameterException(
+                    "["
+                            + item
+                            + "]:"
+                            + field
+                            + " field is negative: "
+                            + value
+                            + ", please check config file: "
+                            + configFile);
+        }
+    }
 }
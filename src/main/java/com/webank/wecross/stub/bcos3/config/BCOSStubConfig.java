@@ -19,6 +19,8 @@ public class BCOSStubConfig {
     private Chain chain;
     /** service, used for JavaSDK initialize */
     private Service service;
+    /** runtime, pools shared by every stub of the process */
+    private Runtime runtime;
     /** BCOS resource list */
     private List<Resource> resources;
 
@@ -74,6 +76,24 @@ public class BCOSStubConfig {
 
         private int threadPoolSize;
 
+        /**
+         * requests of the connection are dispatched to the io pool of the runtime if greater than
+         * 0. The io pool is shared by every connection of the process and sized by {@link
+         * Runtime#getIoThreadNum()}, the value does not size a pool of the connection any more.
+         */
+        private int dispatchThreadNum;
+        private int blockNumberPollInterval;
+        private int blockNumberMaxStaleness;
+        private int resourcesPollInterval;
+        private long blockCacheMaxBytes;
+        private long blockHeaderCacheMaxBytes;
+        private int blockPrefetchWindow;
+        private long transactionCacheMaxBytes;
+        private int verifiedHeaderCacheSize;
+        private int merkleMemoMaxNodes;
+        private boolean peerRouting;
+        private boolean hedgedRead;
+
         public boolean isDisableSsl() {
             return disableSsl;
         }
@@ -170,6 +190,102 @@ public class BCOSStubConfig {
             this.threadPoolSize = threadPoolSize;
         }
 
+        public int getDispatchThreadNum() {
+            return dispatchThreadNum;
+        }
+
+        public void setDispatchThreadNum(int dispatchThreadNum) {
+            this.dispatchThreadNum = dispatchThreadNum;
+        }
+
+        public int getBlockNumberPollInterval() {
+            return blockNumberPollInterval;
+        }
+
+        public void setBlockNumberPollInterval(int blockNumberPollInterval) {
+            this.blockNumberPollInterval = blockNumberPollInterval;
+        }
+
+        public int getBlockNumberMaxStaleness() {
+            return blockNumberMaxStaleness;
+        }
+
+        public void setBlockNumberMaxStaleness(int blockNumberMaxStaleness) {
+            this.blockNumberMaxStaleness = blockNumberMaxStaleness;
+        }
+
+        public int getResourcesPollInterval() {
+            return resourcesPollInterval;
+        }
+
+        public void setResourcesPollInterval(int resourcesPollInterval) {
+            this.resourcesPollInterval = resourcesPollInterval;
+        }
+
+        public long getBlockCacheMaxBytes() {
+            return blockCacheMaxBytes;
+        }
+
+        public void setBlockCacheMaxBytes(long blockCacheMaxBytes) {
+            this.blockCacheMaxBytes = blockCacheMaxBytes;
+        }
+
+        public long getBlockHeaderCacheMaxBytes() {
+            return blockHeaderCacheMaxBytes;
+        }
+
+        public void setBlockHeaderCacheMaxBytes(long blockHeaderCacheMaxBytes) {
+            this.blockHeaderCacheMaxBytes = blockHeaderCacheMaxBytes;
+        }
+
+        public int getBlockPrefetchWindow() {
+            return blockPrefetchWindow;
+        }
+
+        public void setBlockPrefetchWindow(int blockPrefetchWindow) {
+            this.blockPrefetchWindow = blockPrefetchWindow;
+        }
+
+        public long getTransactionCacheMaxBytes() {
+            return transactionCacheMaxBytes;
+        }
+
+        public void setTransactionCacheMaxBytes(long transactionCacheMaxBytes) {
+            this.transactionCacheMaxBytes = transactionCacheMaxBytes;
+        }
+
+        public int getVerifiedHeaderCacheSize() {
+            return verifiedHeaderCacheSize;
+        }
+
+        public void setVerifiedHeaderCacheSize(int verifiedHeaderCacheSize) {
+            this.verifiedHeaderCacheSize = verifiedHeaderCacheSize;
+        }
+
+        public int getMerkleMemoMaxNodes() {
+            return merkleMemoMaxNodes;
+        }
+
+        public void setMerkleMemoMaxNodes(int merkleMemoMaxNodes) {
+            this.merkleMemoMaxNodes = merkleMemoMaxNodes;
+        }
+
+        public boolean isPeerRouting() {
+            return peerRouting;
+        }
+
+        public void setPeerRouting(boolean peerRouting) {
+            this.peerRouting = peerRouting;
+        }
+
+        public boolean isHedgedRead() {
+            return hedgedRead;
+        }
+
+        public void setHedgedRead(boolean hedgedRead) {
+            this.hedgedRead = hedgedRead;
+        }
+
         @Override
         public String toString() {
             return "service{"
@@ -188,6 +304,98 @@ public class BCOSStubConfig {
                     + connectionsStr
                     + ", threadPoolSize="
                     + threadPoolSize
+                    + ", dispatchThreadNum="
+                    + dispatchThreadNum
+                    + ", blockNumberPollInterval="
+                    + blockNumberPollInterval
+                    + ", blockNumberMaxStaleness="
+                    + blockNumberMaxStaleness
+                    + ", resourcesPollInterval="
+                    + resourcesPollInterval
+                    + ", peerRouting="
+                    + peerRouting
+                    + ", hedgedRead="
+                    + hedgedRead
+                    + '}';
+        }
+    }
+
+    /**
+     * Pools of {@link com.webank.wecross.stub.bcos3.common.BCOSStubRuntime}, shared by every stub
+     * of the process. Only the config of the first connection takes effect, 0 means the default
+     * size.
+     */
+    public static class Runtime {
+        private int ioThreadNum;
+        private int queueCapacity;
+        private int cryptoThreadNum;
+        private int codecThreadNum;
+        private int schedulerThreadNum;
+        private int abiQueryParallelism;
+
+        public int getIoThreadNum() {
+            return ioThreadNum;
+        }
+
+        public void setIoThreadNum(int ioThreadNum) {
+            this.ioThreadNum = ioThreadNum;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getCryptoThreadNum() {
+            return cryptoThreadNum;
+        }
+
+        public void setCryptoThreadNum(int cryptoThreadNum) {
+            this.cryptoThreadNum = cryptoThreadNum;
+        }
+
+        public int getCodecThreadNum() {
+            return codecThreadNum;
+        }
+
+        public void setCodecThreadNum(int codecThreadNum) {
+            this.codecThreadNum = codecThreadNum;
+        }
+
+        public int getSchedulerThreadNum() {
+            return schedulerThreadNum;
+        }
+
+        public void setSchedulerThreadNum(int schedulerThreadNum) {
+            this.schedulerThreadNum = schedulerThreadNum;
+        }
+
+        public int getAbiQueryParallelism() {
+            return abiQueryParallelism;
+        }
+
+        public void setAbiQueryParallelism(int abiQueryParallelism) {
+            this.abiQueryParallelism = abiQueryParallelism;
+        }
+
+        @Override
+        public String toString() {
+            return "runtime{"
+                    + "ioThreadNum="
+                    + ioThreadNum
+                    + ", queueCapacity="
+                    + queueCapacity
+                    + ", cryptoThreadNum="
+                    + cryptoThreadNum
+                    + ", codecThreadNum="
+                    + codecThreadNum
+                    + ", schedulerThreadNum="
+                    + schedulerThreadNum
+                    + ", abiQueryParallelism="
+                    + abiQueryParallelism
                     + '}';
         }
     }
@@ -253,6 +461,14 @@ public class BCOSStubConfig {
         this.service = service;
     }
 
+    public Runtime getRuntime() {
+        return runtime;
+    }
+
+    public void setRuntime(Runtime runtime) {
+        this.runtime = runtime;
+    }
+
     public List<Resource> getResources() {
         return resources;
     }
@@ -277,6 +493,8 @@ public class BCOSStubConfig {
                 + '\''
                 + ", service="
                 + service
+                + ", runtime="
+                + runtime
                 + ", resourceConfig="
                 + resources
                 + '}';
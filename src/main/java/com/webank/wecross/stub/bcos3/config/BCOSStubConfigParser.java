@@ -7,6 +7,7 @@ import com.webank.wecross.stub.bcos3.common.BCOSToml;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -58,6 +59,14 @@ public class BCOSStubConfigParser extends AbstractBCOSConfigParser {
         BCOSStubConfig.Service serviceConfig =
                 getServiceConfig(getConfigPath(), serviceConfigValue, stubType);
 
+        // runtime, optional
+        Map<String, Object> runtimeConfigValue = (Map<String, Object>) stubConfig.get("runtime");
+        BCOSStubConfig.Runtime runtimeConfig =
+                getRuntimeConfig(
+                        Objects.nonNull(runtimeConfigValue)
+                                ? runtimeConfigValue
+                                : new HashMap<>());
+
         // resources
         List<Map<String, String>> resourcesConfigValue =
                 (List<Map<String, String>>) stubConfig.get("resources");
@@ -71,6 +80,7 @@ public class BCOSStubConfigParser extends AbstractBCOSConfigParser {
         bcosStubConfig.setType(stubType);
         bcosStubConfig.setChain(chainConfig);
         bcosStubConfig.setService(serviceConfig);
+        bcosStubConfig.setRuntime(runtimeConfig);
         bcosStubConfig.setResources(resourcesConfig);
 
         return bcosStubConfig;
@@ -159,11 +169,150 @@ public class BCOSStubConfigParser extends AbstractBCOSConfigParser {
                 Objects.isNull(threadPoolSize)
                         ? ClientDefaultConfig.DEFAULT_SERVICE_THREAD_NUMBER
                         : threadPoolSize.intValue());
+
+        // dispatch requests to the shared io pool of the runtime if greater than 0, 0 means handle
+        // requests on the caller thread, the pool is sized by ioThreadNum of [runtime]
+        Long dispatchThreadNum = (Long) serviceConfigValue.get("dispatchThreadNum");
+        serviceConfig.setDispatchThreadNum(
+                Objects.isNull(dispatchThreadNum)
+                        ? ClientDefaultConfig.DEFAULT_DISPATCH_THREAD_NUMBER
+                        : dispatchThreadNum.intValue());
+
+        // block number poll interval, ms
+        Long blockNumberPollInterval = (Long) serviceConfigValue.get("blockNumberPollInterval");
+        serviceConfig.setBlockNumberPollInterval(
+                Objects.isNull(blockNumberPollInterval)
+                        ? ClientDefaultConfig.DEFAULT_BLOCK_NUMBER_POLL_INTERVAL
+                        : blockNumberPollInterval.intValue());
+
+        // block number max staleness, ms, 0 means always query block number from node
+        Long blockNumberMaxStaleness = (Long) serviceConfigValue.get("blockNumberMaxStaleness");
+        serviceConfig.setBlockNumberMaxStaleness(
+                Objects.isNull(blockNumberMaxStaleness)
+                        ? ClientDefaultConfig.DEFAULT_BLOCK_NUMBER_MAX_STALENESS
+                        : blockNumberMaxStaleness.intValue());
+
+        // resources poll interval, ms, 0 means no discovery
+        Long resourcesPollInterval = (Long) serviceConfigValue.get("resourcesPollInterval");
+        serviceConfig.setResourcesPollInterval(
+                Objects.isNull(resourcesPollInterval)
+                        ? ClientDefaultConfig.DEFAULT_RESOURCES_POLL_INTERVAL
+                        : resourcesPollInterval.intValue());
+
+        // peer routing
+        Boolean peerRouting = (Boolean) serviceConfigValue.get("peerRouting");
+        serviceConfig.setPeerRouting(
+                Objects.isNull(peerRouting)
+                        ? ClientDefaultConfig.DEFAULT_PEER_ROUTING
+                        : peerRouting);
+
+        // hedged read, only works with peerRouting
+        Boolean hedgedRead = (Boolean) serviceConfigValue.get("hedgedRead");
+        serviceConfig.setHedgedRead(
+                Objects.isNull(hedgedRead) ? ClientDefaultConfig.DEFAULT_HEDGED_READ : hedgedRead);
+
+        // bytes of cached full blocks, 0 disables the cache
+        Long blockCacheMaxBytes = (Long) serviceConfigValue.get("blockCacheMaxBytes");
+        requireFieldNotNegative(blockCacheMaxBytes, "service", "blockCacheMaxBytes", configFile);
+        serviceConfig.setBlockCacheMaxBytes(
+                Objects.isNull(blockCacheMaxBytes)
+                        ? ClientDefaultConfig.DEFAULT_BLOCK_CACHE_MAX_BYTES
+                        : blockCacheMaxBytes);
+
+        // bytes of cached block headers, 0 disables the cache
+        Long blockHeaderCacheMaxBytes = (Long) serviceConfigValue.get("blockHeaderCacheMaxBytes");
+        requireFieldNotNegative(
+                blockHeaderCacheMaxBytes, "service", "blockHeaderCacheMaxBytes", configFile);
+        serviceConfig.setBlockHeaderCacheMaxBytes(
+                Objects.isNull(blockHeaderCacheMaxBytes)
+                        ? ClientDefaultConfig.DEFAULT_BLOCK_HEADER_CACHE_MAX_BYTES
+                        : blockHeaderCacheMaxBytes);
+
+        // max blocks prefetched ahead of sequential block sync, 0 disables prefetch
+        Long blockPrefetchWindow = (Long) serviceConfigValue.get("blockPrefetchWindow");
+        serviceConfig.setBlockPrefetchWindow(
+                Objects.isNull(blockPrefetchWindow)
+                        ? ClientDefaultConfig.DEFAULT_BLOCK_PREFETCH_WINDOW
+                        : blockPrefetchWindow.intValue());
+
+        // bytes of cached committed transactions and proofs, 0 disables the cache
+        Long transactionCacheMaxBytes = (Long) serviceConfigValue.get("transactionCacheMaxBytes");
+        requireFieldNotNegative(
+                transactionCacheMaxBytes, "service", "transactionCacheMaxBytes", configFile);
+        serviceConfig.setTransactionCacheMaxBytes(
+                Objects.isNull(transactionCacheMaxBytes)
+                        ? ClientDefaultConfig.DEFAULT_TRANSACTION_CACHE_MAX_BYTES
+                        : transactionCacheMaxBytes);
+
+        // block headers remembered as signature verified, 0 disables the cache
+        Long verifiedHeaderCacheSize = (Long) serviceConfigValue.get("verifiedHeaderCacheSize");
+        serviceConfig.setVerifiedHeaderCacheSize(
+                Objects.isNull(verifiedHeaderCacheSize)
+                        ? ClientDefaultConfig.DEFAULT_VERIFIED_HEADER_CACHE_SIZE
+                        : verifiedHeaderCacheSize.intValue());
+
+        // nodes of merkle trees remembered as verified by a connection, 0 disables the memo
+        Long merkleMemoMaxNodes = (Long) serviceConfigValue.get("merkleMemoMaxNodes");
+        serviceConfig.setMerkleMemoMaxNodes(
+                Objects.isNull(merkleMemoMaxNodes)
+                        ? ClientDefaultConfig.DEFAULT_MERKLE_MEMO_MAX_NODES
+                        : merkleMemoMaxNodes.intValue());
+
         logger.debug("ServiceConfig: {}", serviceConfig);
 
         return serviceConfig;
     }
 
+    public BCOSStubConfig.Runtime getRuntimeConfig(Map<String, Object> runtimeConfigValue) {
+        BCOSStubConfig.Runtime runtimeConfig = new BCOSStubConfig.Runtime();
+
+        // io thread num, 0 means twice the number of processors
+        Long ioThreadNum = (Long) runtimeConfigValue.get("ioThreadNum");
+        runtimeConfig.setIoThreadNum(
+                Objects.isNull(ioThreadNum)
+                        ? ClientDefaultConfig.DEFAULT_IO_THREAD_NUMBER
+                        : ioThreadNum.intValue());
+
+        // queue capacity of each pool
+        Long queueCapacity = (Long) runtimeConfigValue.get("queueCapacity");
+        runtimeConfig.setQueueCapacity(
+                Objects.isNull(queueCapacity)
+                        ? ClientDefaultConfig.DEFAULT_QUEUE_CAPACITY
+                        : queueCapacity.intValue());
+
+        // crypto thread num, 0 means the number of processors
+        Long cryptoThreadNum = (Long) runtimeConfigValue.get("cryptoThreadNum");
+        runtimeConfig.setCryptoThreadNum(
+                Objects.isNull(cryptoThreadNum)
+                        ? ClientDefaultConfig.DEFAULT_CRYPTO_THREAD_NUMBER
+                        : cryptoThreadNum.intValue());
+
+        // codec thread num, 0 means the number of processors
+        Long codecThreadNum = (Long) runtimeConfigValue.get("codecThreadNum");
+        runtimeConfig.setCodecThreadNum(
+                Objects.isNull(codecThreadNum)
+                        ? ClientDefaultConfig.DEFAULT_CODEC_THREAD_NUMBER
+                        : codecThreadNum.intValue());
+
+        // scheduler thread num
+        Long schedulerThreadNum = (Long) runtimeConfigValue.get("schedulerThreadNum");
+        runtimeConfig.setSchedulerThreadNum(
+                Objects.isNull(schedulerThreadNum)
+                        ? ClientDefaultConfig.DEFAULT_SCHEDULER_THREAD_NUMBER
+                        : schedulerThreadNum.intValue());
+
+        // names whose ABI are resolved in parallel
+        Long abiQueryParallelism = (Long) runtimeConfigValue.get("abiQueryParallelism");
+        runtimeConfig.setAbiQueryParallelism(
+                Objects.isNull(abiQueryParallelism)
+                        ? ClientDefaultConfig.DEFAULT_ABI_QUERY_PARALLELISM
+                        : abiQueryParallelism.intValue());
+
+        logger.debug("RuntimeConfig: {}", runtimeConfig);
+
+        return runtimeConfig;
+    }
+
     public List<BCOSStubConfig.Resource> getBCOSResourceConfig(
             String configFile,
             BCOSStubConfig.Chain chain,
@@ -7,6 +7,7 @@ import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
 import org.slf4j.Logger;
@@ -22,10 +23,8 @@ public class BlockUtility {
      * @return
      */
     public static BlockHeader convertToBlockHeader(BcosBlock.Block block) throws IOException {
-        String headerExtraData = block.getExtraData();
-        if (!headerExtraData.isEmpty()
-                && !"0x".equalsIgnoreCase(headerExtraData)
-                && (block.getNumber() != 0)) {
+        if (block.getNumber() != 0
+                && (hasSignature(block) || isHeaderExtraData(block.getExtraData()))) {
             return convertToBlockHeaderWithSignature(block);
         }
         BlockHeader blockHeader = new BlockHeader();
@@ -43,17 +42,20 @@ public class BlockUtility {
     }
 
     /**
-     * convert Block to BlockHeader with signature list
+     * convert Block to BlockHeader with signature list, the signature list is read from the block
+     * itself, or from the header json in extraData of blocks encoded by older stubs
      *
      * @param block
      * @return
      */
     public static BlockHeader convertToBlockHeaderWithSignature(BcosBlock.Block block)
             throws IOException {
-        String headerExtraData = block.getExtraData();
-        BcosBlockHeader.BlockHeader bcosHeader =
-                ObjectMapperFactory.getObjectMapper()
-                        .readValue(headerExtraData, BcosBlockHeader.BlockHeader.class);
+        BcosBlockHeader.BlockHeader bcosHeader = block;
+        if (!hasSignature(block) && isHeaderExtraData(block.getExtraData())) {
+            bcosHeader =
+                    ObjectMapperFactory.getObjectMapper()
+                            .readValue(block.getExtraData(), BcosBlockHeader.BlockHeader.class);
+        }
 
         BCOSBlockHeader stubBlockHeader = new BCOSBlockHeader();
         stubBlockHeader.setHash(bcosHeader.getHash());
@@ -71,6 +73,15 @@ public class BlockUtility {
         return stubBlockHeader;
     }
 
+    private static boolean hasSignature(BcosBlockHeader.BlockHeader blockHeader) {
+        return Objects.nonNull(blockHeader.getSignatureList())
+                && !blockHeader.getSignatureList().isEmpty();
+    }
+
+    private static boolean isHeaderExtraData(String extraData) {
+        return Objects.nonNull(extraData) && extraData.startsWith("{");
+    }
+
     /**
      * @param block
      * @return
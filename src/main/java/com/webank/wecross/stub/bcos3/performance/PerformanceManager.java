@@ -1,18 +1,20 @@
 package com.webank.wecross.stub.bcos3.performance;
 
 import com.google.common.util.concurrent.RateLimiter;
+import com.webank.wecross.stub.bcos3.common.BCOSStubRuntime;
 import java.math.BigInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 public class PerformanceManager {
     private Logger logger = LoggerFactory.getLogger(PerformanceManager.class);
     private PerformanceSuite suite;
     private BigInteger count;
     private BigInteger qps;
-    private ThreadPoolTaskExecutor threadPool;
+    private ExecutorService threadPool;
     private RateLimiter limiter;
     private Integer area;
 
@@ -32,11 +34,7 @@ public class PerformanceManager {
         this.count = count;
         this.qps = qps;
 
-        this.threadPool = new ThreadPoolTaskExecutor();
-        this.threadPool.setCorePoolSize(200);
-        this.threadPool.setMaxPoolSize(500);
-        this.threadPool.setQueueCapacity(count.intValue());
-        this.threadPool.initialize();
+        this.threadPool = BCOSStubRuntime.getInstance().getIoExecutor();
 
         this.limiter = RateLimiter.create(qps.intValue());
         this.area = count.intValue() / 10;
@@ -54,12 +52,12 @@ public class PerformanceManager {
             AtomicInteger sended = new AtomicInteger(0);
 
             for (Integer i = 0; i < count.intValue(); ++i) {
-                final int index = i;
-                threadPool.execute(
+                // limit the rate before submitting, so the bounded queue of the pool never fills
+                limiter.acquire();
+                Runnable task =
                         new Runnable() {
                             @Override
                             public void run() {
-                                limiter.acquire();
                                 PerformanceSuiteCallback callback = buildCallback(collector);
                                 suite.call(callback);
 
@@ -78,7 +76,13 @@ public class PerformanceManager {
                                                     + sendSpeed);
                                 }
                             }
-                        });
+                        };
+                try {
+                    threadPool.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // pool saturated, send on the current thread
+                    task.run();
+                }
             }
 
             // end or not
@@ -15,8 +15,6 @@ import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Objects;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import org.apache.commons.io.FileUtils;
 import org.fisco.bcos.sdk.v3.client.Client;
 import org.fisco.bcos.sdk.v3.contract.precompiled.bfs.BFSInfo;
@@ -34,7 +32,6 @@ import org.fisco.solc.compiler.SolidityCompiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
-import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 public class ProxyContract {
 
@@ -79,11 +76,7 @@ public class ProxyContract {
                                     "classpath:accounts" + File.separator + accountName);
         }
 
-        ScheduledExecutorService scheduledExecutorService =
-                new ScheduledThreadPoolExecutor(4, new CustomizableThreadFactory("tmpBCOSConn-"));
-        connection =
-                BCOSConnectionFactory.build(
-                        bcosStubConfig, clientWrapper, scheduledExecutorService);
+        connection = BCOSConnectionFactory.build(bcosStubConfig, clientWrapper);
 
         this.assembleTransactionProcessor =
                 TransactionProcessorFactory.createAssembleTransactionProcessor(
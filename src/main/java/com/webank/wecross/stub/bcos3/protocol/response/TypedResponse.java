@@ -0,0 +1,76 @@
+package com.webank.wecross.stub.bcos3.protocol.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.webank.wecross.stub.Response;
+import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * Response carrying the decoded object, so BCOSDriver in the same process reads the object
+ * directly, the json bytes are only encoded when getData() is called
+ *
+ * @param <T>
+ */
+public class TypedResponse<T> extends Response {
+    private static final ObjectMapper objectMapper =
+            ObjectMapperFactory.getObjectMapper()
+                    .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private T value;
+
+    public TypedResponse() {
+        super();
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public synchronized void setValue(T value) {
+        this.value = value;
+        super.setData(null);
+    }
+
+    @Override
+    public synchronized void setData(byte[] data) {
+        this.value = null;
+        super.setData(data);
+    }
+
+    @Override
+    public synchronized byte[] getData() {
+        byte[] data = super.getData();
+        if (Objects.isNull(data) && Objects.nonNull(value)) {
+            try {
+                data = objectMapper.writeValueAsBytes(value);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            super.setData(data);
+        }
+        return data;
+    }
+
+    /**
+     * read the object of the response, the json bytes are only decoded if the response does not
+     * carry an object of the class
+     *
+     * @param response
+     * @param clazz
+     * @return
+     * @throws IOException
+     */
+    public static <T> T readValue(Response response, Class<T> clazz) throws IOException {
+        if (response instanceof TypedResponse) {
+            Object value = ((TypedResponse<?>) response).getValue();
+            if (clazz.isInstance(value)) {
+                return clazz.cast(value);
+            }
+        }
+        return objectMapper.readValue(response.getData(), clazz);
+    }
+}
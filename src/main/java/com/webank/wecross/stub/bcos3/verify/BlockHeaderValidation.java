@@ -1,17 +1,15 @@
 package com.webank.wecross.stub.bcos3.verify;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webank.wecross.exception.WeCrossException;
 import com.webank.wecross.stub.bcos3.common.BCOSBlockHeader;
-import com.webank.wecross.stub.bcos3.common.BCOSConstant;
-import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
+import com.webank.wecross.stub.bcos3.common.BCOSStubRuntime;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
 import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
 import org.fisco.bcos.sdk.v3.utils.Numeric;
@@ -21,13 +19,36 @@ import org.slf4j.LoggerFactory;
 public class BlockHeaderValidation {
     private static final Logger logger = LoggerFactory.getLogger(BlockHeaderValidation.class);
 
+    /** signatures verified in parallel from this many */
+    private static final int PARALLEL_THRESHOLD = 4;
+
     public static void verifyBlockHeader(
             BCOSBlockHeader bcosBlockHeader,
             String blockVerifierString,
             String stubType,
             CryptoSuite cryptoSuite)
             throws WeCrossException {
-        String chainType = getChainTypeInBCOSVerifier(blockVerifierString);
+        verifyBlockHeader(
+                bcosBlockHeader,
+                BlockVerifierConfig.compile(blockVerifierString),
+                stubType,
+                cryptoSuite);
+    }
+
+    /**
+     * @param bcosBlockHeader
+     * @param blockVerifierConfig the VERIFIER property compiled, kept by the connection
+     * @param stubType
+     * @param cryptoSuite
+     * @throws WeCrossException
+     */
+    public static void verifyBlockHeader(
+            BCOSBlockHeader bcosBlockHeader,
+            BlockVerifierConfig blockVerifierConfig,
+            String stubType,
+            CryptoSuite cryptoSuite)
+            throws WeCrossException {
+        String chainType = blockVerifierConfig.getChainType();
         if (!stubType.equals(chainType)) {
             throw new WeCrossException(
                     WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
@@ -37,8 +58,6 @@ public class BlockHeaderValidation {
                             + stubType);
         }
 
-        List<String> sealerList = getPubKeyInBCOSVerifier(blockVerifierString);
-
         List<BcosBlockHeader.Signature> signatureList = bcosBlockHeader.getSignatureList();
 
         if (signatureList == null) {
@@ -56,18 +75,36 @@ public class BlockHeaderValidation {
                     WeCrossException.ErrorCode.INTERNAL_ERROR,
                     "verifyBlockHeader fail, caused by sign is not unique.");
         }
-        String blockHash = bcosBlockHeader.getHash();
-        boolean verifyFlag = false;
-        boolean finalizeFlag = true;
+        byte[] hashData = Numeric.hexStringToByteArray(bcosBlockHeader.getHash());
+        List<String> headerSealers = bcosBlockHeader.getSealerList();
+        boolean finalizeFlag;
         try {
-            for (BcosBlockHeader.Signature signature : signatureList) {
-                for (String sealer : sealerList) {
-                    byte[] signData = Numeric.hexStringToByteArray(signature.getSignature());
-                    byte[] hashData = Numeric.hexStringToByteArray(blockHash);
-                    verifyFlag = cryptoSuite.verify(sealer, hashData, signData);
-                    if (verifyFlag) break;
-                }
-                finalizeFlag = finalizeFlag && verifyFlag;
+            if (blockVerifierConfig.isQuorumMode()) {
+                finalizeFlag =
+                        verifyQuorum(
+                                signatureList,
+                                headerSealers,
+                                hashData,
+                                blockVerifierConfig,
+                                cryptoSuite);
+            } else {
+                AtomicBoolean verified = new AtomicBoolean(true);
+                forEach(
+                        signatureList,
+                        signature -> {
+                            // the rest are skipped once a signature fails
+                            if (verified.get()
+                                    && Objects.isNull(
+                                            verifySignature(
+                                                    signature,
+                                                    headerSealers,
+                                                    hashData,
+                                                    blockVerifierConfig,
+                                                    cryptoSuite))) {
+                                verified.set(false);
+                            }
+                        });
+                finalizeFlag = verified.get();
             }
         } catch (Exception e) {
             throw new WeCrossException(
@@ -89,6 +126,115 @@ public class BlockHeaderValidation {
         }
     }
 
+    /**
+     * verify the signatures on the crypto pool of the runtime, a few signatures are verified on
+     * the caller thread
+     */
+    private static void forEach(
+            List<BcosBlockHeader.Signature> signatureList,
+            Consumer<BcosBlockHeader.Signature> action) {
+        if (signatureList.size() < PARALLEL_THRESHOLD) {
+            signatureList.forEach(action);
+            return;
+        }
+        BCOSStubRuntime runtime = BCOSStubRuntime.getInstance();
+        BCOSStubRuntime.forEach(
+                runtime.getCryptoExecutor(), runtime.getCryptoThreadNum(), signatureList, action);
+    }
+
+    /**
+     * verify just enough signatures in order for quorum distinct sealers, the signatures still
+     * needed are verified in parallel, and the check stops once the quorum is reached or the
+     * signatures left are too few to reach it
+     *
+     * @param signatureList
+     * @param headerSealers sealer list of the block header
+     * @param hashData block hash
+     * @param blockVerifierConfig
+     * @param cryptoSuite
+     * @return true if quorum distinct configured sealers signed the block
+     */
+    private static boolean verifyQuorum(
+            List<BcosBlockHeader.Signature> signatureList,
+            List<String> headerSealers,
+            byte[] hashData,
+            BlockVerifierConfig blockVerifierConfig,
+            CryptoSuite cryptoSuite) {
+        int quorum = blockVerifierConfig.getQuorum();
+        if (quorum < 1) {
+            return false;
+        }
+
+        Set<String> verifiedSealers = ConcurrentHashMap.newKeySet();
+        int next = 0;
+        while (verifiedSealers.size() < quorum) {
+            int needed = quorum - verifiedSealers.size();
+            if (signatureList.size() - next < needed) {
+                return false;
+            }
+
+            forEach(
+                    signatureList.subList(next, next + needed),
+                    signature -> {
+                        String sealer =
+                                verifySignature(
+                                        signature,
+                                        headerSealers,
+                                        hashData,
+                                        blockVerifierConfig,
+                                        cryptoSuite);
+                        if (Objects.nonNull(sealer)) {
+                            verifiedSealers.add(sealer);
+                        }
+                    });
+            next += needed;
+        }
+        return true;
+    }
+
+    /**
+     * verify the signature with the key of the sealer at its index in the block header, a
+     * signature not matching the key at its index is rejected, so a bad signature costs a single
+     * verification. Every configured key is only tried if the index is missing or not a configured
+     * sealer, and the fallback is enabled
+     *
+     * @param signature
+     * @param headerSealers sealer list of the block header
+     * @param hashData block hash
+     * @param blockVerifierConfig
+     * @param cryptoSuite
+     * @return the public key of the configured sealer signing it, null if not signed by any
+     */
+    private static String verifySignature(
+            BcosBlockHeader.Signature signature,
+            List<String> headerSealers,
+            byte[] hashData,
+            BlockVerifierConfig blockVerifierConfig,
+            CryptoSuite cryptoSuite) {
+        byte[] signData = Numeric.hexStringToByteArray(signature.getSignature());
+        Integer index = signature.getIndex();
+        String sealer = null;
+        if (Objects.nonNull(index)
+                && Objects.nonNull(headerSealers)
+                && index >= 0
+                && index < headerSealers.size()) {
+            sealer = blockVerifierConfig.getSealer(headerSealers.get(index));
+        }
+        if (Objects.nonNull(sealer)) {
+            return cryptoSuite.verify(sealer, hashData, signData) ? sealer : null;
+        }
+
+        if (!blockVerifierConfig.isAllKeysFallback()) {
+            return null;
+        }
+        for (String key : blockVerifierConfig.getSealers()) {
+            if (cryptoSuite.verify(key, hashData, signData)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
     private static boolean isSignUnique(List<BcosBlockHeader.Signature> signatureList) {
         Set<String> testSet = new HashSet<>();
         boolean testFlag = false;
@@ -99,68 +245,4 @@ public class BlockHeaderValidation {
 
         return testFlag;
     }
-
-    private static String getChainTypeInBCOSVerifier(String blockVerifierString)
-            throws WeCrossException {
-        ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
-        try {
-            Objects.requireNonNull(
-                    blockVerifierString,
-                    "'blockVerifierString' in getPubKeyInBCOSVerifier is null.");
-            Map<String, Object> bcosVerifierMapper =
-                    objectMapper.readValue(
-                            blockVerifierString, new TypeReference<Map<String, Object>>() {});
-            return (String) bcosVerifierMapper.get("chainType");
-        } catch (JsonProcessingException e) {
-            throw new WeCrossException(
-                    WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
-                    "Parse Json to BCOSVerifier Error, " + e.getMessage(),
-                    e.getCause());
-        } catch (Exception e) {
-            throw new WeCrossException(
-                    WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
-                    "Read BCOSVerifier Json Error, " + e.getMessage(),
-                    e.getCause());
-        }
-    }
-
-    private static List<String> getPubKeyInBCOSVerifier(String blockVerifierString)
-            throws WeCrossException {
-        ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
-        try {
-            Objects.requireNonNull(
-                    blockVerifierString,
-                    "'blockVerifierString' in getPubKeyInBCOSVerifier is null.");
-            Map<String, Object> bcosVerifierMapper =
-                    objectMapper.readValue(
-                            blockVerifierString, new TypeReference<Map<String, Object>>() {});
-            List<String> pubKey = (List<String>) bcosVerifierMapper.get("pubKey");
-            if (pubKey == null) {
-                throw new WeCrossException(
-                        WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
-                        "pubKey is null in BCOS Verifier.");
-            }
-            for (String key : pubKey) {
-                if (key.length() != BCOSConstant.BCOS_NODE_ID_LENGTH) {
-                    throw new WeCrossException(
-                            WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
-                            "pubKey length is not in conformity with the BCOS right way, pubKey: "
-                                    + key
-                                    + " length is "
-                                    + key.length());
-                }
-            }
-            return pubKey;
-        } catch (JsonProcessingException e) {
-            throw new WeCrossException(
-                    WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
-                    "Parse Json to BCOSVerifier Error, " + e.getMessage(),
-                    e.getCause());
-        } catch (Exception e) {
-            throw new WeCrossException(
-                    WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
-                    "Read BCOSVerifier Json Error, " + e.getMessage(),
-                    e.getCause());
-        }
-    }
 }
@@ -0,0 +1,182 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.webank.wecross.exception.WeCrossException;
+import com.webank.wecross.stub.bcos3.common.BCOSConstant;
+import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.fisco.bcos.sdk.v3.utils.Numeric;
+
+/**
+ * The VERIFIER property of a connection compiled once, e.g. {"chainType":"BCOS3_ECDSA_EVM",
+ * "pubKey":["...", "..."], "quorumMode":true, "allKeysFallback":false}. The object is immutable,
+ * so a connection keeps it until the property changes instead of parsing the json for every block.
+ */
+public class BlockVerifierConfig {
+    /** the property string compiled, used to detect the change */
+    private final String source;
+
+    private final String chainType;
+
+    /** sealer public keys in hex, checked in length */
+    private final List<String> sealers;
+
+    /** sealer node id in lower case without 0x prefix => sealer public key */
+    private final Map<String, String> sealerByNodeId = new HashMap<>();
+
+    /** signatures needed for PBFT to commit a block, 2f+1 of 3f+1 sealers */
+    private final int quorum;
+
+    /**
+     * accept a block header once quorum distinct sealers are verified, the other signatures are
+     * not checked, optional and false by default
+     */
+    private final boolean quorumMode;
+
+    /**
+     * try every configured key for a signature whose index is missing or not a configured sealer,
+     * optional and true by default, a signature failing the key at its index is always rejected
+     */
+    private final boolean allKeysFallback;
+
+    private BlockVerifierConfig(
+            String source,
+            String chainType,
+            List<String> sealers,
+            boolean quorumMode,
+            boolean allKeysFallback) {
+        this.source = source;
+        this.chainType = chainType;
+        this.quorumMode = quorumMode;
+        this.allKeysFallback = allKeysFallback;
+        this.sealers = Collections.unmodifiableList(sealers);
+        this.quorum = sealers.size() - (sealers.size() - 1) / 3;
+        for (String sealer : sealers) {
+            sealerByNodeId.put(normalize(sealer), sealer);
+        }
+    }
+
+    /**
+     * @param blockVerifierString the VERIFIER property
+     * @return
+     * @throws WeCrossException if the property is not a valid verifier config
+     */
+    public static BlockVerifierConfig compile(String blockVerifierString)
+            throws WeCrossException {
+        try {
+            Objects.requireNonNull(
+                    blockVerifierString, "'blockVerifierString' in compile is null.");
+            Map<String, Object> bcosVerifierMapper =
+                    ObjectMapperFactory.getObjectMapper()
+                            .readValue(
+                                    blockVerifierString,
+                                    new TypeReference<Map<String, Object>>() {});
+            String chainType = (String) bcosVerifierMapper.get("chainType");
+            List<String> pubKey = (List<String>) bcosVerifierMapper.get("pubKey");
+            if (pubKey == null) {
+                throw new WeCrossException(
+                        WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
+                        "pubKey is null in BCOS Verifier.");
+            }
+            if (pubKey.isEmpty()) {
+                // no sealer means a quorum of 0, any signature would be accepted
+                throw new WeCrossException(
+                        WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
+                        "pubKey is empty in BCOS Verifier.");
+            }
+            List<String> sealers = new ArrayList<>(pubKey.size());
+            for (String key : pubKey) {
+                if (key.length() != BCOSConstant.BCOS_NODE_ID_LENGTH) {
+                    throw new WeCrossException(
+                            WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
+                            "pubKey length is not in conformity with the BCOS right way, pubKey: "
+                                    + key
+                                    + " length is "
+                                    + key.length());
+                }
+                sealers.add(key);
+            }
+            Boolean quorumMode = (Boolean) bcosVerifierMapper.get("quorumMode");
+            Boolean allKeysFallback = (Boolean) bcosVerifierMapper.get("allKeysFallback");
+            return new BlockVerifierConfig(
+                    blockVerifierString,
+                    chainType,
+                    sealers,
+                    Boolean.TRUE.equals(quorumMode),
+                    !Boolean.FALSE.equals(allKeysFallback));
+        } catch (JsonProcessingException e) {
+            throw new WeCrossException(
+                    WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
+                    "Parse Json to BCOSVerifier Error, " + e.getMessage(),
+                    e.getCause());
+        } catch (Exception e) {
+            throw new WeCrossException(
+                    WeCrossException.ErrorCode.UNEXPECTED_CONFIG,
+                    "Read BCOSVerifier Json Error, " + e.getMessage(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * @param blockVerifierString the VERIFIER property
+     * @return true if the config is compiled from the property
+     */
+    public boolean isCompiledFrom(String blockVerifierString) {
+        return source.equals(blockVerifierString);
+    }
+
+    /**
+     * @param nodeId node id in the sealer list of a block header
+     * @return the public key of the configured sealer, null if the node is not configured
+     */
+    public String getSealer(String nodeId) {
+        return Objects.isNull(nodeId) ? null : sealerByNodeId.get(normalize(nodeId));
+    }
+
+    private static String normalize(String nodeId) {
+        return Numeric.cleanHexPrefix(nodeId).toLowerCase();
+    }
+
+    public String getChainType() {
+        return chainType;
+    }
+
+    public List<String> getSealers() {
+        return sealers;
+    }
+
+    public int getQuorum() {
+        return quorum;
+    }
+
+    public boolean isQuorumMode() {
+        return quorumMode;
+    }
+
+    public boolean isAllKeysFallback() {
+        return allKeysFallback;
+    }
+
+    @Override
+    public String toString() {
+        return "BlockVerifierConfig{"
+                + "chainType='"
+                + chainType
+                + '\''
+                + ", sealers="
+                + sealers
+                + ", quorum="
+                + quorum
+                + ", quorumMode="
+                + quorumMode
+                + ", allKeysFallback="
+                + allKeysFallback
+                + '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import com.webank.wecross.exception.WeCrossException;
+import java.util.List;
+import java.util.Objects;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
+import org.fisco.bcos.sdk.v3.crypto.hash.Hash;
+import org.fisco.bcos.sdk.v3.utils.Numeric;
+
+/**
+ * Verify consecutive block headers by hash links instead of sealer signatures. Every header must
+ * hash to its own hash and be the parent of the next header, so once the signatures of the last
+ * header are verified, the headers before it are bound to it by the hash chain.
+ */
+public class HeaderChainValidation {
+    /**
+     * walk backwards from the last header, whose signatures must be verified by the caller
+     *
+     * @param headers consecutive headers in block number order
+     * @param hash hash of the chain
+     * @throws WeCrossException if a header is not hashed to its hash or not the parent of the next
+     */
+    public static void verifyHeaderChain(List<BcosBlockHeader.BlockHeader> headers, Hash hash)
+            throws WeCrossException {
+        for (int i = headers.size() - 1; i >= 0; i--) {
+            BcosBlockHeader.BlockHeader header = headers.get(i);
+            String calculatedHash;
+            try {
+                calculatedHash = header.calculateBlockHeaderHash(hash);
+            } catch (Exception e) {
+                throw new WeCrossException(
+                        WeCrossException.ErrorCode.INTERNAL_ERROR,
+                        "verifyHeaderChain fail, caused by " + e.getMessage());
+            }
+            if (!isSameHash(calculatedHash, header.getHash())) {
+                throw new WeCrossException(
+                        WeCrossException.ErrorCode.INTERNAL_ERROR,
+                        "verifyHeaderChain fail, caused by wrong hash, blockNumber: "
+                                + header.getNumber()
+                                + ", hash: "
+                                + header.getHash()
+                                + ", calculated: "
+                                + calculatedHash);
+            }
+
+            if (i == headers.size() - 1) {
+                continue;
+            }
+            BcosBlockHeader.BlockHeader next = headers.get(i + 1);
+            if (next.getNumber() != header.getNumber() + 1
+                    || !isSameHash(getParentHash(next), header.getHash())) {
+                throw new WeCrossException(
+                        WeCrossException.ErrorCode.INTERNAL_ERROR,
+                        "verifyHeaderChain fail, caused by broken link, blockNumber: "
+                                + header.getNumber()
+                                + ", hash: "
+                                + header.getHash()
+                                + ", next parent: "
+                                + getParentHash(next));
+            }
+        }
+    }
+
+    private static String getParentHash(BcosBlockHeader.BlockHeader header) {
+        List<BcosBlockHeader.ParentInfo> parentInfo = header.getParentInfo();
+        return Objects.isNull(parentInfo) || parentInfo.isEmpty()
+                ? null
+                : parentInfo.get(0).getBlockHash();
+    }
+
+    private static boolean isSameHash(String hash, String otherHash) {
+        return Objects.nonNull(hash)
+                && Objects.nonNull(otherHash)
+                && Numeric.cleanHexPrefix(hash).equalsIgnoreCase(Numeric.cleanHexPrefix(otherHash));
+    }
+}
@@ -0,0 +1,225 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.v3.crypto.hash.Hash;
+import org.fisco.bcos.sdk.v3.utils.Hex;
+
+/**
+ * Merkle proof verification remembering the nodes already proven to hash up to each root. The
+ * proofs of the transactions in one block share the upper nodes of the tree, so the walk from a
+ * leaf stops at the first proven node, and a leaf verified before is a single lookup. The proof
+ * format and the result are the same as MerkleProofUtility.verifyMerkle. Each connection keeps its
+ * own memo next to its BlockCache, a root is removed once the block cache evicts its block, and
+ * roots are evicted in LRU order once the remembered nodes exceed maxNodes.
+ */
+public class MerkleProofMemo {
+    private final long maxNodes;
+
+    /** root => nodes proven to hash up to the root, leaves included */
+    private final LinkedHashMap<String, Set<String>> verifiedNodes =
+            new LinkedHashMap<>(16, 0.75F, true);
+
+    private long nodes = 0;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    public MerkleProofMemo(long maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * @param root transaction root or receipt root of the block
+     * @param proof
+     * @param leaf transaction hash or receipt hash
+     * @param cryptoSuite
+     * @return true if the leaf hashes up to the root
+     */
+    public boolean verifyMerkle(
+            String root, List<String> proof, String leaf, CryptoSuite cryptoSuite) {
+        return verifyMerkle(root, proof, leaf, cryptoSuite, null);
+    }
+
+    /**
+     * @param root transaction root or receipt root of the block
+     * @param proof
+     * @param leaf transaction hash or receipt hash
+     * @param cryptoSuite
+     * @param nodeHashes children => node hash, shared by the proofs of a batch so each node is
+     *     hashed once, null if not shared
+     * @return true if the leaf hashes up to the root
+     */
+    public boolean verifyMerkle(
+            String root,
+            List<String> proof,
+            String leaf,
+            CryptoSuite cryptoSuite,
+            Map<String, String> nodeHashes) {
+        String trimmedRoot = Hex.trimPrefix(root);
+        String current = Hex.trimPrefix(leaf);
+        if (Objects.isNull(trimmedRoot) || Objects.isNull(current)) {
+            return false;
+        }
+
+        if (isVerified(trimmedRoot, current)) {
+            hitCount.incrementAndGet();
+            return true;
+        }
+        missCount.incrementAndGet();
+
+        List<String> path = new ArrayList<>();
+        path.add(current);
+        try {
+            // a single element proof means the leaf is the root
+            if (Objects.nonNull(proof) && proof.size() != 1) {
+                Hash hash = cryptoSuite.getHashImpl();
+                int index = 0;
+                while (index < proof.size()) {
+                    int count = ByteBuffer.wrap(Hex.decode(proof.get(index))).getInt();
+                    index++;
+                    List<String> children = proof.subList(index, index + count);
+                    if (!children.contains(current)) {
+                        return false;
+                    }
+                    String joinedChildren = String.join("", children);
+                    current =
+                            Objects.isNull(nodeHashes)
+                                    ? hashNode(hash, joinedChildren)
+                                    : nodeHashes.computeIfAbsent(
+                                            joinedChildren, key -> hashNode(hash, key));
+                    index += count;
+
+                    if (isVerified(trimmedRoot, current)) {
+                        addVerified(trimmedRoot, path);
+                        return true;
+                    }
+                    path.add(current);
+                }
+            }
+        } catch (Exception e) {
+            return false;
+        }
+
+        if (!current.equals(trimmedRoot)) {
+            return false;
+        }
+        addVerified(trimmedRoot, path);
+        return true;
+    }
+
+    private static String hashNode(Hash hash, String joinedChildren) {
+        return Hex.toHexString(hash.hash(Hex.decode(joinedChildren)));
+    }
+
+    /**
+     * @param root
+     * @param hash leaf or intermediate node, without 0x prefix
+     * @return true if the hash is proven to hash up to the root
+     */
+    public synchronized boolean isVerified(String root, String hash) {
+        Set<String> hashes = verifiedNodes.get(root);
+        return Objects.nonNull(hashes) && hashes.contains(hash);
+    }
+
+    private synchronized void addVerified(String root, List<String> path) {
+        if (path.size() > maxNodes) {
+            return;
+        }
+
+        Set<String> hashes = verifiedNodes.computeIfAbsent(root, key -> new HashSet<>());
+        for (String hash : path) {
+            if (hashes.add(hash)) {
+                nodes++;
+            }
+        }
+
+        Iterator<Map.Entry<String, Set<String>>> iterator = verifiedNodes.entrySet().iterator();
+        while (nodes > maxNodes && iterator.hasNext()) {
+            Map.Entry<String, Set<String>> eldest = iterator.next();
+            if (eldest.getValue() == hashes) {
+                continue;
+            }
+            iterator.remove();
+            nodes -= eldest.getValue().size();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * forget the nodes proven to hash up to the root
+     *
+     * @param root transaction root or receipt root of the block
+     */
+    public void remove(String root) {
+        String trimmedRoot = Hex.trimPrefix(root);
+        if (Objects.isNull(trimmedRoot)) {
+            return;
+        }
+
+        synchronized (this) {
+            Set<String> hashes = verifiedNodes.remove(trimmedRoot);
+            if (Objects.nonNull(hashes)) {
+                nodes -= hashes.size();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        verifiedNodes.clear();
+        nodes = 0;
+    }
+
+    /** @return roots remembered */
+    public synchronized int size() {
+        return verifiedNodes.size();
+    }
+
+    public synchronized long getNodes() {
+        return nodes;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "MerkleProofMemo{"
+                + "size="
+                + size()
+                + ", nodes="
+                + getNodes()
+                + ", maxNodes="
+                + maxNodes
+                + ", hitCount="
+                + hitCount
+                + ", missCount="
+                + missCount
+                + ", evictionCount="
+                + evictionCount
+                + '}';
+    }
+}
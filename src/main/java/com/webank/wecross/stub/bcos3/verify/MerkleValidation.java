@@ -4,14 +4,30 @@ import com.webank.wecross.stub.BlockHeader;
 import com.webank.wecross.stub.BlockManager;
 import com.webank.wecross.stub.bcos3.common.BCOSStatusCode;
 import com.webank.wecross.stub.bcos3.common.BCOSStubException;
+import com.webank.wecross.stub.bcos3.common.BCOSStubRuntime;
 import com.webank.wecross.stub.bcos3.protocol.response.TransactionProof;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RecursiveTask;
 import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
 import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
-import org.fisco.bcos.sdk.v3.utils.MerkleProofUtility;
 
 public class MerkleValidation {
 
+    /** proofs verified by one fork-join task, larger batches are split */
+    private static final int BATCH_THRESHOLD = 32;
+
+    /**
+     * @param merkleProofMemo memo of the connection, null if none
+     * @return the memo, or one remembering nothing beyond this verification
+     */
+    private static MerkleProofMemo orEmpty(MerkleProofMemo merkleProofMemo) {
+        return Objects.nonNull(merkleProofMemo) ? merkleProofMemo : new MerkleProofMemo(0);
+    }
+
     /**
      * @param hash transaction hash
      * @param transactionReceipt
@@ -23,8 +39,25 @@ public class MerkleValidation {
             TransactionReceipt transactionReceipt,
             CryptoSuite cryptoSuite)
             throws BCOSStubException {
+        verifyTransactionReceiptProof(hash, blockHeader, transactionReceipt, cryptoSuite, null);
+    }
+
+    /**
+     * @param hash transaction hash
+     * @param transactionReceipt
+     * @param merkleProofMemo memo of the connection, null if none
+     * @throws BCOSStubException
+     */
+    public static void verifyTransactionReceiptProof(
+            String hash,
+            BlockHeader blockHeader,
+            TransactionReceipt transactionReceipt,
+            CryptoSuite cryptoSuite,
+            MerkleProofMemo merkleProofMemo)
+            throws BCOSStubException {
+        MerkleProofMemo memo = orEmpty(merkleProofMemo);
         // verify transaction
-        if (!MerkleProofUtility.verifyMerkle(
+        if (!memo.verifyMerkle(
                 blockHeader.getReceiptRoot(),
                 transactionReceipt.getTxReceiptProof(),
                 transactionReceipt.getReceiptHash(),
@@ -38,7 +71,7 @@ public class MerkleValidation {
         }
 
         // verify transaction
-        if (!MerkleProofUtility.verifyMerkle(
+        if (!memo.verifyMerkle(
                 blockHeader.getTransactionRoot(),
                 transactionReceipt.getTxProof(),
                 transactionReceipt.getTransactionHash(),
@@ -66,13 +99,42 @@ public class MerkleValidation {
             TransactionProof transactionProof,
             CryptoSuite cryptoSuite)
             throws BCOSStubException {
+        verifyTransactionProof(hash, blockHeader, transactionProof, cryptoSuite, null);
+    }
+
+    /**
+     * @param hash transaction hash
+     * @param transactionProof proof of transaction
+     * @param merkleProofMemo memo of the connection, null if none
+     * @throws BCOSStubException
+     */
+    public static void verifyTransactionProof(
+            String hash,
+            BlockHeader blockHeader,
+            TransactionProof transactionProof,
+            CryptoSuite cryptoSuite,
+            MerkleProofMemo merkleProofMemo)
+            throws BCOSStubException {
+        verifyTransactionProof(
+                hash, blockHeader, transactionProof, cryptoSuite, orEmpty(merkleProofMemo), null);
+    }
+
+    private static void verifyTransactionProof(
+            String hash,
+            BlockHeader blockHeader,
+            TransactionProof transactionProof,
+            CryptoSuite cryptoSuite,
+            MerkleProofMemo memo,
+            Map<String, String> nodeHashes)
+            throws BCOSStubException {
 
         // verify transaction
-        if (!MerkleProofUtility.verifyMerkle(
+        if (!memo.verifyMerkle(
                 blockHeader.getReceiptRoot(),
                 transactionProof.getReceiptWithProof().getTxReceiptProof(),
                 transactionProof.getReceiptWithProof().getReceiptHash(),
-                cryptoSuite)) {
+                cryptoSuite,
+                nodeHashes)) {
             throw new BCOSStubException(
                     BCOSStatusCode.TransactionReceiptProofVerifyFailed,
                     BCOSStatusCode.getStatusMessage(
@@ -82,11 +144,12 @@ public class MerkleValidation {
         }
 
         // verify transaction
-        if (!MerkleProofUtility.verifyMerkle(
+        if (!memo.verifyMerkle(
                 blockHeader.getTransactionRoot(),
                 transactionProof.getTransWithProof().getTxProof(),
                 transactionProof.getTransWithProof().getHash(),
-                cryptoSuite)) {
+                cryptoSuite,
+                nodeHashes)) {
             throw new BCOSStubException(
                     BCOSStatusCode.TransactionProofVerifyFailed,
                     BCOSStatusCode.getStatusMessage(BCOSStatusCode.TransactionProofVerifyFailed)
@@ -95,6 +158,138 @@ public class MerkleValidation {
         }
     }
 
+    /**
+     * verify the proofs of many transactions of one block, the nodes shared by the proofs are
+     * hashed once, and large batches are split across cores by fork-join
+     *
+     * @param blockHeader
+     * @param transactionProofs proofs of the transactions in the block
+     * @param cryptoSuite
+     * @throws BCOSStubException of the first proof failed in the order of transactionProofs
+     */
+    public static void verifyTransactionProofs(
+            BlockHeader blockHeader,
+            List<TransactionProof> transactionProofs,
+            CryptoSuite cryptoSuite)
+            throws BCOSStubException {
+        verifyTransactionProofs(blockHeader, transactionProofs, cryptoSuite, null);
+    }
+
+    /**
+     * @param blockHeader
+     * @param transactionProofs proofs of the transactions in the block
+     * @param cryptoSuite
+     * @param merkleProofMemo memo of the connection, null if none
+     * @throws BCOSStubException of the first proof failed in the order of transactionProofs
+     */
+    public static void verifyTransactionProofs(
+            BlockHeader blockHeader,
+            List<TransactionProof> transactionProofs,
+            CryptoSuite cryptoSuite,
+            MerkleProofMemo merkleProofMemo)
+            throws BCOSStubException {
+        if (transactionProofs.isEmpty()) {
+            return;
+        }
+
+        BCOSStubException e =
+                new BatchVerifyTask(
+                                blockHeader,
+                                transactionProofs,
+                                0,
+                                transactionProofs.size(),
+                                new ConcurrentHashMap<>(),
+                                cryptoSuite,
+                                orEmpty(merkleProofMemo))
+                        .invoke();
+        if (Objects.nonNull(e)) {
+            throw e;
+        }
+    }
+
+    /** verify proofs of [from, to), the result is the first failure or null */
+    private static class BatchVerifyTask extends RecursiveTask<BCOSStubException> {
+        private static final long serialVersionUID = 1L;
+
+        private final BlockHeader blockHeader;
+        private final List<TransactionProof> transactionProofs;
+        private final int from;
+        private final int to;
+        private final Map<String, String> nodeHashes;
+        private final CryptoSuite cryptoSuite;
+        private final MerkleProofMemo memo;
+
+        private BatchVerifyTask(
+                BlockHeader blockHeader,
+                List<TransactionProof> transactionProofs,
+                int from,
+                int to,
+                Map<String, String> nodeHashes,
+                CryptoSuite cryptoSuite,
+                MerkleProofMemo memo) {
+            this.blockHeader = blockHeader;
+            this.transactionProofs = transactionProofs;
+            this.from = from;
+            this.to = to;
+            this.nodeHashes = nodeHashes;
+            this.cryptoSuite = cryptoSuite;
+            this.memo = memo;
+        }
+
+        @Override
+        protected BCOSStubException compute() {
+            if (to - from > BATCH_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                BatchVerifyTask left =
+                        new BatchVerifyTask(
+                                blockHeader,
+                                transactionProofs,
+                                from,
+                                middle,
+                                nodeHashes,
+                                cryptoSuite,
+                                memo);
+                BatchVerifyTask right =
+                        new BatchVerifyTask(
+                                blockHeader,
+                                transactionProofs,
+                                middle,
+                                to,
+                                nodeHashes,
+                                cryptoSuite,
+                                memo);
+                right.fork();
+                BCOSStubException leftException = left.compute();
+                BCOSStubException rightException = right.join();
+                return Objects.nonNull(leftException) ? leftException : rightException;
+            }
+
+            for (int i = from; i < to; i++) {
+                TransactionProof transactionProof = transactionProofs.get(i);
+                String hash =
+                        Objects.nonNull(transactionProof.getTransWithProof())
+                                ? transactionProof.getTransWithProof().getHash()
+                                : null;
+                try {
+                    verifyTransactionProof(
+                            hash, blockHeader, transactionProof, cryptoSuite, memo, nodeHashes);
+                } catch (BCOSStubException e) {
+                    return e;
+                } catch (Exception e) {
+                    return new BCOSStubException(
+                            BCOSStatusCode.TransactionProofVerifyFailed,
+                            BCOSStatusCode.getStatusMessage(
+                                            BCOSStatusCode.TransactionProofVerifyFailed)
+                                    + ", hash="
+                                    + hash
+                                    + ", e: "
+                                    + e.getMessage());
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * @param blockNumber
      * @param hash transaction hash
@@ -109,6 +304,37 @@ public class MerkleValidation {
             TransactionProof transactionProof,
             VerifyCallback callback,
             CryptoSuite cryptoSuite) {
+        verifyTransactionProofWithCallback(
+                blockNumber,
+                hash,
+                blockManager,
+                transactionProof,
+                callback,
+                cryptoSuite,
+                Runnable::run,
+                null);
+    }
+
+    /**
+     * @param blockNumber
+     * @param hash transaction hash
+     * @param blockManager
+     * @param transactionProof proof of transaction
+     * @param callback called on the verify executor
+     * @param cryptoSuite
+     * @param verifyExecutor runs the verification, so the thread delivering the block is released,
+     *     a saturated executor fails the verification
+     * @param merkleProofMemo memo of the connection, null if none
+     */
+    public static void verifyTransactionProofWithCallback(
+            long blockNumber,
+            String hash,
+            BlockManager blockManager,
+            TransactionProof transactionProof,
+            VerifyCallback callback,
+            CryptoSuite cryptoSuite,
+            Executor verifyExecutor,
+            MerkleProofMemo merkleProofMemo) {
         blockManager.asyncGetBlock(
                 blockNumber,
                 (blockHeaderException, block) -> {
@@ -123,41 +349,46 @@ public class MerkleValidation {
                         return;
                     }
 
-                    // verify transaction
-                    if (!MerkleProofUtility.verifyMerkle(
-                            block.getBlockHeader().getReceiptRoot(),
-                            transactionProof.getReceiptWithProof().getTxReceiptProof(),
-                            transactionProof.getReceiptWithProof().getReceiptHash(),
-                            cryptoSuite)) {
-                        callback.onResponse(
-                                new BCOSStubException(
-                                        BCOSStatusCode.TransactionReceiptProofVerifyFailed,
-                                        BCOSStatusCode.getStatusMessage(
-                                                        BCOSStatusCode
-                                                                .TransactionReceiptProofVerifyFailed)
-                                                + ", hash="
-                                                + hash));
-                        return;
+                    if (!BCOSStubRuntime.tryExecute(
+                            verifyExecutor,
+                            () ->
+                                    verifyTransactionProofWithCallback(
+                                            hash,
+                                            block.getBlockHeader(),
+                                            transactionProof,
+                                            callback,
+                                            cryptoSuite,
+                                            merkleProofMemo))) {
+                        callback.onResponse(BCOSStubRuntime.newVerifyRejectedException());
                     }
-
-                    // verify transaction
-                    if (!MerkleProofUtility.verifyMerkle(
-                            block.getBlockHeader().getTransactionRoot(),
-                            transactionProof.getTransWithProof().getTxProof(),
-                            transactionProof.getTransWithProof().getHash(),
-                            cryptoSuite)) {
-
-                        callback.onResponse(
-                                new BCOSStubException(
-                                        BCOSStatusCode.TransactionProofVerifyFailed,
-                                        BCOSStatusCode.getStatusMessage(
-                                                        BCOSStatusCode.TransactionProofVerifyFailed)
-                                                + ", hash="
-                                                + hash));
-                        return;
-                    }
-
-                    callback.onResponse(null);
                 });
     }
+
+    private static void verifyTransactionProofWithCallback(
+            String hash,
+            BlockHeader blockHeader,
+            TransactionProof transactionProof,
+            VerifyCallback callback,
+            CryptoSuite cryptoSuite,
+            MerkleProofMemo merkleProofMemo) {
+        try {
+            verifyTransactionProof(
+                    hash, blockHeader, transactionProof, cryptoSuite, merkleProofMemo);
+        } catch (BCOSStubException e) {
+            callback.onResponse(e);
+            return;
+        } catch (Exception e) {
+            callback.onResponse(
+                    new BCOSStubException(
+                            BCOSStatusCode.TransactionProofVerifyFailed,
+                            BCOSStatusCode.getStatusMessage(
+                                            BCOSStatusCode.TransactionProofVerifyFailed)
+                                    + ", hash="
+                                    + hash
+                                    + ", e: "
+                                    + e.getMessage()));
+            return;
+        }
+        callback.onResponse(null);
+    }
 }
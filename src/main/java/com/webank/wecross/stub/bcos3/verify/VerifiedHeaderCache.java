@@ -0,0 +1,124 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Block headers whose sealer signatures are already verified, as (block number, block hash) pairs.
+ * A header of the same number and hash is accepted without any crypto work, so a block requested
+ * again and again, e.g. to verify the transactions of a burst, is verified once. The pairs are
+ * evicted in LRU order once more than maxSize. The cache is bound to the verifier config the
+ * headers are verified with and reset when the config changes, a verification still running with
+ * the old config can not put its header afterwards.
+ */
+public class VerifiedHeaderCache {
+    private final int maxSize;
+
+    /** block number => block hash */
+    private final LinkedHashMap<Long, String> headers = new LinkedHashMap<>(16, 0.75F, true);
+
+    /** the config the headers are verified with, identity compared */
+    private BlockVerifierConfig verifierConfig = null;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    /** @param maxSize 0 disables the cache */
+    public VerifiedHeaderCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param verifierConfig the config the header would be verified with
+     * @param blockNumber
+     * @param blockHash
+     * @return true if the header of the number and hash is verified with the config
+     */
+    public boolean isVerified(
+            BlockVerifierConfig verifierConfig, long blockNumber, String blockHash) {
+        String verifiedHash;
+        synchronized (this) {
+            verifiedHash = verifierConfig == this.verifierConfig ? headers.get(blockNumber) : null;
+        }
+        boolean verified = Objects.nonNull(verifiedHash) && verifiedHash.equals(blockHash);
+        if (verified) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return verified;
+    }
+
+    /**
+     * only headers passing the signature verification must be put, a header verified with another
+     * config than the cache is bound to is dropped
+     *
+     * @param verifierConfig the config the header is verified with
+     * @param blockNumber
+     * @param blockHash
+     */
+    public synchronized void putVerified(
+            BlockVerifierConfig verifierConfig, long blockNumber, String blockHash) {
+        if (Objects.isNull(blockHash) || maxSize <= 0 || verifierConfig != this.verifierConfig) {
+            return;
+        }
+
+        headers.put(blockNumber, blockHash);
+        Iterator<Map.Entry<Long, String>> iterator = headers.entrySet().iterator();
+        while (headers.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * drop the verified headers and bind the cache to another config
+     *
+     * @param verifierConfig
+     */
+    public synchronized void reset(BlockVerifierConfig verifierConfig) {
+        headers.clear();
+        this.verifierConfig = verifierConfig;
+    }
+
+    public synchronized int size() {
+        return headers.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedHeaderCache{"
+                + "size="
+                + size()
+                + ", maxSize="
+                + maxSize
+                + ", hitCount="
+                + hitCount
+                + ", missCount="
+                + missCount
+                + ", evictionCount="
+                + evictionCount
+                + '}';
+    }
+}
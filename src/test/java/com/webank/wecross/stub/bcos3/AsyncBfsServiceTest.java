@@ -0,0 +1,110 @@
+package com.webank.wecross.stub.bcos3;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+
+import com.webank.wecross.stub.Connection;
+import com.webank.wecross.stub.Driver;
+import com.webank.wecross.stub.bcos3.common.BCOSStubRuntime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AsyncBfsServiceTest {
+
+    /** readlink completed by the test */
+    private static class MockAsyncBfsService extends AsyncBfsService {
+        private final Map<String, ReadlinkCallback> readlinks = new ConcurrentHashMap<>();
+        private final List<String> names = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void readlink(
+                String name, Connection connection, Driver driver, ReadlinkCallback callback) {
+            readlinks.put(name, callback);
+            names.add(name);
+        }
+
+        public void complete(String name, Exception e, String abi) {
+            readlinks.remove(name).onResponse(e, e == null ? Collections.singletonList(abi) : null);
+        }
+    }
+
+    @Test
+    public void queryABISingleFlightTest() {
+        MockAsyncBfsService asyncBfsService = new MockAsyncBfsService();
+        List<String> abis = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 3; i++) {
+            asyncBfsService.queryABI("HelloWorld", null, null, (e, abi) -> abis.add(abi));
+        }
+
+        // the misses of the same name share one readlink
+        assertEquals(asyncBfsService.names.size(), 1);
+        asyncBfsService.complete("HelloWorld", null, "abi");
+        assertEquals(abis, Collections.nCopies(3, "abi"));
+
+        // cached
+        asyncBfsService.queryABI("HelloWorld", null, null, (e, abi) -> abis.add(abi));
+        assertEquals(asyncBfsService.names.size(), 1);
+        assertEquals(abis.size(), 4);
+
+        // a failure is delivered to every query and not cached
+        List<Exception> exceptions = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 2; i++) {
+            asyncBfsService.queryABI(
+                    "Failure",
+                    null,
+                    null,
+                    (e, abi) -> {
+                        assertNull(abi);
+                        exceptions.add(e);
+                    });
+        }
+        asyncBfsService.complete("Failure", new Exception("readlink failed"), null);
+        assertEquals(exceptions.size(), 2);
+        assertNull(asyncBfsService.getAbiCache().get("Failure"));
+
+        asyncBfsService.queryABI("Failure", null, null, (e, abi) -> {});
+        assertEquals(asyncBfsService.names.size(), 3);
+    }
+
+    @Test
+    public void queryABIParallelismTest() throws InterruptedException {
+        MockAsyncBfsService asyncBfsService = new MockAsyncBfsService();
+        int parallelism = BCOSStubRuntime.getInstance().getAbiQueryParallelism();
+        int nameNum = parallelism + 2;
+        CountDownLatch latch = new CountDownLatch(nameNum);
+        for (int i = 0; i < nameNum; i++) {
+            asyncBfsService.queryABI("Name" + i, null, null, (e, abi) -> latch.countDown());
+        }
+
+        // different names are resolved in parallel up to the limit
+        assertEquals(asyncBfsService.names.size(), parallelism);
+
+        // a completed name hands its slot over to a waiting one
+        asyncBfsService.complete("Name0", null, "abi0");
+        waitReadlinks(asyncBfsService, parallelism + 1);
+        assertEquals(asyncBfsService.readlinks.size(), parallelism);
+
+        for (int i = 1; i < nameNum; i++) {
+            waitReadlinks(asyncBfsService, Math.min(parallelism + i, nameNum));
+            asyncBfsService.complete("Name" + i, null, "abi" + i);
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        assertEquals(latch.getCount(), 0);
+        int last = nameNum - 1;
+        assertEquals(asyncBfsService.getAbiCache().get("Name" + last), "abi" + last);
+    }
+
+    private static void waitReadlinks(MockAsyncBfsService asyncBfsService, int readlinkNum)
+            throws InterruptedException {
+        for (int i = 0; i < 1000 && asyncBfsService.names.size() < readlinkNum; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(asyncBfsService.names.size(), readlinkNum);
+    }
+}
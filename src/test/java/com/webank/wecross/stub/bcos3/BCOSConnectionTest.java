@@ -2,40 +2,64 @@ package com.webank.wecross.stub.bcos3;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
 import static junit.framework.TestCase.assertTrue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.webank.wecross.exception.WeCrossException;
 import com.webank.wecross.stub.Block;
 import com.webank.wecross.stub.BlockHeader;
 import com.webank.wecross.stub.Request;
 import com.webank.wecross.stub.ResourceInfo;
+import com.webank.wecross.stub.Response;
 import com.webank.wecross.stub.TransactionRequest;
 import com.webank.wecross.stub.bcos3.client.AbstractClientWrapper;
+import com.webank.wecross.stub.bcos3.client.ChainHeadTracker;
 import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
 import com.webank.wecross.stub.bcos3.client.ClientWrapperCallNotSucStatus;
 import com.webank.wecross.stub.bcos3.client.ClientWrapperImplMock;
+import com.webank.wecross.stub.bcos3.client.ClientWrapperWithDelayMock;
 import com.webank.wecross.stub.bcos3.client.ClientWrapperWithExceptionMock;
 import com.webank.wecross.stub.bcos3.client.ClientWrapperWithNullMock;
+import com.webank.wecross.stub.bcos3.common.BCOSBlockHeader;
 import com.webank.wecross.stub.bcos3.common.BCOSConstant;
 import com.webank.wecross.stub.bcos3.common.BCOSRequestType;
 import com.webank.wecross.stub.bcos3.common.BCOSStatusCode;
+import com.webank.wecross.stub.bcos3.common.BCOSStubRuntime;
 import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
+import com.webank.wecross.stub.bcos3.common.TransactionCache;
 import com.webank.wecross.stub.bcos3.config.BCOSStubConfig;
 import com.webank.wecross.stub.bcos3.config.BCOSStubConfigParser;
 import com.webank.wecross.stub.bcos3.contract.BlockUtility;
 import com.webank.wecross.stub.bcos3.contract.FunctionUtility;
 import com.webank.wecross.stub.bcos3.protocol.request.TransactionParams;
+import com.webank.wecross.stub.bcos3.protocol.response.TransactionPair;
+import com.webank.wecross.stub.bcos3.protocol.response.TransactionProof;
+import com.webank.wecross.stub.bcos3.protocol.response.TypedResponse;
+import com.webank.wecross.stub.bcos3.verify.BlockVerifierConfig;
+import com.webank.wecross.stub.bcos3.verify.VerifiedHeaderCache;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.fisco.bcos.sdk.jni.common.JniException;
 import org.fisco.bcos.sdk.jni.utilities.tx.TransactionBuilderJniObj;
 import org.fisco.bcos.sdk.jni.utilities.tx.TxPair;
+import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
 import org.fisco.bcos.sdk.v3.client.protocol.response.Call;
 import org.fisco.bcos.sdk.v3.codec.abi.FunctionEncoder;
 import org.fisco.bcos.sdk.v3.codec.datatypes.Function;
@@ -138,6 +162,209 @@ public class BCOSConnectionTest {
                                 BCOSStatusCode.HandleGetBlockNumberFailed));
     }
 
+    @Test
+    public void noteOnResourcesChangeTest() {
+        long[] blockNumber = new long[] {100};
+        AbstractClientWrapper clientWrapper =
+                new ClientWrapperImplMock() {
+                    @Override
+                    public BigInteger getBlockNumber() {
+                        return BigInteger.valueOf(blockNumber[0]);
+                    }
+                };
+        String[][] paths = new String[][] {{"a.b.HelloWeCross"}};
+        int[] listPathsCount = new int[] {0};
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())),
+                        0) {
+                    @Override
+                    public String[] listPaths() {
+                        listPathsCount[0]++;
+                        return paths[0];
+                    }
+                };
+        connection.setResourceInfoList(new ArrayList<>());
+        List<List<ResourceInfo>> notified = new ArrayList<>();
+        connection.setConnectionEventHandler(notified::add);
+
+        connection.noteOnResourcesChange(false);
+        assertEquals(listPathsCount[0], 1);
+        assertEquals(notified.size(), 1);
+        assertEquals(notified.get(0).get(0).getName(), "HelloWeCross");
+
+        // chain head not moved, skip listPaths
+        connection.noteOnResourcesChange(false);
+        assertEquals(listPathsCount[0], 1);
+        assertEquals(notified.size(), 1);
+
+        // chain head moved but paths not changed
+        blockNumber[0] = 101;
+        connection.noteOnResourcesChange(false);
+        assertEquals(listPathsCount[0], 2);
+        assertEquals(notified.size(), 1);
+
+        // path added and removed
+        blockNumber[0] = 102;
+        paths[0] = new String[] {"a.b.Hello", "a.b.WeCrossProxy"};
+        connection.noteOnResourcesChange(false);
+        assertEquals(listPathsCount[0], 3);
+        assertEquals(notified.size(), 2);
+        assertEquals(notified.get(1).size(), 2);
+        assertEquals(notified.get(1).get(0).getName(), "Hello");
+        assertEquals(notified.get(1).get(1).getName(), "WeCrossProxy");
+    }
+
+    @Test
+    public void noteOnResourcesChangeAfterDeployTest() throws Exception {
+        AbstractClientWrapper clientWrapper =
+                new ClientWrapperImplMock() {
+                    @Override
+                    public BigInteger getBlockNumber() {
+                        return BigInteger.valueOf(100);
+                    }
+                };
+        String[][] paths = new String[][] {{"a.b.HelloWeCross"}};
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())),
+                        0) {
+                    @Override
+                    public String[] listPaths() {
+                        return paths[0];
+                    }
+                };
+        connection.setResourceInfoList(new ArrayList<>());
+        List<List<ResourceInfo>> notified = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        connection.setConnectionEventHandler(
+                resources -> {
+                    notified.add(resources);
+                    latch.countDown();
+                });
+        connection.noteOnResourcesChange(false);
+        assertEquals(notified.size(), 1);
+
+        // the receipt of a deploy discovers the paths though the chain head is not moved
+        paths[0] = new String[] {"a.b.HelloWeCross", "a.b.Hello"};
+        TransactionRequest transactionRequest = new TransactionRequest();
+        transactionRequest.setMethod(BCOSConstant.PROXY_METHOD_DEPLOY);
+        TransactionParams transactionParams =
+                new TransactionParams(
+                        transactionRequest, "0x00", TransactionParams.SUB_TYPE.SEND_TX);
+        Request request = new Request();
+        request.setType(BCOSRequestType.SEND_TRANSACTION);
+        request.setData(ObjectMapperFactory.getObjectMapper().writeValueAsBytes(transactionParams));
+        connection.asyncSend(
+                request, response -> assertEquals(response.getErrorCode(), BCOSStatusCode.Success));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(notified.get(1).size(), 2);
+        assertEquals(notified.get(1).get(1).getName(), "Hello");
+    }
+
+    @Test
+    public void getBlockNumberFromChainHeadTrackerTest() {
+        AbstractClientWrapper clientWrapper = new ClientWrapperImplMock();
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+        ChainHeadTracker chainHeadTracker = new ChainHeadTracker(clientWrapper, 10000);
+        connection.setChainHeadTracker(chainHeadTracker);
+
+        Request request = new Request();
+        request.setType(BCOSRequestType.GET_BLOCK_NUMBER);
+
+        // unknown chain head, query node
+        connection.asyncSend(
+                request,
+                response -> {
+                    assertEquals(response.getErrorCode(), BCOSStatusCode.Success);
+                    assertEquals(new BigInteger(response.getData()).longValue(), 11111);
+                });
+        assertEquals(chainHeadTracker.getBlockNumber(), 11111);
+
+        chainHeadTracker.onBlockNumber(12345);
+        connection.asyncSend(
+                request,
+                response -> {
+                    assertEquals(response.getErrorCode(), BCOSStatusCode.Success);
+                    assertEquals(new BigInteger(response.getData()).longValue(), 12345);
+                });
+    }
+
+    @Test
+    public void dispatchGetBlockNumberTest() throws InterruptedException {
+        AbstractClientWrapper clientWrapper = new ClientWrapperImplMock();
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+        connection.setDispatchExecutorService(BCOSStubRuntime.getInstance().getIoExecutor());
+
+        Request request = new Request();
+        request.setType(BCOSRequestType.GET_BLOCK_NUMBER);
+        AsyncToSync asyncToSync = new AsyncToSync();
+        Response[] responses = new Response[1];
+        connection.asyncSend(
+                request,
+                response -> {
+                    responses[0] = response;
+                    asyncToSync.getSemaphore().release();
+                });
+
+        asyncToSync.getSemaphore().acquire();
+        assertEquals(responses[0].getErrorCode(), BCOSStatusCode.Success);
+        assertEquals(new BigInteger(responses[0].getData()).longValue(), 11111);
+    }
+
+    @Test
+    public void dispatchRejectedTest() throws InterruptedException {
+        AbstractClientWrapper clientWrapper = new ClientWrapperImplMock();
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+        // a runtime whose io pool is saturated by a running and a queued task
+        BCOSStubRuntime.shutdown();
+        BCOSStubConfig.Runtime runtimeConfig = new BCOSStubConfig.Runtime();
+        runtimeConfig.setIoThreadNum(1);
+        runtimeConfig.setQueueCapacity(1);
+        BCOSStubRuntime.getInstance().configure(runtimeConfig);
+        ExecutorService ioExecutor = BCOSStubRuntime.getInstance().getIoExecutor();
+        CountDownLatch latch = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            ioExecutor.execute(
+                    () -> {
+                        try {
+                            latch.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+        }
+        connection.setDispatchExecutorService(ioExecutor);
+
+        try {
+            Request request = new Request();
+            request.setType(BCOSRequestType.GET_BLOCK_NUMBER);
+            int[] errorCode = new int[] {-1};
+            connection.asyncSend(request, response -> errorCode[0] = response.getErrorCode());
+            assertEquals(errorCode[0], BCOSStatusCode.RequestDispatchRejected);
+        } finally {
+            latch.countDown();
+            BCOSStubRuntime.shutdown();
+        }
+    }
+
     @Test
     public void handleGetBlockTest() {
 
@@ -186,6 +413,109 @@ public class BCOSConnectionTest {
                 });
     }
 
+    @Test
+    public void handleGetBlockMergeHeaderTest() throws IOException {
+        AtomicInteger headerRequests = new AtomicInteger(0);
+        AtomicBoolean bodyWithSignature = new AtomicBoolean(false);
+        AbstractClientWrapper clientWrapper =
+                new ClientWrapperImplMock() {
+                    @Override
+                    public BcosBlock.Block getBlockByNumber(long blockNumber, boolean onlyTxHash)
+                            throws IOException {
+                        BcosBlock.Block block = super.getBlockByNumber(blockNumber, onlyTxHash);
+                        if (!bodyWithSignature.get()) {
+                            block.setSignatureList(new ArrayList<>());
+                        }
+                        return block;
+                    }
+
+                    @Override
+                    public BcosBlockHeader.BlockHeader getBlockHeaderByNumber(long blockNumber)
+                            throws IOException {
+                        headerRequests.incrementAndGet();
+                        return super.getBlockHeaderByNumber(blockNumber);
+                    }
+                };
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+        Request request = new Request();
+        request.setType(BCOSRequestType.GET_BLOCK_BY_NUMBER);
+        request.setData(BigInteger.valueOf(9).toByteArray());
+
+        // signature list of the header is merged into the typed fields of the block
+        Response[] responses = new Response[1];
+        connection.asyncSend(request, response -> responses[0] = response);
+        assertEquals(responses[0].getErrorCode(), BCOSStatusCode.Success);
+        BcosBlock.Block bcosBlock =
+                ObjectMapperFactory.getObjectMapper()
+                        .readValue(responses[0].getData(), BcosBlock.Block.class);
+        assertEquals(bcosBlock.getSignatureList().size(), 2);
+        assertEquals(bcosBlock.getExtraData(), "0x");
+        Block block = BlockUtility.convertToBlock(responses[0].getData(), false);
+        assertEquals(((BCOSBlockHeader) block.getBlockHeader()).getSignatureList().size(), 2);
+        assertEquals(headerRequests.get(), 1);
+
+        // header rpc is skipped once the body carries the signature list
+        bodyWithSignature.set(true);
+        connection.asyncSend(request, response -> responses[0] = response);
+        connection.asyncSend(request, response -> responses[0] = response);
+        assertEquals(responses[0].getErrorCode(), BCOSStatusCode.Success);
+        assertEquals(headerRequests.get(), 2);
+    }
+
+    @Test
+    public void handleGetBlockHeaderTest() throws IOException {
+        AtomicInteger blockRequests = new AtomicInteger(0);
+        AtomicBoolean headerSupported = new AtomicBoolean(true);
+        AbstractClientWrapper clientWrapper =
+                new ClientWrapperImplMock() {
+                    @Override
+                    public BcosBlock.Block getBlockByNumber(long blockNumber, boolean onlyTxHash)
+                            throws IOException {
+                        blockRequests.incrementAndGet();
+                        return super.getBlockByNumber(blockNumber, onlyTxHash);
+                    }
+
+                    @Override
+                    public BcosBlockHeader.BlockHeader getBlockHeaderByNumber(long blockNumber)
+                            throws IOException {
+                        if (!headerSupported.get()) {
+                            throw new UnsupportedOperationException();
+                        }
+                        return super.getBlockHeaderByNumber(blockNumber);
+                    }
+                };
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+        Request request = new Request();
+        request.setType(BCOSRequestType.GET_BLOCK_HEADER_BY_NUMBER);
+        request.setData(BigInteger.valueOf(9).toByteArray());
+
+        // only the header is queried
+        Response[] responses = new Response[1];
+        connection.asyncSend(request, response -> responses[0] = response);
+        assertEquals(responses[0].getErrorCode(), BCOSStatusCode.Success);
+        assertEquals(blockRequests.get(), 0);
+        Block block = BlockUtility.convertToBlock(responses[0].getData(), true);
+        assertTrue(block.getTransactionsHashes().isEmpty());
+        assertEquals(
+                block.getBlockHeader().getHash(),
+                "0xc403e7f3255c7822e86075c1b97c4de359a511030794af8f8c74692e1b494e03");
+        assertEquals(((BCOSBlockHeader) block.getBlockHeader()).getSignatureList().size(), 2);
+
+        // the full block is queried if the node does not support header query
+        headerSupported.set(false);
+        connection.asyncSend(request, response -> responses[0] = response);
+        assertEquals(responses[0].getErrorCode(), BCOSStatusCode.Success);
+        assertEquals(blockRequests.get(), 1);
+    }
+
     @Test
     public void handleFailedGetBlockTest() {
         AbstractClientWrapper clientWrapper = new ClientWrapperWithExceptionMock();
@@ -521,4 +851,224 @@ public class BCOSConnectionTest {
                 response ->
                         assertEquals(response.getErrorCode(), BCOSStatusCode.UnclassifiedError));
     }
+
+    @Test
+    public void getTransactionProofFromCacheTest() throws InterruptedException, IOException {
+        String hash = "0xf3421699230b54b0b1b863b924d8918f033782721269e0f087769e0f4690a3d3";
+        AtomicInteger proofRequests = new AtomicInteger(0);
+        AtomicInteger transactionRequests = new AtomicInteger(0);
+        AbstractClientWrapper clientWrapper =
+                new ClientWrapperImplMock() {
+                    @Override
+                    public JsonTransactionResponse getTransactionByHashWithProof(
+                            String transactionHash) throws IOException {
+                        proofRequests.incrementAndGet();
+                        return super.getTransactionByHashWithProof(transactionHash);
+                    }
+
+                    @Override
+                    public CompletableFuture<JsonTransactionResponse> getTransactionAsync(
+                            String transactionHash) {
+                        transactionRequests.incrementAndGet();
+                        return super.getTransactionAsync(transactionHash);
+                    }
+                };
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+        TransactionCache transactionCache = new TransactionCache(1024 * 1024);
+        connection.setTransactionCache(transactionCache);
+
+        Response[] responses = new Response[2];
+        for (int i = 0; i < responses.length; i++) {
+            Request request = new Request();
+            request.setType(BCOSRequestType.GET_TRANSACTION_PROOF);
+            request.setData(hash.getBytes(StandardCharsets.UTF_8));
+            CountDownLatch latch = new CountDownLatch(1);
+            int index = i;
+            connection.asyncSend(
+                    request,
+                    response -> {
+                        responses[index] = response;
+                        latch.countDown();
+                    });
+            latch.await(5, TimeUnit.SECONDS);
+            assertEquals(responses[i].getErrorCode(), BCOSStatusCode.Success);
+
+            // the connection never caches an unverified proof, the driver puts it once verified
+            assertEquals(transactionCache.size(), i);
+            transactionCache.putTransactionProof(
+                    hash, TypedResponse.readValue(responses[i], TransactionProof.class));
+        }
+        // the second request is served by the cache
+        assertEquals(proofRequests.get(), 1);
+        assertEquals(transactionCache.getHitCount(), 1);
+        assertEquals(
+                TypedResponse.readValue(responses[1], TransactionProof.class)
+                        .getTransWithProof()
+                        .getHash(),
+                hash);
+
+        // the cached proof also serves the transaction
+        Request request = new Request();
+        request.setType(BCOSRequestType.GET_TRANSACTION);
+        request.setData(hash.getBytes(StandardCharsets.UTF_8));
+        connection.asyncSend(request, response -> responses[0] = response);
+        assertEquals(responses[0].getErrorCode(), BCOSStatusCode.Success);
+        assertEquals(transactionRequests.get(), 0);
+        assertEquals(
+                TypedResponse.readValue(responses[0], TransactionPair.class)
+                        .getReceipt()
+                        .getTransactionHash(),
+                hash);
+    }
+
+    @Test
+    public void getTransactionProofInFlightTest() throws InterruptedException {
+        String hash = "0x633a3386a189455354c058af6606d705697f3b216ad555958dc680f68cc4e99d";
+        // the transaction and receipt rpcs complete only once both are in flight
+        ClientWrapperWithDelayMock clientWrapper = new ClientWrapperWithDelayMock(50, 2);
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+
+        Request request = new Request();
+        request.setType(BCOSRequestType.GET_TRANSACTION_PROOF);
+        request.setData(hash.getBytes(StandardCharsets.UTF_8));
+
+        AsyncToSync asyncToSync = new AsyncToSync();
+        connection.asyncSend(
+                request,
+                response -> {
+                    assertEquals(response.getErrorCode(), BCOSStatusCode.Success);
+                    asyncToSync.getSemaphore().release();
+                });
+        assertTrue(asyncToSync.getSemaphore().tryAcquire(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void getTransactionNotExistTest() throws InterruptedException {
+        String hash = "0x633a3386a189455354c058af6606d705697f3b216ad555958dc680f68cc4e99d";
+        AbstractClientWrapper clientWrapper = new ClientWrapperWithNullMock();
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+
+        Request request = new Request();
+        request.setType(BCOSRequestType.GET_TRANSACTION_PROOF);
+        request.setData(hash.getBytes(StandardCharsets.UTF_8));
+        AsyncToSync asyncToSync = new AsyncToSync();
+        connection.asyncSend(
+                request,
+                response -> {
+                    assertEquals(
+                            response.getErrorCode(),
+                            BCOSStatusCode.TransactionReceiptProofNotExist);
+                    asyncToSync.getSemaphore().release();
+                });
+        asyncToSync.getSemaphore().acquire();
+    }
+
+    @Test
+    public void coalesceGetTransactionProofTest() throws InterruptedException {
+        String hash = "0x633a3386a189455354c058af6606d705697f3b216ad555958dc680f68cc4e99d";
+        AtomicInteger proofRequests = new AtomicInteger(0);
+        AbstractClientWrapper clientWrapper =
+                new ClientWrapperWithDelayMock(50) {
+                    @Override
+                    public JsonTransactionResponse getTransactionByHashWithProof(
+                            String transactionHash) throws IOException {
+                        proofRequests.incrementAndGet();
+                        return super.getTransactionByHashWithProof(transactionHash);
+                    }
+                };
+        BCOSConnection connection =
+                new BCOSConnection(
+                        clientWrapper,
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+
+        int total = 10;
+        CountDownLatch latch = new CountDownLatch(total);
+        AtomicInteger success = new AtomicInteger(0);
+        for (int i = 0; i < total; i++) {
+            Request request = new Request();
+            request.setType(BCOSRequestType.GET_TRANSACTION_PROOF);
+            request.setData(hash.getBytes(StandardCharsets.UTF_8));
+            connection.asyncSend(
+                    request,
+                    response -> {
+                        if (response.getErrorCode() == BCOSStatusCode.Success) {
+                            success.incrementAndGet();
+                        }
+                        latch.countDown();
+                    });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(success.get(), total);
+        assertEquals(proofRequests.get(), 1);
+
+        // a new request after the flight completes issues a new rpc
+        AsyncToSync asyncToSync = new AsyncToSync();
+        Request request = new Request();
+        request.setType(BCOSRequestType.GET_TRANSACTION_PROOF);
+        request.setData(hash.getBytes(StandardCharsets.UTF_8));
+        connection.asyncSend(request, response -> asyncToSync.getSemaphore().release());
+        asyncToSync.getSemaphore().acquire();
+        assertEquals(proofRequests.get(), 2);
+    }
+
+    @Test
+    public void getBlockVerifierConfigTest() throws WeCrossException {
+        BCOSConnection connection =
+                new BCOSConnection(
+                        new ClientWrapperImplMock(),
+                        new ScheduledThreadPoolExecutor(
+                                1, new CustomizableThreadFactory(this.getClass().getName())));
+        assertNull(connection.getBlockVerifierConfig());
+
+        String pubKey =
+                "\"ffa9aa23918afcfa5c20a07177e83731c46f153b3ce33b98cb3c4b61c767d06296ef9c1b7f7c6737c3077a6ec61c1a86d665475629cecd1c209b3f9a3b8688dc\"";
+        connection
+                .getProperties()
+                .put(
+                        BCOSConstant.BCOS_SEALER_LIST,
+                        "{\"chainType\":\"BCOS3_ECDSA_EVM\",\"pubKey\":[" + pubKey + "]}");
+        VerifiedHeaderCache verifiedHeaderCache = new VerifiedHeaderCache(16);
+        connection.setVerifiedHeaderCache(verifiedHeaderCache);
+        BlockVerifierConfig config = connection.getBlockVerifierConfig();
+        assertEquals(config.getSealers().size(), 1);
+        verifiedHeaderCache.putVerified(config, 1, "0x01");
+        // compiled once until the property changes
+        assertSame(connection.getBlockVerifierConfig(), config);
+
+        connection
+                .getProperties()
+                .put(
+                        BCOSConstant.BCOS_SEALER_LIST,
+                        "{\"chainType\":\"BCOS3_ECDSA_EVM\",\"pubKey\":["
+                                + pubKey
+                                + ","
+                                + pubKey
+                                + "]}");
+        assertEquals(verifiedHeaderCache.size(), 1);
+        BlockVerifierConfig newConfig = connection.getBlockVerifierConfig();
+        assertNotSame(newConfig, config);
+        // verified with the old sealers
+        assertEquals(verifiedHeaderCache.size(), 0);
+        assertEquals(newConfig.getSealers().size(), 2);
+        assertSame(connection.getBlockVerifierConfig(), newConfig);
+        // a header verified with the old sealers is put after the change
+        verifiedHeaderCache.putVerified(config, 2, "0x02");
+        assertEquals(verifiedHeaderCache.size(), 0);
+        verifiedHeaderCache.putVerified(newConfig, 2, "0x02");
+        assertTrue(verifiedHeaderCache.isVerified(newConfig, 2, "0x02"));
+    }
 }
@@ -6,6 +6,7 @@ import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 
 import com.webank.wecross.stub.Account;
+import com.webank.wecross.stub.Block;
 import com.webank.wecross.stub.BlockHeader;
 import com.webank.wecross.stub.BlockManager;
 import com.webank.wecross.stub.Connection;
@@ -18,6 +19,7 @@ import com.webank.wecross.stub.TransactionRequest;
 import com.webank.wecross.stub.bcos3.account.BCOSAccount;
 import com.webank.wecross.stub.bcos3.account.BCOSAccountFactory;
 import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
+import com.webank.wecross.stub.bcos3.client.ClientWrapper;
 import com.webank.wecross.stub.bcos3.client.ClientWrapperCallNotSucStatus;
 import com.webank.wecross.stub.bcos3.client.ClientWrapperImplMock;
 import com.webank.wecross.stub.bcos3.client.ClientWrapperTxVerifyMock;
@@ -27,19 +29,34 @@ import com.webank.wecross.stub.bcos3.common.BCOSConstant;
 import com.webank.wecross.stub.bcos3.common.BCOSRequestType;
 import com.webank.wecross.stub.bcos3.common.BCOSStatusCode;
 import com.webank.wecross.stub.bcos3.common.BCOSStubException;
+import com.webank.wecross.stub.bcos3.common.BlockCache;
+import com.webank.wecross.stub.bcos3.common.BlockPrefetcher;
+import com.webank.wecross.stub.bcos3.common.BlockRangeFetcher;
 import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
+import com.webank.wecross.stub.bcos3.common.TransactionCache;
 import com.webank.wecross.stub.bcos3.config.BCOSStubConfig;
 import com.webank.wecross.stub.bcos3.config.BCOSStubConfigParser;
+import com.webank.wecross.stub.bcos3.contract.BlockUtility;
 import com.webank.wecross.stub.bcos3.contract.FunctionUtility;
 import com.webank.wecross.stub.bcos3.protocol.request.TransactionParams;
+import com.webank.wecross.stub.bcos3.verify.VerifiedHeaderCache;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.tuple.Pair;
 import org.fisco.bcos.sdk.jni.utilities.tx.TransactionBuilderJniObj;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
 import org.fisco.bcos.sdk.v3.codec.abi.FunctionEncoder;
 import org.fisco.bcos.sdk.v3.codec.datatypes.Function;
 import org.fisco.bcos.sdk.v3.codec.wrapper.ABIDefinition;
@@ -49,6 +66,7 @@ import org.fisco.bcos.sdk.v3.codec.wrapper.ABIObjectFactory;
 import org.fisco.bcos.sdk.v3.codec.wrapper.ContractABIDefinition;
 import org.fisco.bcos.sdk.v3.codec.wrapper.ContractCodecJsonWrapper;
 import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
 import org.fisco.bcos.sdk.v3.transaction.codec.encode.TransactionEncoderService;
 import org.fisco.bcos.sdk.v3.utils.Hex;
 import org.junit.Before;
@@ -83,6 +101,9 @@ public class BCOSDriverTest {
         BCOS3EcdsaEvmStubFactory bcosSubFactory = new BCOS3EcdsaEvmStubFactory();
         Path path = Path.decode("a.b.c");
         driver = bcosSubFactory.newDriver();
+        // decode and verify on the caller thread, so the callbacks complete before the asserts
+        ((BCOSDriver) driver).setVerifyExecutor(Runnable::run);
+        ((BCOSDriver) driver).setCodecExecutor(Runnable::run);
 
         BCOSStubConfigParser bcosStubConfigParser =
                 new BCOSStubConfigParser("./", "stub-sample-ut.toml");
@@ -320,6 +341,68 @@ public class BCOSDriverTest {
                 });
     }
 
+    @Test
+    public void getBlockOnVerifyExecutorTest() throws InterruptedException {
+        ThreadPoolExecutor verifyExecutor =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(16),
+                        new CustomizableThreadFactory("verifyTest-"));
+        ((BCOSDriver) driver).setVerifyExecutor(verifyExecutor);
+        ThreadPoolExecutor codecExecutor =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(16),
+                        new CustomizableThreadFactory("codecTest-"));
+        ((BCOSDriver) driver).setCodecExecutor(codecExecutor);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        String[] threadNames = new String[1];
+        driver.asyncGetBlock(
+                2222,
+                false,
+                connection,
+                (e, block) -> {
+                    assertTrue(Objects.isNull(e));
+                    threadNames[0] = Thread.currentThread().getName();
+                    latch.countDown();
+                });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        // the signatures are verified and the callback is completed on the verify executor
+        assertTrue(threadNames[0].startsWith("verifyTest-"));
+        verifyExecutor.shutdown();
+        assertTrue(verifyExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(verifyExecutor.getCompletedTaskCount(), 1);
+        // the block is decoded on the codec executor first
+        codecExecutor.shutdown();
+        assertTrue(codecExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(codecExecutor.getCompletedTaskCount(), 1);
+    }
+
+    @Test
+    public void getBlockVerifyRejectedTest() {
+        ((BCOSConnection) connection).setBlockCache(null);
+        ((BCOSDriver) driver)
+                .setVerifyExecutor(
+                        task -> {
+                            throw new RejectedExecutionException("saturated");
+                        });
+
+        // the verification is not run on the thread delivering the response
+        Exception[] exceptions = new Exception[1];
+        driver.asyncGetBlock(1111, false, connection, (e, block) -> exceptions[0] = e);
+        assertTrue(exceptions[0] instanceof BCOSStubException);
+        assertEquals(
+                ((BCOSStubException) exceptions[0]).getErrorCode().intValue(),
+                BCOSStatusCode.VerifyRejected);
+    }
+
     @Test
     public void getBlockTest() throws IOException {
 
@@ -357,6 +440,143 @@ public class BCOSDriverTest {
                 });
     }
 
+    @Test
+    public void getOnlyBlockHeaderTest() {
+        driver.asyncGetBlock(
+                1111,
+                true,
+                connection,
+                (e, block) -> {
+                    assertTrue(Objects.isNull(e));
+                    assertTrue(block.getTransactionsHashes().isEmpty());
+                    assertTrue(block.getTransactionsWithDetail().isEmpty());
+                    assertEquals(
+                            block.getBlockHeader().getHash(),
+                            "0xc403e7f3255c7822e86075c1b97c4de359a511030794af8f8c74692e1b494e03");
+                });
+        assertEquals(
+                ((BCOSConnection) connection).getBlockCache().getHeaderTier().getMissCount(), 1);
+    }
+
+    @Test
+    public void getBlockFromCacheTest() {
+        BlockCache blockCache = ((BCOSConnection) connection).getBlockCache();
+        assertTrue(Objects.nonNull(blockCache));
+
+        List<Block> blocks = new ArrayList<>();
+        driver.asyncGetBlock(1111, false, connection, (e, block) -> blocks.add(block));
+        driver.asyncGetBlock(1111, false, connection, (e, block) -> blocks.add(block));
+        driver.asyncGetBlock(1111, true, connection, (e, block) -> blocks.add(block));
+
+        assertEquals(blocks.size(), 3);
+        assertTrue(blocks.get(0) == blocks.get(1));
+        assertTrue(blocks.get(0) == blocks.get(2));
+        assertEquals(blockCache.getFullTier().getMissCount(), 1);
+        assertEquals(blockCache.getFullTier().getHitCount(), 1);
+        assertEquals(blockCache.getHeaderTier().getHitCount(), 1);
+    }
+
+    @Test
+    public void getBlockVerifiedHeaderTest() {
+        VerifiedHeaderCache verifiedHeaderCache =
+                ((BCOSConnection) connection).getVerifiedHeaderCache();
+        assertTrue(Objects.nonNull(verifiedHeaderCache));
+        ((BCOSConnection) connection).setBlockCache(null);
+
+        List<Block> blocks = new ArrayList<>();
+        driver.asyncGetBlock(1111, false, connection, (e, block) -> blocks.add(block));
+        driver.asyncGetBlock(1111, false, connection, (e, block) -> blocks.add(block));
+        driver.asyncGetBlock(1111, true, connection, (e, block) -> blocks.add(block));
+
+        assertEquals(blocks.size(), 3);
+        assertTrue(blocks.stream().allMatch(Objects::nonNull));
+        assertEquals(verifiedHeaderCache.size(), 1);
+        assertEquals(verifiedHeaderCache.getMissCount(), 1);
+        assertEquals(verifiedHeaderCache.getHitCount(), 2);
+    }
+
+    @Test
+    public void getBlockPrefetchTest() {
+        BlockCache blockCache = ((BCOSConnection) connection).getBlockCache();
+        BlockPrefetcher blockPrefetcher = ((BCOSConnection) connection).getBlockPrefetcher();
+        assertTrue(Objects.nonNull(blockPrefetcher));
+
+        for (long blockNumber = 1; blockNumber <= 3; blockNumber++) {
+            driver.asyncGetBlock(blockNumber, false, connection, (e, block) -> {});
+        }
+        assertTrue(blockPrefetcher.getPrefetchCount() > 0);
+
+        long hitCount = blockCache.getFullTier().getHitCount();
+        driver.asyncGetBlock(
+                4, false, connection, (e, block) -> assertTrue(Objects.nonNull(block)));
+        assertEquals(blockCache.getFullTier().getHitCount(), hitCount + 1);
+    }
+
+    @Test
+    public void getBlocksTest() {
+        List<Long> blockNumbers = new ArrayList<>();
+        List<Exception> exceptions = new ArrayList<>();
+        ((BCOSDriver) driver)
+                .asyncGetBlocks(
+                        1,
+                        20,
+                        false,
+                        connection,
+                        new BlockRangeFetcher.Callback() {
+                            @Override
+                            public void onBlock(long blockNumber, Block block) {
+                                assertFalse(block.getTransactionsHashes().isEmpty());
+                                blockNumbers.add(blockNumber);
+                            }
+
+                            @Override
+                            public void onComplete(Exception e) {
+                                exceptions.add(e);
+                            }
+                        });
+
+        assertEquals(blockNumbers.size(), 20);
+        assertEquals(blockNumbers.get(19).longValue(), 20);
+        assertEquals(exceptions.size(), 1);
+        assertTrue(Objects.isNull(exceptions.get(0)));
+    }
+
+    @Test
+    public void syncBlockHeadersTest() {
+        BlockCache blockCache = ((BCOSConnection) connection).getBlockCache();
+        List<Long> blockNumbers = new ArrayList<>();
+        List<Exception> exceptions = new ArrayList<>();
+        BlockRangeFetcher.Callback callback =
+                new BlockRangeFetcher.Callback() {
+                    @Override
+                    public void onBlock(long blockNumber, Block block) {
+                        blockNumbers.add(blockNumber);
+                    }
+
+                    @Override
+                    public void onComplete(Exception e) {
+                        exceptions.add(e);
+                    }
+                };
+
+        // the mock node returns block 9 for any number, so only 9 is a valid chain
+        ((BCOSDriver) driver).asyncSyncBlockHeaders(9, 9, connection, callback);
+        assertEquals(blockNumbers, Collections.singletonList(9L));
+        assertEquals(exceptions.size(), 1);
+        assertTrue(Objects.isNull(exceptions.get(0)));
+        assertTrue(blockCache.contains(9, true));
+
+        blockNumbers.clear();
+        exceptions.clear();
+        ((BCOSDriver) driver).asyncSyncBlockHeaders(7, 8, connection, callback);
+        assertTrue(blockNumbers.isEmpty());
+        assertEquals(exceptions.size(), 1);
+        assertTrue(Objects.nonNull(exceptions.get(0)));
+        // unverified headers are not cached
+        assertFalse(blockCache.contains(7, true));
+        assertFalse(blockCache.contains(8, true));
+    }
+
     @Test
     public void getBlockHeaderFailedTest() throws IOException {
 
@@ -416,6 +636,82 @@ public class BCOSDriverTest {
                 });
     }
 
+    /** a block manager delivering the blocks of the client */
+    private static BlockManager newBlockManager(ClientWrapper clientWrapper) {
+        return new BlockManagerImplMock(clientWrapper) {
+            @Override
+            public void asyncGetBlock(long blockNumber, GetBlockCallback callback) {
+                try {
+                    callback.onResponse(
+                            null,
+                            BlockUtility.convertToBlock(
+                                    clientWrapper.getBlockByNumber(blockNumber, false), false));
+                } catch (IOException e) {
+                    callback.onResponse(e, null);
+                }
+            }
+        };
+    }
+
+    @Test
+    public void getVerifyTransactionCacheTest() throws Exception {
+        String transactionHash =
+                "0xf3421699230b54b0b1b863b924d8918f033782721269e0f087769e0f4690a3d3";
+        String receiptHash = "0x2937b8ce820e148bf8cc26698b2d38ecabc8fe745d3d0bcd509228143c0365c7";
+        long blockNumber = 9;
+
+        // a single leaf tree of each root, the leaf is the root
+        ClientWrapperTxVerifyMock clientWrapper = new ClientWrapperTxVerifyMock();
+        clientWrapper
+                .getTransactionByHashWithProof(transactionHash)
+                .setTxProof(Collections.singletonList(transactionHash.substring(2)));
+        TransactionReceipt receipt =
+                clientWrapper.getTransactionReceiptByHashWithProof(transactionHash);
+        receipt.setReceiptHash(receiptHash);
+        receipt.setTxReceiptProof(Collections.singletonList(receiptHash.substring(2)));
+        BcosBlock.Block block = clientWrapper.getBlockByNumber(blockNumber, false);
+        block.setTransactionsRoot(transactionHash);
+        block.setReceiptsRoot(receiptHash);
+
+        Connection verifyConnection =
+                BCOSConnectionFactory.build(
+                        new BCOSStubConfigParser("./", "stub-sample-ut.toml").loadConfig(),
+                        clientWrapper);
+        TransactionCache transactionCache =
+                ((BCOSConnection) verifyConnection).getTransactionCache();
+
+        // the proof does not hash up to the roots of another block, nothing is cached
+        CountDownLatch failedLatch = new CountDownLatch(1);
+        driver.asyncGetTransaction(
+                transactionHash,
+                blockNumber,
+                newBlockManager(new ClientWrapperTxVerifyMock()),
+                true,
+                verifyConnection,
+                (e, verifiedTransaction) -> {
+                    assertTrue(Objects.nonNull(e));
+                    failedLatch.countDown();
+                });
+        assertTrue(failedLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(transactionCache.size(), 0);
+
+        // the proof is cached once verified
+        CountDownLatch latch = new CountDownLatch(1);
+        driver.asyncGetTransaction(
+                transactionHash,
+                blockNumber,
+                newBlockManager(clientWrapper),
+                true,
+                verifyConnection,
+                (e, verifiedTransaction) -> {
+                    assertTrue(Objects.isNull(e));
+                    latch.countDown();
+                });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(transactionCache.size(), 1);
+        assertTrue(Objects.nonNull(transactionCache.getTransactionProof(transactionHash)));
+    }
+
     @Test
     public void getVerifyTransactionExceptionTest() throws Exception {
         String transactionHash =
@@ -0,0 +1,103 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.client.exceptions.ClientException;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BlockNumber;
+import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.v3.model.CryptoType;
+import org.fisco.bcos.sdk.v3.model.Response;
+import org.fisco.bcos.sdk.v3.model.callback.RespCallback;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class AsyncClientWrapperTest {
+
+    private static AbstractClientWrapper newClientWrapper(Client client) {
+        when(client.getCryptoSuite()).thenReturn(new CryptoSuite(CryptoType.ECDSA_TYPE));
+        return new ClientWrapperImpl(client);
+    }
+
+    @Test
+    public void getBlockNumberAsyncTest() throws Exception {
+        Client client = Mockito.mock(Client.class);
+        doAnswer(
+                        invocation -> {
+                            BlockNumber blockNumber = new BlockNumber();
+                            blockNumber.setResult("0x64");
+                            RespCallback<BlockNumber> callback = invocation.getArgument(0);
+                            callback.onResponse(blockNumber);
+                            return null;
+                        })
+                .when(client)
+                .getBlockNumberAsync(any());
+
+        CompletableFuture<BigInteger> future = newClientWrapper(client).getBlockNumberAsync();
+        assertEquals(future.get().longValue(), 100);
+    }
+
+    @Test
+    public void getBlockByNumberAsyncTest() throws Exception {
+        Client client = Mockito.mock(Client.class);
+        doAnswer(
+                        invocation -> {
+                            BcosBlock.Block block = new BcosBlock.Block();
+                            block.setNumber(invocation.<BigInteger>getArgument(0).longValue());
+                            BcosBlock bcosBlock = new BcosBlock();
+                            bcosBlock.setResult(block);
+                            RespCallback<BcosBlock> callback = invocation.getArgument(3);
+                            callback.onResponse(bcosBlock);
+                            return null;
+                        })
+                .when(client)
+                .getBlockByNumberAsync(any(BigInteger.class), eq(false), anyBoolean(), any());
+
+        BcosBlock.Block block = newClientWrapper(client).getBlockByNumberAsync(9, false).get();
+        assertEquals(block.getNumber(), 9);
+    }
+
+    @Test
+    public void rpcErrorAsyncTest() throws InterruptedException {
+        Client client = Mockito.mock(Client.class);
+        doAnswer(
+                        invocation -> {
+                            RespCallback<?> callback = invocation.getArgument(2);
+                            callback.onError(new Response(-1, "transaction not found"));
+                            return null;
+                        })
+                .when(client)
+                .getTransactionReceiptAsync(anyString(), anyBoolean(), any());
+
+        CompletableFuture<?> future =
+                newClientWrapper(client).getTransactionReceiptByHashWithProofAsync("0x00");
+        try {
+            future.get();
+            assertTrue(false);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClientException);
+            assertEquals(((ClientException) e.getCause()).getErrorCode(), -1);
+        }
+    }
+
+    @Test
+    public void mockAsyncCounterpartTest() throws Exception {
+        AbstractClientWrapper clientWrapper = new ClientWrapperImplMock();
+        assertEquals(clientWrapper.getBlockNumberAsync().get().longValue(), 11111);
+        assertEquals(clientWrapper.getBlockByNumberAsync(9, false).get().getNumber(), 9);
+
+        AbstractClientWrapper exceptionWrapper = new ClientWrapperWithExceptionMock();
+        assertTrue(exceptionWrapper.getBlockNumberAsync().isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,63 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fisco.bcos.sdk.v3.BcosSDK;
+import org.fisco.bcos.sdk.v3.client.Client;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class BcosSDKRegistryTest {
+
+    @Test
+    public void shareBcosSDKTest() throws Exception {
+        BcosSDKRegistry.stopAll();
+        AtomicInteger createCount = new AtomicInteger(0);
+        BcosSDK bcosSDK0 =
+                BcosSDKRegistry.getBcosSDK(
+                        "peers=[127.0.0.1:20200]",
+                        () -> {
+                            createCount.incrementAndGet();
+                            return Mockito.mock(BcosSDK.class);
+                        });
+        BcosSDK bcosSDK1 =
+                BcosSDKRegistry.getBcosSDK(
+                        "peers=[127.0.0.1:20200]",
+                        () -> {
+                            createCount.incrementAndGet();
+                            return Mockito.mock(BcosSDK.class);
+                        });
+        BcosSDK bcosSDK2 =
+                BcosSDKRegistry.getBcosSDK(
+                        "peers=[127.0.0.1:20201]", () -> Mockito.mock(BcosSDK.class));
+
+        assertSame(bcosSDK0, bcosSDK1);
+        assertNotSame(bcosSDK0, bcosSDK2);
+        assertEquals(createCount.get(), 1);
+        assertEquals(BcosSDKRegistry.size(), 2);
+
+        BcosSDKRegistry.stopAll();
+        verify(bcosSDK0, times(1)).stopAll();
+        verify(bcosSDK2, times(1)).stopAll();
+        assertEquals(BcosSDKRegistry.size(), 0);
+    }
+
+    @Test
+    public void shareClientTest() {
+        BcosSDK bcosSDK = Mockito.mock(BcosSDK.class);
+        when(bcosSDK.getClient(anyString())).thenAnswer(invocation -> Mockito.mock(Client.class));
+
+        Client group0 = BcosSDKRegistry.getClient(bcosSDK, "group0");
+        Client group1 = BcosSDKRegistry.getClient(bcosSDK, "group1");
+        assertSame(BcosSDKRegistry.getClient(bcosSDK, "group0"), group0);
+        assertNotSame(group0, group1);
+        verify(bcosSDK, times(2)).getClient(anyString());
+    }
+}
@@ -0,0 +1,75 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.math.BigInteger;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import org.fisco.bcos.sdk.jni.BlockNotifier;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+public class ChainHeadTrackerTest {
+
+    @Test
+    public void onBlockNumberTest() {
+        ChainHeadTracker chainHeadTracker =
+                new ChainHeadTracker(new ClientWrapperImplMock(), 10000);
+        assertEquals(chainHeadTracker.getBlockNumber(), -1);
+
+        chainHeadTracker.onBlockNumber(100);
+        assertEquals(chainHeadTracker.getBlockNumber(), 100);
+
+        // block number never goes backwards
+        chainHeadTracker.onBlockNumber(99);
+        assertEquals(chainHeadTracker.getBlockNumber(), 100);
+
+        chainHeadTracker.onBlockNumber(101);
+        assertEquals(chainHeadTracker.getBlockNumber(), 101);
+    }
+
+    @Test
+    public void staleBlockNumberTest() throws InterruptedException {
+        ChainHeadTracker disabledTracker = new ChainHeadTracker(new ClientWrapperImplMock(), 0);
+        disabledTracker.onBlockNumber(100);
+        assertEquals(disabledTracker.getBlockNumber(), -1);
+
+        ChainHeadTracker chainHeadTracker = new ChainHeadTracker(new ClientWrapperImplMock(), 50);
+        chainHeadTracker.onBlockNumber(100);
+        assertEquals(chainHeadTracker.getBlockNumber(), 100);
+        Thread.sleep(100);
+        assertEquals(chainHeadTracker.getBlockNumber(), -1);
+    }
+
+    @Test
+    public void pollAndNotifyTest() throws InterruptedException {
+        BlockNotifier[] notifiers = new BlockNotifier[1];
+        AbstractClientWrapper clientWrapper =
+                new ClientWrapperImplMock() {
+                    @Override
+                    public boolean registerBlockNotifier(BlockNotifier notifier) {
+                        notifiers[0] = notifier;
+                        return true;
+                    }
+                };
+        ScheduledExecutorService scheduledExecutorService =
+                new ScheduledThreadPoolExecutor(
+                        1, new CustomizableThreadFactory(this.getClass().getName()));
+        ChainHeadTracker chainHeadTracker = new ChainHeadTracker(clientWrapper, 10000);
+        chainHeadTracker.start(scheduledExecutorService, 60000);
+
+        // the first poll runs immediately
+        for (int i = 0; i < 100 && chainHeadTracker.getBlockNumber() < 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(chainHeadTracker.getBlockNumber(), 11111);
+
+        assertTrue(notifiers[0] != null);
+        notifiers[0].onResponse("group0", BigInteger.valueOf(22222));
+        assertEquals(chainHeadTracker.getBlockNumber(), 22222);
+
+        chainHeadTracker.stop();
+        scheduledExecutorService.shutdown();
+    }
+}
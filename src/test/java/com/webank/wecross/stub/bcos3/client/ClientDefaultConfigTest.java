@@ -13,5 +13,20 @@ public class ClientDefaultConfigTest {
         assertEquals(ClientDefaultConfig.DEFAULT_SERVICE_TIMEOUT, 60000);
         assertEquals(ClientDefaultConfig.DEFAULT_SERVICE_THREAD_NUMBER, 16);
         assertFalse(ClientDefaultConfig.DEFAULT_SERVICE_DISABLE_SSL);
+        assertEquals(ClientDefaultConfig.DEFAULT_DISPATCH_THREAD_NUMBER, 0);
+        assertEquals(ClientDefaultConfig.DEFAULT_IO_THREAD_NUMBER, 0);
+        assertEquals(ClientDefaultConfig.DEFAULT_QUEUE_CAPACITY, 10000);
+        assertEquals(ClientDefaultConfig.DEFAULT_BLOCK_NUMBER_POLL_INTERVAL, 5000);
+        assertEquals(ClientDefaultConfig.DEFAULT_BLOCK_NUMBER_MAX_STALENESS, 10000);
+        assertEquals(ClientDefaultConfig.DEFAULT_RESOURCES_POLL_INTERVAL, 30000);
+        assertEquals(ClientDefaultConfig.DEFAULT_PEER_ROUTING, false);
+        assertEquals(ClientDefaultConfig.DEFAULT_HEDGED_READ, false);
+        assertEquals(ClientDefaultConfig.DEFAULT_CRYPTO_THREAD_NUMBER, 0);
+        assertEquals(ClientDefaultConfig.DEFAULT_CODEC_THREAD_NUMBER, 0);
+        assertEquals(ClientDefaultConfig.DEFAULT_SCHEDULER_THREAD_NUMBER, 4);
+        assertEquals(ClientDefaultConfig.DEFAULT_BLOCK_CACHE_MAX_BYTES, 33554432);
+        assertEquals(ClientDefaultConfig.DEFAULT_BLOCK_HEADER_CACHE_MAX_BYTES, 8388608);
+        assertEquals(ClientDefaultConfig.DEFAULT_BLOCK_PREFETCH_WINDOW, 16);
+        assertEquals(ClientDefaultConfig.DEFAULT_TRANSACTION_CACHE_MAX_BYTES, 16777216);
     }
 }
@@ -8,6 +8,8 @@ import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import org.fisco.bcos.sdk.v3.client.Client;
 import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
 import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
@@ -126,4 +128,61 @@ public class ClientWrapperImplMock extends AbstractClientWrapper {
         callOutput.setOutput(Hex.toHexString(data).substring(8));
         return callOutput;
     }
+
+    @Override
+    public CompletableFuture<BcosBlock.Block> getBlockByNumberAsync(
+            long blockNumber, boolean onlyTxHash) {
+        return toFuture(() -> getBlockByNumber(blockNumber, onlyTxHash));
+    }
+
+    @Override
+    public CompletableFuture<BcosBlockHeader.BlockHeader> getBlockHeaderByNumberAsync(
+            long blockNumber) {
+        return toFuture(() -> getBlockHeaderByNumber(blockNumber));
+    }
+
+    @Override
+    public CompletableFuture<BigInteger> getBlockNumberAsync() {
+        return toFuture(this::getBlockNumber);
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptByHashWithProofAsync(
+            String transactionHash) {
+        return toFuture(() -> getTransactionReceiptByHashWithProof(transactionHash));
+    }
+
+    @Override
+    public CompletableFuture<JsonTransactionResponse> getTransactionByHashWithProofAsync(
+            String transactionHash) {
+        return toFuture(() -> getTransactionByHashWithProof(transactionHash));
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptAsync(
+            String transactionHash) {
+        return toFuture(() -> getTransactionReceipt(transactionHash));
+    }
+
+    @Override
+    public CompletableFuture<JsonTransactionResponse> getTransactionAsync(String transactionHash) {
+        return toFuture(() -> getTransaction(transactionHash));
+    }
+
+    @Override
+    public CompletableFuture<Call.CallOutput> callAsync(
+            String accountAddress, String contractAddress, byte[] data) {
+        return toFuture(() -> call(accountAddress, contractAddress, data));
+    }
+
+    /** async counterpart of the sync mock, so subclasses only override the sync methods */
+    protected static <T> CompletableFuture<T> toFuture(Callable<T> callable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(callable.call());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
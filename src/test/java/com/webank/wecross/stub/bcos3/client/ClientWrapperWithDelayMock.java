@@ -0,0 +1,113 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
+import org.fisco.bcos.sdk.v3.client.protocol.response.Call;
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/** Completes every async rpc after a fixed delay, like a remote node would */
+public class ClientWrapperWithDelayMock extends ClientWrapperImplMock {
+
+    private static final ScheduledExecutorService scheduledExecutorService =
+            new ScheduledThreadPoolExecutor(
+                    4, new CustomizableThreadFactory("ClientWrapperWithDelayMock-"));
+
+    private final long delayMs;
+    private final int inFlightNum;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final CompletableFuture<Void> allInFlight = new CompletableFuture<>();
+
+    public ClientWrapperWithDelayMock(long delayMs) {
+        this(delayMs, 1);
+    }
+
+    /**
+     * @param delayMs
+     * @param inFlightNum no rpc completes before this many rpcs are issued
+     */
+    public ClientWrapperWithDelayMock(long delayMs, int inFlightNum) {
+        this.delayMs = delayMs;
+        this.inFlightNum = inFlightNum;
+    }
+
+    public long getDelayMs() {
+        return delayMs;
+    }
+
+    private <T> CompletableFuture<T> delay(CompletableFuture<T> source) {
+        if (inFlight.incrementAndGet() >= inFlightNum) {
+            allInFlight.complete(null);
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        allInFlight.thenRun(
+                () ->
+                        scheduledExecutorService.schedule(
+                                () ->
+                                        source.whenComplete(
+                                                (value, throwable) -> {
+                                                    if (throwable != null) {
+                                                        future.completeExceptionally(throwable);
+                                                    } else {
+                                                        future.complete(value);
+                                                    }
+                                                }),
+                                delayMs,
+                                TimeUnit.MILLISECONDS));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<BcosBlock.Block> getBlockByNumberAsync(
+            long blockNumber, boolean onlyTxHash) {
+        return delay(super.getBlockByNumberAsync(blockNumber, onlyTxHash));
+    }
+
+    @Override
+    public CompletableFuture<BcosBlockHeader.BlockHeader> getBlockHeaderByNumberAsync(
+            long blockNumber) {
+        return delay(super.getBlockHeaderByNumberAsync(blockNumber));
+    }
+
+    @Override
+    public CompletableFuture<BigInteger> getBlockNumberAsync() {
+        return delay(super.getBlockNumberAsync());
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptByHashWithProofAsync(
+            String transactionHash) {
+        return delay(super.getTransactionReceiptByHashWithProofAsync(transactionHash));
+    }
+
+    @Override
+    public CompletableFuture<JsonTransactionResponse> getTransactionByHashWithProofAsync(
+            String transactionHash) {
+        return delay(super.getTransactionByHashWithProofAsync(transactionHash));
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptAsync(
+            String transactionHash) {
+        return delay(super.getTransactionReceiptAsync(transactionHash));
+    }
+
+    @Override
+    public CompletableFuture<JsonTransactionResponse> getTransactionAsync(String transactionHash) {
+        return delay(super.getTransactionAsync(transactionHash));
+    }
+
+    @Override
+    public CompletableFuture<Call.CallOutput> callAsync(
+            String accountAddress, String contractAddress, byte[] data) {
+        return delay(super.callAsync(accountAddress, contractAddress, data));
+    }
+}
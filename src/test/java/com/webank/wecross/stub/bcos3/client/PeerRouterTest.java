@@ -0,0 +1,136 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fisco.bcos.sdk.v3.client.exceptions.ClientException;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+public class PeerRouterTest {
+    private static final ScheduledExecutorService scheduledExecutorService =
+            new ScheduledThreadPoolExecutor(
+                    4, new CustomizableThreadFactory(PeerRouterTest.class.getName()));
+
+    /** the node answers the request with an rpc error */
+    private static final long RPC_ERROR = -2L;
+
+    /** the node never answers the request */
+    private static final long NO_RESPONSE = Long.MAX_VALUE;
+
+    /** delay ms of each node, -1 means the request fails in transport */
+    private static CompletableFuture<String> request(Map<String, Long> delays, String node) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        long delay = delays.get(node);
+        if (delay == RPC_ERROR) {
+            future.completeExceptionally(new ClientException(-32602, "rpc error", "rpc error"));
+            return future;
+        }
+        if (delay < 0) {
+            future.completeExceptionally(new RuntimeException("node failed: " + node));
+            return future;
+        }
+        if (delay == NO_RESPONSE) {
+            return future;
+        }
+        scheduledExecutorService.schedule(
+                () -> future.complete(node), delay, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    @Test
+    public void routeToFastestNodeTest() throws Exception {
+        Map<String, Long> delays = new HashMap<>();
+        delays.put("node0", 40L);
+        delays.put("node1", 2L);
+        PeerRouter peerRouter = new PeerRouter(Arrays.asList("node0", "node1"), false, null);
+
+        int fastCount = 0;
+        for (int i = 0; i < 40; i++) {
+            String node = peerRouter.read(n -> request(delays, n)).get();
+            if (node.equals("node1")) {
+                fastCount++;
+            }
+        }
+        // only the first read and probe reads go to the slow node
+        assertTrue(fastCount >= 38);
+        assertTrue(
+                peerRouter.getPeers().get(0).getLatency()
+                        > peerRouter.getPeers().get(1).getLatency());
+    }
+
+    @Test
+    public void failoverTest() throws Exception {
+        Map<String, Long> delays = new HashMap<>();
+        delays.put("node0", -1L);
+        delays.put("node1", 1L);
+        PeerRouter peerRouter = new PeerRouter(Arrays.asList("node0", "node1"), false, null);
+
+        assertEquals(peerRouter.read(n -> request(delays, n)).get(), "node1");
+        assertTrue(peerRouter.getPeers().get(0).getErrorRate() > 0);
+
+        // all nodes failed
+        delays.put("node1", -1L);
+        try {
+            peerRouter.read(n -> request(delays, n)).get();
+            assertTrue(false);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getMessage().startsWith("node failed"));
+        }
+    }
+
+    @Test
+    public void hedgedReadTest() throws Exception {
+        Map<String, Long> delays = new HashMap<>();
+        delays.put("node0", 5L);
+        delays.put("node1", 50L);
+        PeerRouter peerRouter =
+                new PeerRouter(Arrays.asList("node0", "node1"), true, scheduledExecutorService);
+        for (int i = 0; i < 20; i++) {
+            peerRouter.read(n -> request(delays, n)).get();
+        }
+        assertTrue(
+                peerRouter.getPeers().get(0).getScore() < peerRouter.getPeers().get(1).getScore());
+
+        // node0 stops answering, only the hedged read to node1 completes
+        delays.put("node0", NO_RESPONSE);
+        long hedgeCount = peerRouter.getHedgeCount();
+        assertEquals(peerRouter.read(n -> request(delays, n)).get(10, TimeUnit.SECONDS), "node1");
+        assertEquals(peerRouter.getHedgeCount(), hedgeCount + 1);
+    }
+
+    @Test
+    public void rpcErrorTest() throws Exception {
+        Map<String, Long> delays = new HashMap<>();
+        delays.put("node0", RPC_ERROR);
+        delays.put("node1", 1L);
+        PeerRouter peerRouter = new PeerRouter(Arrays.asList("node0", "node1"), false, null);
+
+        // the rpc error is returned without a retry and not counted against node0
+        AtomicInteger requestCount = new AtomicInteger(0);
+        try {
+            peerRouter
+                    .read(
+                            n -> {
+                                requestCount.incrementAndGet();
+                                return request(delays, n);
+                            })
+                    .get();
+            assertTrue(false);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClientException);
+        }
+        assertEquals(requestCount.get(), 1);
+        assertEquals(peerRouter.getPeers().get(0).getErrorRate(), 0.0);
+        assertEquals(peerRouter.getPeers().get(0).getRequestCount(), 1);
+    }
+}
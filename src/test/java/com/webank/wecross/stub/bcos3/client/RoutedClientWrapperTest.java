@@ -0,0 +1,91 @@
+package com.webank.wecross.stub.bcos3.client;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.fail;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.fisco.bcos.sdk.v3.client.Client;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BlockNumber;
+import org.fisco.bcos.sdk.v3.model.Response;
+import org.fisco.bcos.sdk.v3.model.callback.RespCallback;
+import org.junit.Test;
+
+public class RoutedClientWrapperTest {
+
+    /** a client answering only the rpc overloads targeting a node, node1 fails in transport */
+    private static Client newClient(List<String> nodes) {
+        return (Client)
+                Proxy.newProxyInstance(
+                        Client.class.getClassLoader(),
+                        new Class<?>[] {Client.class},
+                        (proxy, method, args) -> {
+                            if (method.getName().equals("getCryptoSuite")) {
+                                return null;
+                            }
+                            if (!method.getName().endsWith("Async")
+                                    || !(args[0] instanceof String)) {
+                                throw new AssertionError("not routed: " + method.getName());
+                            }
+
+                            String node = (String) args[0];
+                            nodes.add(node);
+                            RespCallback callback = (RespCallback) args[args.length - 1];
+                            if (node.equals("node1")) {
+                                callback.onError(new Response(-1, "timeout"));
+                                return null;
+                            }
+                            if (method.getName().equals("getBlockNumberAsync")) {
+                                BlockNumber blockNumber = new BlockNumber();
+                                blockNumber.setResult("0x10");
+                                callback.onResponse(blockNumber);
+                            } else if (method.getName().equals("getBlockByNumberAsync")) {
+                                BcosBlock.Block block = new BcosBlock.Block();
+                                block.setNumber(((BigInteger) args[1]).longValue());
+                                BcosBlock bcosBlock = new BcosBlock();
+                                bcosBlock.setResult(block);
+                                callback.onResponse(bcosBlock);
+                            } else {
+                                throw new AssertionError("unexpected: " + method.getName());
+                            }
+                            return null;
+                        });
+    }
+
+    @Test
+    public void blockingReadTest() throws Exception {
+        List<String> nodes = new ArrayList<>();
+        RoutedClientWrapper clientWrapper =
+                new RoutedClientWrapper(
+                        null,
+                        newClient(nodes),
+                        new PeerRouter(Arrays.asList("node0"), false, null));
+
+        ClientBlockManager clientBlockManager = new ClientBlockManager(clientWrapper, null);
+        assertEquals(clientBlockManager.getBlockNumber(), 16);
+        assertEquals(clientWrapper.getBlockByNumber(5, true).getNumber(), 5);
+        assertEquals(clientWrapper.getBlockHeaderByNumber(6).getNumber(), 6);
+        assertEquals(nodes, Arrays.asList("node0", "node0", "node0"));
+    }
+
+    @Test
+    public void transportFailureTest() throws Exception {
+        List<String> nodes = new ArrayList<>();
+        RoutedClientWrapper clientWrapper =
+                new RoutedClientWrapper(
+                        null,
+                        newClient(nodes),
+                        new PeerRouter(Arrays.asList("node1"), false, null));
+        try {
+            clientWrapper.getBlockNumber();
+            fail();
+        } catch (IOException e) {
+            assertEquals(nodes.get(0), "node1");
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
+import com.webank.wecross.stub.bcos3.config.BCOSStubConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+public class BCOSStubRuntimeTest {
+
+    @Test
+    public void rejectedMetricsTest() throws Exception {
+        BCOSStubConfig.Runtime runtimeConfig = new BCOSStubConfig.Runtime();
+        runtimeConfig.setIoThreadNum(1);
+        runtimeConfig.setQueueCapacity(1);
+
+        BCOSStubRuntime runtime = new BCOSStubRuntime();
+        runtime.configure(runtimeConfig);
+        ExecutorService ioExecutor = runtime.getIoExecutor();
+        assertSame(ioExecutor, runtime.getIoExecutor());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ioExecutor.execute(
+                () -> {
+                    started.countDown();
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        started.await();
+        ioExecutor.execute(() -> {});
+
+        int rejected = 0;
+        try {
+            ioExecutor.execute(() -> {});
+        } catch (RejectedExecutionException e) {
+            rejected++;
+        }
+        assertEquals(rejected, 1);
+
+        List<BCOSStubRuntime.PoolMetrics> metrics = runtime.getMetrics();
+        assertEquals(metrics.size(), 1);
+        BCOSStubRuntime.PoolMetrics ioMetrics = metrics.get(0);
+        assertEquals(ioMetrics.getName(), BCOSStubRuntime.IO_POOL);
+        assertEquals(ioMetrics.getMaxPoolSize(), 1);
+        assertEquals(ioMetrics.getActiveCount(), 1);
+        assertEquals(ioMetrics.getQueueSize(), 1);
+        assertEquals(ioMetrics.getQueueRemainingCapacity(), 0);
+        assertEquals(ioMetrics.getRejectedCount(), 1);
+        assertTrue(ioMetrics.getSaturation() == 1.0);
+
+        latch.countDown();
+        ioExecutor.shutdown();
+    }
+
+    @Test
+    public void executeTest() throws Exception {
+        BCOSStubConfig.Runtime runtimeConfig = new BCOSStubConfig.Runtime();
+        runtimeConfig.setCryptoThreadNum(1);
+        runtimeConfig.setQueueCapacity(1);
+
+        BCOSStubRuntime runtime = new BCOSStubRuntime();
+        runtime.configure(runtimeConfig);
+        ExecutorService cryptoExecutor = runtime.getCryptoExecutor();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Thread[] threads = new Thread[2];
+        BCOSStubRuntime.execute(
+                cryptoExecutor,
+                () -> {
+                    threads[0] = Thread.currentThread();
+                    started.countDown();
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        started.await();
+        BCOSStubRuntime.execute(cryptoExecutor, () -> {});
+        assertEquals(runtime.getMetrics().get(0).getQueueSize(), 1);
+
+        // the saturated executor runs the task on the caller thread
+        BCOSStubRuntime.execute(cryptoExecutor, () -> threads[1] = Thread.currentThread());
+        assertNotSame(threads[0], Thread.currentThread());
+        assertSame(threads[1], Thread.currentThread());
+        assertEquals(runtime.getMetrics().get(0).getName(), BCOSStubRuntime.CRYPTO_POOL);
+        assertEquals(runtime.getMetrics().get(0).getRejectedCount(), 1);
+
+        // tryExecute leaves the rejected task to the caller to fail
+        assertFalse(BCOSStubRuntime.tryExecute(cryptoExecutor, () -> fail()));
+        assertEquals(runtime.getMetrics().get(0).getRejectedCount(), 2);
+
+        latch.countDown();
+        cryptoExecutor.shutdown();
+    }
+
+    @Test
+    public void configureTest() throws Exception {
+        BCOSStubRuntime runtime = new BCOSStubRuntime();
+        // a driver creates the scheduler before any connection configures the runtime
+        ScheduledThreadPoolExecutor scheduler =
+                (ScheduledThreadPoolExecutor) runtime.getScheduledExecutorService();
+        assertEquals(
+                scheduler.getCorePoolSize(), ClientDefaultConfig.DEFAULT_SCHEDULER_THREAD_NUMBER);
+
+        BCOSStubConfig.Runtime runtimeConfig = new BCOSStubConfig.Runtime();
+        runtimeConfig.setIoThreadNum(3);
+        runtimeConfig.setSchedulerThreadNum(2);
+        runtimeConfig.setAbiQueryParallelism(5);
+        runtime.configure(runtimeConfig);
+        assertEquals(scheduler.getCorePoolSize(), 2);
+        assertEquals(runtime.getIoThreadNum(), 3);
+        assertEquals(runtime.getAbiQueryParallelism(), 5);
+
+        // the config of a later connection is ignored
+        BCOSStubConfig.Runtime laterConfig = new BCOSStubConfig.Runtime();
+        laterConfig.setIoThreadNum(6);
+        runtime.configure(laterConfig);
+        assertEquals(runtime.getIoThreadNum(), 3);
+        assertEquals(runtime.getAbiQueryParallelism(), 5);
+        ThreadPoolExecutor ioExecutor = (ThreadPoolExecutor) runtime.getIoExecutor();
+        assertEquals(ioExecutor.getMaximumPoolSize(), 3);
+
+        ioExecutor.shutdown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void forEachTest() throws Exception {
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(16),
+                        new CustomizableThreadFactory("forEachTest-"));
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            items.add(i);
+        }
+
+        // called from the only thread of the executor, the caller handles the items itself
+        Set<Integer> handled = ConcurrentHashMap.newKeySet();
+        Future<?> future =
+                executor.submit(() -> BCOSStubRuntime.forEach(executor, 4, items, handled::add));
+        future.get(5, TimeUnit.SECONDS);
+        assertEquals(handled.size(), items.size());
+
+        // the first exception is thrown to the caller once every item is handled
+        AtomicInteger count = new AtomicInteger(0);
+        try {
+            BCOSStubRuntime.forEach(
+                    executor,
+                    4,
+                    items,
+                    item -> {
+                        count.incrementAndGet();
+                        if (item == 3) {
+                            throw new IllegalStateException("item " + item);
+                        }
+                    });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(e.getMessage(), "item 3");
+        }
+        assertEquals(count.get(), items.size());
+        executor.shutdown();
+    }
+
+    @Test
+    public void shutdownTest() throws Exception {
+        BCOSStubRuntime runtime = BCOSStubRuntime.getInstance();
+        assertSame(runtime, BCOSStubRuntime.getInstance());
+        ScheduledExecutorService scheduledExecutorService = runtime.getScheduledExecutorService();
+        ExecutorService cryptoExecutor = runtime.getCryptoExecutor();
+
+        BCOSStubRuntime.shutdown();
+        assertTrue(scheduledExecutorService.isShutdown());
+        assertTrue(cryptoExecutor.isShutdown());
+        assertNotSame(runtime, BCOSStubRuntime.getInstance());
+        assertTrue(!BCOSStubRuntime.getInstance().getScheduledExecutorService().isShutdown());
+
+        // the hook of the runtime shut down is removed, the new runtime registers its own
+        assertFalse(Runtime.getRuntime().removeShutdownHook(runtime.getShutdownHook()));
+        Thread shutdownHook = BCOSStubRuntime.getInstance().getShutdownHook();
+        assertTrue(Runtime.getRuntime().removeShutdownHook(shutdownHook));
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+}
@@ -0,0 +1,86 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+
+import com.webank.wecross.stub.Block;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class BlockCacheTest {
+
+    private Block newBlock(int rawBytesSize) {
+        Block block = new Block();
+        block.setRawBytes(new byte[rawBytesSize]);
+        block.setTransactionsHashes(Arrays.asList("0x01", "0x02"));
+        return block;
+    }
+
+    @Test
+    public void tierTest() {
+        BlockCache blockCache = new BlockCache(1024 * 1024, 1024 * 1024);
+        Block fullBlock = newBlock(100);
+        Block headerBlock = newBlock(100);
+
+        assertNull(blockCache.get(1, false));
+        assertNull(blockCache.get(2, true));
+        blockCache.put(1, false, fullBlock);
+        blockCache.put(2, true, headerBlock);
+
+        assertSame(blockCache.get(1, false), fullBlock);
+        // the full block also serves the header
+        assertSame(blockCache.get(1, true), fullBlock);
+        assertSame(blockCache.get(2, true), headerBlock);
+        // the header block never serves the full block
+        assertNull(blockCache.get(2, false));
+
+        assertEquals(blockCache.getFullTier().getHitCount(), 1);
+        assertEquals(blockCache.getFullTier().getMissCount(), 2);
+        assertEquals(blockCache.getHeaderTier().getHitCount(), 2);
+        assertEquals(blockCache.getHeaderTier().getMissCount(), 1);
+    }
+
+    @Test
+    public void evictionTest() {
+        long blockBytes = BlockCache.estimateBytes(newBlock(1000));
+        BlockCache blockCache = new BlockCache(blockBytes * 3, 0);
+
+        blockCache.put(1, false, newBlock(1000));
+        blockCache.put(2, false, newBlock(1000));
+        blockCache.put(3, false, newBlock(1000));
+        // block 1 is recently used, block 2 is evicted
+        blockCache.get(1, false);
+        blockCache.put(4, false, newBlock(1000));
+
+        assertEquals(blockCache.getFullTier().size(), 3);
+        assertEquals(blockCache.getFullTier().getBytes(), blockBytes * 3);
+        assertEquals(blockCache.getFullTier().getEvictionCount(), 1);
+        assertNull(blockCache.get(2, false));
+
+        // the header tier is disabled
+        blockCache.put(5, true, newBlock(1000));
+        assertEquals(blockCache.getHeaderTier().size(), 0);
+    }
+
+    @Test
+    public void evictionListenerTest() {
+        long blockBytes = BlockCache.estimateBytes(newBlock(1000));
+        BlockCache blockCache = new BlockCache(blockBytes, blockBytes);
+        List<Block> evicted = new ArrayList<>();
+        blockCache.setEvictionListener(evicted::add);
+
+        Block block1 = newBlock(1000);
+        blockCache.put(1, false, block1);
+        blockCache.put(1, true, block1);
+        // block 1 is still cached by the header tier
+        blockCache.put(2, false, newBlock(1000));
+        assertEquals(evicted.size(), 0);
+
+        blockCache.put(3, true, newBlock(1000));
+        assertEquals(evicted.size(), 1);
+        assertSame(evicted.get(0), block1);
+    }
+}
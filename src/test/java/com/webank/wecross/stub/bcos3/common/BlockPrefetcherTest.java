@@ -0,0 +1,89 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import com.webank.wecross.stub.Block;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class BlockPrefetcherTest {
+
+    private final BlockCache blockCache = new BlockCache(1024 * 1024, 1024 * 1024);
+
+    private final List<Long> fetched = new ArrayList<>();
+
+    private final BlockPrefetcher.BlockFetcher fetcher =
+            (blockNumber, onlyHeader, callback) -> {
+                fetched.add(blockNumber);
+                if (blockNumber > 100) {
+                    callback.onResponse(new Exception("block not exist"), null);
+                    return;
+                }
+                Block block = new Block();
+                blockCache.put(blockNumber, onlyHeader, block);
+                callback.onResponse(null, block);
+            };
+
+    @Test
+    public void sequentialTest() {
+        BlockPrefetcher blockPrefetcher = new BlockPrefetcher(blockCache, 8);
+
+        blockPrefetcher.onRequest(1, false, -1, fetcher);
+        blockPrefetcher.onRequest(2, false, -1, fetcher);
+        assertTrue(fetched.isEmpty());
+
+        // sequential requests start the prefetch
+        blockPrefetcher.onRequest(3, false, -1, fetcher);
+        assertEquals(fetched.size(), 2);
+        assertTrue(blockCache.contains(4, false));
+        assertTrue(blockCache.contains(5, false));
+
+        // prefetched blocks are not fetched again, the fetches are completed after the window is
+        // read, the latency they sample would change it
+        List<Runnable> pending = new ArrayList<>();
+        blockPrefetcher.onRequest(
+                4,
+                false,
+                -1,
+                (blockNumber, onlyHeader, callback) ->
+                        pending.add(() -> fetcher.fetch(blockNumber, onlyHeader, callback)));
+        int window = blockPrefetcher.getWindow();
+        pending.forEach(Runnable::run);
+        assertEquals(fetched.get(fetched.size() - 1).longValue(), 4 + window);
+        assertEquals(fetched.size(), fetched.stream().distinct().count());
+
+        // a random request stops the prefetch
+        int size = fetched.size();
+        blockPrefetcher.onRequest(50, false, -1, fetcher);
+        assertEquals(fetched.size(), size);
+    }
+
+    @Test
+    public void chainHeadTest() {
+        BlockPrefetcher blockPrefetcher = new BlockPrefetcher(blockCache, 8);
+        for (long blockNumber = 1; blockNumber <= 10; blockNumber++) {
+            blockPrefetcher.onRequest(blockNumber, true, 5, fetcher);
+        }
+        assertTrue(blockCache.contains(5, true));
+        assertFalse(blockCache.contains(6, true));
+        assertEquals(blockPrefetcher.getFailureCount(), 0);
+    }
+
+    @Test
+    public void failureTest() {
+        BlockPrefetcher blockPrefetcher = new BlockPrefetcher(blockCache, 8);
+        blockPrefetcher.onRequest(98, false, -1, fetcher);
+        blockPrefetcher.onRequest(99, false, -1, fetcher);
+        blockPrefetcher.onRequest(100, false, -1, fetcher);
+        // both blocks of the initial window are beyond the chain head
+        assertEquals(blockPrefetcher.getFailureCount(), 2);
+
+        // the failure stops the prefetch until the requests are sequential again
+        int size = fetched.size();
+        blockPrefetcher.onRequest(101, false, -1, fetcher);
+        assertEquals(fetched.size(), size);
+    }
+}
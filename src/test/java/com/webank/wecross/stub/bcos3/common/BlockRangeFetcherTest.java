@@ -0,0 +1,162 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+import com.webank.wecross.stub.Block;
+import com.webank.wecross.stub.Driver;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class BlockRangeFetcherTest {
+
+    private static class RecordCallback implements BlockRangeFetcher.Callback {
+        private final List<Long> blockNumbers = new ArrayList<>();
+        private final CompletableFuture<Exception> complete = new CompletableFuture<>();
+
+        @Override
+        public void onBlock(long blockNumber, Block block) {
+            blockNumbers.add(blockNumber);
+        }
+
+        @Override
+        public void onComplete(Exception e) {
+            complete.complete(e);
+        }
+    }
+
+    private Block newBlock() {
+        Block block = new Block();
+        block.setRawBytes(new byte[1000]);
+        return block;
+    }
+
+    @Test
+    public void orderedDeliveryTest() throws Exception {
+        ScheduledExecutorService scheduledExecutorService = new ScheduledThreadPoolExecutor(4);
+        AtomicInteger inflight = new AtomicInteger(0);
+        AtomicInteger maxInflight = new AtomicInteger(0);
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        1,
+                        200,
+                        false,
+                        4,
+                        1024 * 1024,
+                        (blockNumber, onlyHeader, callback) -> {
+                            maxInflight.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+                            scheduledExecutorService.schedule(
+                                    () -> {
+                                        inflight.decrementAndGet();
+                                        callback.onResponse(null, newBlock());
+                                    },
+                                    ThreadLocalRandom.current().nextInt(3),
+                                    TimeUnit.MILLISECONDS);
+                        });
+        RecordCallback callback = new RecordCallback();
+        blockRangeFetcher.start(callback);
+
+        assertNull(callback.complete.get(10, TimeUnit.SECONDS));
+        assertEquals(callback.blockNumbers.size(), 200);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(callback.blockNumbers.get(i).longValue(), i + 1);
+        }
+        assertTrue(maxInflight.get() <= 4);
+        assertEquals(blockRangeFetcher.getBufferedBytes(), 0);
+        scheduledExecutorService.shutdown();
+    }
+
+    @Test
+    public void bufferCeilingTest() throws Exception {
+        Map<Long, Driver.GetBlockCallback> pending = new HashMap<>();
+        long blockBytes = BlockCache.estimateBytes(newBlock());
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        0,
+                        10000,
+                        false,
+                        8,
+                        blockBytes * 10,
+                        (blockNumber, onlyHeader, callback) -> {
+                            if (blockNumber == 0) {
+                                // the first block is slow
+                                pending.put(blockNumber, callback);
+                            } else {
+                                callback.onResponse(null, newBlock());
+                            }
+                        });
+        RecordCallback callback = new RecordCallback();
+        blockRangeFetcher.start(callback);
+
+        // requests stop once the out-of-order blocks reach the ceiling
+        assertEquals(blockRangeFetcher.getBufferedBytes(), blockBytes * 10);
+        assertTrue(callback.blockNumbers.isEmpty());
+
+        pending.get(0L).onResponse(null, newBlock());
+        assertNull(callback.complete.get(10, TimeUnit.SECONDS));
+        assertEquals(callback.blockNumbers.size(), 10001);
+    }
+
+    @Test
+    public void cancelTest() throws Exception {
+        List<Driver.GetBlockCallback> pending = new ArrayList<>();
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        0,
+                        100,
+                        true,
+                        2,
+                        1024 * 1024,
+                        (blockNumber, onlyHeader, callback) -> pending.add(callback));
+        RecordCallback callback = new RecordCallback();
+        blockRangeFetcher.start(callback);
+        assertEquals(pending.size(), 2);
+        pending.get(0).onResponse(null, newBlock());
+        assertEquals(callback.blockNumbers.size(), 1);
+
+        blockRangeFetcher.cancel();
+        assertTrue(callback.complete.get() instanceof CancellationException);
+        for (Driver.GetBlockCallback cb : new ArrayList<>(pending)) {
+            cb.onResponse(null, newBlock());
+        }
+        assertEquals(callback.blockNumbers.size(), 1);
+        assertEquals(pending.size(), 3);
+    }
+
+    @Test
+    public void failedTest() throws Exception {
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        0,
+                        100,
+                        false,
+                        4,
+                        1024 * 1024,
+                        (blockNumber, onlyHeader, callback) -> {
+                            if (blockNumber == 50) {
+                                callback.onResponse(new Exception("block 50 failed"), null);
+                            } else {
+                                callback.onResponse(null, newBlock());
+                            }
+                        });
+        RecordCallback callback = new RecordCallback();
+        blockRangeFetcher.start(callback);
+        assertEquals(callback.complete.get().getMessage(), "block 50 failed");
+        assertEquals(callback.blockNumbers.size(), 50);
+
+        RecordCallback invalidCallback = new RecordCallback();
+        new BlockRangeFetcher(10, 1, false, 4, 1024, null).start(invalidCallback);
+        assertTrue(invalidCallback.complete.get() != null);
+    }
+}
@@ -0,0 +1,179 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import com.webank.wecross.stub.Block;
+import com.webank.wecross.stub.BlockHeader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class CheckpointHeaderSyncTest {
+
+    private static class RecordCallback implements BlockRangeFetcher.Callback {
+        private final List<Long> blockNumbers = new ArrayList<>();
+        private final CompletableFuture<Exception> complete = new CompletableFuture<>();
+
+        @Override
+        public void onBlock(long blockNumber, Block block) {
+            blockNumbers.add(blockNumber);
+        }
+
+        @Override
+        public void onComplete(Exception e) {
+            complete.complete(e);
+        }
+    }
+
+    private Block newBlock(long blockNumber) {
+        BlockHeader blockHeader = new BlockHeader();
+        blockHeader.setNumber(blockNumber);
+        Block block = new Block();
+        block.setBlockHeader(blockHeader);
+        return block;
+    }
+
+    private static List<Long> numbers(List<Block> chunk) {
+        List<Long> numbers = new ArrayList<>();
+        for (Block block : chunk) {
+            numbers.add(block.getBlockHeader().getNumber());
+        }
+        return numbers;
+    }
+
+    @Test
+    public void checkpointTest() throws Exception {
+        List<List<Long>> chunks = new ArrayList<>();
+        // verify the chunks in reverse order of submission
+        List<Runnable> tasks = new ArrayList<>();
+        RecordCallback callback = new RecordCallback();
+        CheckpointHeaderSync checkpointHeaderSync =
+                new CheckpointHeaderSync(
+                        13, 4, tasks::add, chunk -> chunks.add(numbers(chunk)), callback);
+        assertTrue(checkpointHeaderSync.isCheckpoint(8));
+        assertTrue(checkpointHeaderSync.isCheckpoint(13));
+        assertFalse(checkpointHeaderSync.isCheckpoint(9));
+
+        for (long blockNumber = 5; blockNumber <= 13; blockNumber++) {
+            checkpointHeaderSync.onBlock(blockNumber, newBlock(blockNumber));
+        }
+        checkpointHeaderSync.onComplete(null);
+        assertEquals(tasks.size(), 3);
+        assertTrue(callback.blockNumbers.isEmpty());
+
+        Collections.reverse(tasks);
+        tasks.forEach(Runnable::run);
+        assertEquals(
+                chunks,
+                Arrays.asList(
+                        Collections.singletonList(13L),
+                        Arrays.asList(9L, 10L, 11L, 12L),
+                        Arrays.asList(5L, 6L, 7L, 8L)));
+        assertEquals(callback.blockNumbers, Arrays.asList(5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L));
+        assertNull(callback.complete.get());
+    }
+
+    @Test
+    public void verifyFailedTest() throws Exception {
+        Exception exception = new Exception("broken link");
+        RecordCallback callback = new RecordCallback();
+        CheckpointHeaderSync checkpointHeaderSync =
+                new CheckpointHeaderSync(
+                        20,
+                        4,
+                        Runnable::run,
+                        chunk -> {
+                            if (numbers(chunk).contains(6L)) {
+                                throw exception;
+                            }
+                        },
+                        callback);
+
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        1,
+                        20,
+                        true,
+                        2,
+                        1024 * 1024,
+                        (blockNumber, onlyHeader, fetchCallback) ->
+                                fetchCallback.onResponse(null, newBlock(blockNumber)));
+        checkpointHeaderSync.setBlockRangeFetcher(blockRangeFetcher);
+        blockRangeFetcher.start(checkpointHeaderSync);
+
+        // the blocks before the failed chunk are delivered, and the fetch is cancelled
+        assertSame(callback.complete.get(), exception);
+        assertEquals(callback.blockNumbers, Arrays.asList(1L, 2L, 3L, 4L));
+        assertTrue(blockRangeFetcher.isCompleted());
+        assertTrue(blockRangeFetcher.getDeliveredCount() < 20);
+    }
+
+    @Test
+    public void fetchFailedTest() throws Exception {
+        Exception exception = new Exception("block not found");
+        RecordCallback callback = new RecordCallback();
+        List<List<Long>> chunks = new ArrayList<>();
+        CheckpointHeaderSync checkpointHeaderSync =
+                new CheckpointHeaderSync(
+                        20, 4, Runnable::run, chunk -> chunks.add(numbers(chunk)), callback);
+        for (long blockNumber = 1; blockNumber <= 6; blockNumber++) {
+            checkpointHeaderSync.onBlock(blockNumber, newBlock(blockNumber));
+        }
+        checkpointHeaderSync.onComplete(exception);
+
+        // blocks after the last checkpoint are not verified, so not delivered
+        assertEquals(chunks, Collections.singletonList(Arrays.asList(1L, 2L, 3L, 4L)));
+        assertEquals(callback.blockNumbers, Arrays.asList(1L, 2L, 3L, 4L));
+        assertSame(callback.complete.get(), exception);
+    }
+
+    @Test
+    public void slowVerifyTest() throws Exception {
+        long maxBufferedBytes = BlockCache.estimateBytes(newBlock(1)) * 8;
+        int maxPendingChunks = 2;
+        List<Runnable> tasks = new ArrayList<>();
+        RecordCallback callback = new RecordCallback();
+        CheckpointHeaderSync checkpointHeaderSync =
+                new CheckpointHeaderSync(
+                        100, 4, maxPendingChunks, tasks::add, chunk -> {}, callback);
+        AtomicLong fetched = new AtomicLong(0);
+        BlockRangeFetcher blockRangeFetcher =
+                new BlockRangeFetcher(
+                        1,
+                        100,
+                        true,
+                        2,
+                        maxBufferedBytes,
+                        (blockNumber, onlyHeader, fetchCallback) -> {
+                            fetched.incrementAndGet();
+                            fetchCallback.onResponse(null, newBlock(blockNumber));
+                        });
+        checkpointHeaderSync.setBlockRangeFetcher(blockRangeFetcher);
+        blockRangeFetcher.start(checkpointHeaderSync);
+
+        // the verification does not keep up, the blocks are held back and the fetch stops
+        assertEquals(tasks.size(), maxPendingChunks);
+        assertEquals(checkpointHeaderSync.getPendingChunks(), maxPendingChunks);
+        assertEquals(blockRangeFetcher.getDeliveredCount(), 8);
+        assertTrue(blockRangeFetcher.getBufferedBytes() <= maxBufferedBytes);
+        assertTrue(fetched.get() < 100);
+
+        // every chunk verified lets the next one through
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).run();
+            assertTrue(checkpointHeaderSync.getPendingChunks() <= maxPendingChunks);
+            assertTrue(blockRangeFetcher.getBufferedBytes() <= maxBufferedBytes);
+        }
+        assertEquals(tasks.size(), 25);
+        assertEquals(callback.blockNumbers.size(), 100);
+        assertNull(callback.complete.get());
+    }
+}
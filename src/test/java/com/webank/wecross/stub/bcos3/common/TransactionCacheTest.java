@@ -0,0 +1,90 @@
+package com.webank.wecross.stub.bcos3.common;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+
+import com.webank.wecross.stub.bcos3.protocol.response.TransactionPair;
+import com.webank.wecross.stub.bcos3.protocol.response.TransactionProof;
+import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+import org.junit.Test;
+
+public class TransactionCacheTest {
+
+    private JsonTransactionResponse newTransaction(int inputSize) {
+        JsonTransactionResponse transaction = new JsonTransactionResponse();
+        transaction.setInput(new String(new char[inputSize]).replace('\0', '0'));
+        return transaction;
+    }
+
+    private TransactionReceipt newReceipt() {
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setOutput("0x00");
+        return receipt;
+    }
+
+    @Test
+    public void proofAndPairTest() {
+        TransactionCache transactionCache = new TransactionCache(1024 * 1024);
+        TransactionProof proof = new TransactionProof(newTransaction(100), newReceipt());
+        TransactionPair pair = new TransactionPair(newTransaction(100), newReceipt());
+
+        assertNull(transactionCache.getTransactionProof("0x01"));
+        transactionCache.putTransactionProof("0x01", proof);
+        transactionCache.putTransactionPair("0x02", pair);
+
+        assertSame(transactionCache.getTransactionProof("0x01"), proof);
+        assertSame(transactionCache.getTransactionPair("0x02"), pair);
+        // the proof also serves the pair
+        TransactionPair pairOfProof = transactionCache.getTransactionPair("0x01");
+        assertSame(pairOfProof.getTransaction(), proof.getTransWithProof());
+        assertSame(pairOfProof.getReceipt(), proof.getReceiptWithProof());
+        // the pair never serves the proof
+        assertNull(transactionCache.getTransactionProof("0x02"));
+
+        // a pair never replaces the proof
+        transactionCache.putTransactionPair("0x01", pair);
+        assertSame(transactionCache.getTransactionProof("0x01"), proof);
+
+        assertEquals(transactionCache.getHitCount(), 4);
+        assertEquals(transactionCache.getMissCount(), 2);
+        assertEquals(transactionCache.getHitRate(), 4.0 / 6);
+    }
+
+    @Test
+    public void evictionTest() {
+        long proofBytes =
+                TransactionCache.estimateBytes(newTransaction(1000))
+                        + TransactionCache.estimateBytes(newReceipt());
+        TransactionCache transactionCache = new TransactionCache(proofBytes * 3);
+
+        for (int i = 1; i <= 3; i++) {
+            transactionCache.putTransactionProof(
+                    "0x0" + i, new TransactionProof(newTransaction(1000), newReceipt()));
+        }
+        // 0x01 is recently used, 0x02 is evicted
+        transactionCache.getTransactionProof("0x01");
+        transactionCache.putTransactionProof(
+                "0x04", new TransactionProof(newTransaction(1000), newReceipt()));
+
+        assertEquals(transactionCache.size(), 3);
+        assertEquals(transactionCache.getBytes(), proofBytes * 3);
+        assertEquals(transactionCache.getEvictionCount(), 1);
+        assertNull(transactionCache.getTransactionProof("0x02"));
+
+        // larger than the limit, never cached
+        transactionCache.putTransactionProof(
+                "0x05", new TransactionProof(newTransaction(10000), newReceipt()));
+        assertNull(transactionCache.getTransactionProof("0x05"));
+        assertEquals(transactionCache.size(), 3);
+    }
+
+    @Test
+    public void incompleteTest() {
+        TransactionCache transactionCache = new TransactionCache(1024 * 1024);
+        transactionCache.putTransactionProof("0x01", new TransactionProof(null, newReceipt()));
+        transactionCache.putTransactionPair("0x02", new TransactionPair(newTransaction(1), null));
+        assertEquals(transactionCache.size(), 0);
+    }
+}
@@ -3,9 +3,13 @@ package com.webank.wecross.stub.bcos3.config;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
 
+import com.webank.wecross.stub.bcos3.common.BCOSToml;
 import java.io.File;
 import java.io.IOException;
+import java.security.InvalidParameterException;
+import java.util.Map;
 import java.util.Objects;
 import org.junit.Test;
 
@@ -30,6 +34,26 @@ public class BCOSStubConfigParserTest {
         assertEquals(service.getMessageTimeout(), 111100);
         assertEquals(service.getConnectionsStr().size(), 1);
         assertEquals(service.getThreadPoolSize(), 8);
+        assertEquals(service.getDispatchThreadNum(), 0);
+        assertEquals(service.getBlockNumberPollInterval(), 5000);
+        assertEquals(service.getBlockNumberMaxStaleness(), 10000);
+        assertEquals(service.getResourcesPollInterval(), 30000);
+        assertEquals(service.isPeerRouting(), false);
+        assertEquals(service.isHedgedRead(), false);
+        assertEquals(service.getBlockCacheMaxBytes(), 33554432);
+        assertEquals(service.getBlockHeaderCacheMaxBytes(), 8388608);
+        assertEquals(service.getBlockPrefetchWindow(), 16);
+        assertEquals(service.getTransactionCacheMaxBytes(), 16777216);
+        assertEquals(service.getVerifiedHeaderCacheSize(), 4096);
+        assertEquals(service.getMerkleMemoMaxNodes(), 262144);
+
+        BCOSStubConfig.Runtime runtime = bcosStubConfig.getRuntime();
+        assertEquals(runtime.getIoThreadNum(), 0);
+        assertEquals(runtime.getQueueCapacity(), 10000);
+        assertEquals(runtime.getCryptoThreadNum(), 0);
+        assertEquals(runtime.getCodecThreadNum(), 0);
+        assertEquals(runtime.getSchedulerThreadNum(), 4);
+        assertEquals(runtime.getAbiQueryParallelism(), 8);
 
         assertEquals(bcosStubConfig.getResources().size(), 2);
         assertEquals(bcosStubConfig.getResources().get(0).getName(), "HelloWeCross");
@@ -44,4 +68,44 @@ public class BCOSStubConfigParserTest {
                 bcosStubConfig.getResources().get(0).getValue(),
                 "0x8827cca7f0f38b861b62dae6d711efe92a1e3602");
     }
+
+    @Test
+    public void cacheMaxBytesTest() throws IOException {
+        BCOSStubConfigParser bcosStubConfigParser =
+                new BCOSStubConfigParser("./", "stub-sample-ut.toml");
+        Map<String, Object> serviceConfigValue =
+                (Map<String, Object>)
+                        new BCOSToml(bcosStubConfigParser.getConfigPath())
+                                .getToml()
+                                .toMap()
+                                .get("service");
+
+        // beyond the range of int
+        serviceConfigValue.put("blockCacheMaxBytes", 4294967296L);
+        serviceConfigValue.put("blockHeaderCacheMaxBytes", 3221225472L);
+        serviceConfigValue.put("transactionCacheMaxBytes", 2147483648L);
+        String configFile = bcosStubConfigParser.getConfigPath();
+        BCOSStubConfig.Service service =
+                bcosStubConfigParser.getServiceConfig(configFile, serviceConfigValue, "");
+        assertEquals(service.getBlockCacheMaxBytes(), 4294967296L);
+        assertEquals(service.getBlockHeaderCacheMaxBytes(), 3221225472L);
+        assertEquals(service.getTransactionCacheMaxBytes(), 2147483648L);
+
+        serviceConfigValue.put("blockCacheMaxBytes", -1L);
+        try {
+            bcosStubConfigParser.getServiceConfig(configFile, serviceConfigValue, "");
+            fail();
+        } catch (InvalidParameterException e) {
+            assertTrue(e.getMessage().contains("blockCacheMaxBytes"));
+        }
+
+        serviceConfigValue.put("blockCacheMaxBytes", 0L);
+        serviceConfigValue.put("transactionCacheMaxBytes", -1L);
+        try {
+            bcosStubConfigParser.getServiceConfig(configFile, serviceConfigValue, "");
+            fail();
+        } catch (InvalidParameterException e) {
+            assertTrue(e.getMessage().contains("transactionCacheMaxBytes"));
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package com.webank.wecross.stub.bcos3.contract;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
+
+import com.webank.wecross.stub.Response;
+import com.webank.wecross.stub.bcos3.common.ObjectMapperFactory;
+import com.webank.wecross.stub.bcos3.protocol.response.TypedResponse;
+import java.io.IOException;
+import org.fisco.bcos.sdk.v3.client.protocol.response.Call;
+import org.junit.Test;
+
+public class TypedResponseTest {
+    @Test
+    public void typedResponseTest() throws IOException {
+        Call.CallOutput callOutput = new Call.CallOutput();
+        callOutput.setBlockNumber(4369L);
+        callOutput.setStatus(0);
+        callOutput.setOutput("0x1234");
+
+        TypedResponse<Call.CallOutput> response = new TypedResponse<>();
+        response.setValue(callOutput);
+
+        // object is read without decoding
+        assertSame(TypedResponse.readValue(response, Call.CallOutput.class), callOutput);
+
+        // json bytes are encoded lazily and only once
+        byte[] data = response.getData();
+        assertSame(response.getData(), data);
+        Call.CallOutput decoded =
+                ObjectMapperFactory.getObjectMapper().readValue(data, Call.CallOutput.class);
+        assertEquals(decoded.getBlockNumber(), callOutput.getBlockNumber());
+        assertEquals(decoded.getOutput(), callOutput.getOutput());
+
+        // plain response falls back to json decoding
+        Response plainResponse = new Response();
+        plainResponse.setData(data);
+        Call.CallOutput fromBytes = TypedResponse.readValue(plainResponse, Call.CallOutput.class);
+        assertNotSame(fromBytes, callOutput);
+        assertEquals(fromBytes.getOutput(), callOutput.getOutput());
+    }
+}
@@ -0,0 +1,218 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import com.webank.wecross.exception.WeCrossException;
+import com.webank.wecross.stub.bcos3.common.BCOSBlockHeader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
+import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.v3.crypto.keypair.CryptoKeyPair;
+import org.fisco.bcos.sdk.v3.utils.Hex;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlockHeaderValidationTest {
+    private static final String STUB_TYPE = "BCOS3_ECDSA_EVM";
+    private static final int SEALER_NUM = 7;
+
+    private final AtomicInteger verifyCount = new AtomicInteger(0);
+
+    /** count the signature verifications */
+    private final CryptoSuite cryptoSuite =
+            new CryptoSuite(0) {
+                @Override
+                public boolean verify(String publicKey, byte[] message, byte[] signature) {
+                    verifyCount.incrementAndGet();
+                    return super.verify(publicKey, message, signature);
+                }
+            };
+
+    private List<CryptoKeyPair> keyPairs = new ArrayList<>();
+    private List<String> nodeIds = new ArrayList<>();
+    private BlockVerifierConfig blockVerifierConfig;
+    private BlockVerifierConfig quorumVerifierConfig;
+    private BlockVerifierConfig noFallbackVerifierConfig;
+    private String blockHash;
+
+    private static String nodeId(CryptoKeyPair keyPair) {
+        // uncompressed public key without the 04 flag
+        return keyPair.getHexPublicKey().substring(keyPair.getHexPublicKey().length() - 128);
+    }
+
+    @Before
+    public void setUp() throws WeCrossException {
+        StringBuilder builder =
+                new StringBuilder("{\"chainType\":\"" + STUB_TYPE + "\",\"pubKey\":[");
+        for (int i = 0; i < SEALER_NUM; i++) {
+            CryptoKeyPair keyPair = cryptoSuite.generateRandomKeyPair();
+            keyPairs.add(keyPair);
+            nodeIds.add(nodeId(keyPair));
+            builder.append(i == 0 ? "" : ",").append('"').append(nodeId(keyPair)).append('"');
+        }
+        builder.append("]");
+        blockVerifierConfig = BlockVerifierConfig.compile(builder + "}");
+        quorumVerifierConfig = BlockVerifierConfig.compile(builder + ",\"quorumMode\":true}");
+        noFallbackVerifierConfig =
+                BlockVerifierConfig.compile(builder + ",\"allKeysFallback\":false}");
+        blockHash = Hex.toHexString(cryptoSuite.hash("block".getBytes()));
+    }
+
+    /** the sealer list of the header is in reverse order of the config */
+    private BCOSBlockHeader newBlockHeader(int signatureNum) {
+        List<String> headerSealers = new ArrayList<>(nodeIds);
+        Collections.reverse(headerSealers);
+
+        List<BcosBlockHeader.Signature> signatureList = new ArrayList<>();
+        for (int i = 0; i < signatureNum; i++) {
+            BcosBlockHeader.Signature signature = new BcosBlockHeader.Signature();
+            signature.setIndex(i);
+            signature.setSignature(
+                    cryptoSuite
+                            .sign(Hex.decode(blockHash), keyPairs.get(SEALER_NUM - 1 - i))
+                            .convertToString());
+            signatureList.add(signature);
+        }
+
+        BCOSBlockHeader blockHeader = new BCOSBlockHeader();
+        blockHeader.setNumber(1);
+        blockHeader.setHash(blockHash);
+        blockHeader.setSealerList(headerSealers);
+        blockHeader.setSignatureList(signatureList);
+        return blockHeader;
+    }
+
+    @Test
+    public void verifyByIndexTest() throws WeCrossException {
+        BCOSBlockHeader blockHeader = newBlockHeader(SEALER_NUM);
+        verifyCount.set(0);
+        BlockHeaderValidation.verifyBlockHeader(
+                blockHeader, blockVerifierConfig, STUB_TYPE, cryptoSuite);
+        // a single verification for each signature
+        assertEquals(verifyCount.get(), SEALER_NUM);
+
+        // a few signatures are verified sequentially
+        blockHeader = newBlockHeader(2);
+        verifyCount.set(0);
+        BlockHeaderValidation.verifyBlockHeader(
+                blockHeader, blockVerifierConfig, STUB_TYPE, cryptoSuite);
+        assertEquals(verifyCount.get(), 2);
+    }
+
+    @Test
+    public void verifyWrongIndexTest() throws WeCrossException {
+        BCOSBlockHeader blockHeader = newBlockHeader(SEALER_NUM);
+        blockHeader.getSignatureList().get(1).setIndex(SEALER_NUM);
+        blockHeader.getSignatureList().get(2).setIndex(null);
+
+        // every configured key is tried for the signatures without a configured sealer at index
+        BlockHeaderValidation.verifyBlockHeader(
+                blockHeader, blockVerifierConfig, STUB_TYPE, cryptoSuite);
+
+        // unless the fallback is disabled
+        try {
+            BlockHeaderValidation.verifyBlockHeader(
+                    blockHeader, noFallbackVerifierConfig, STUB_TYPE, cryptoSuite);
+            fail();
+        } catch (WeCrossException e) {
+            assertEquals(e.getErrorCode().intValue(), WeCrossException.ErrorCode.INTERNAL_ERROR);
+        }
+    }
+
+    @Test
+    public void verifyMismatchedIndexTest() {
+        // the sealer at the index is configured but did not sign, no other key is tried
+        BCOSBlockHeader blockHeader = newBlockHeader(SEALER_NUM);
+        blockHeader.getSignatureList().get(0).setIndex(1);
+        verifyCount.set(0);
+        try {
+            BlockHeaderValidation.verifyBlockHeader(
+                    blockHeader, blockVerifierConfig, STUB_TYPE, cryptoSuite);
+            fail();
+        } catch (WeCrossException e) {
+            assertEquals(e.getErrorCode().intValue(), WeCrossException.ErrorCode.INTERNAL_ERROR);
+        }
+        assertTrue(verifyCount.get() <= SEALER_NUM);
+    }
+
+    @Test
+    public void verifyFailedTest() {
+        BCOSBlockHeader blockHeader = newBlockHeader(SEALER_NUM);
+        BcosBlockHeader.Signature signature = blockHeader.getSignatureList().get(3);
+        signature.setSignature(invalidSignature());
+        try {
+            BlockHeaderValidation.verifyBlockHeader(
+                    blockHeader, blockVerifierConfig, STUB_TYPE, cryptoSuite);
+            fail();
+        } catch (WeCrossException e) {
+            assertEquals(e.getErrorCode().intValue(), WeCrossException.ErrorCode.INTERNAL_ERROR);
+        }
+    }
+
+    @Test
+    public void verifyQuorumTest() throws WeCrossException {
+        int quorum = quorumVerifierConfig.getQuorum();
+        assertEquals(quorum, 5);
+
+        BCOSBlockHeader blockHeader = newBlockHeader(SEALER_NUM);
+        verifyCount.set(0);
+        BlockHeaderValidation.verifyBlockHeader(
+                blockHeader, quorumVerifierConfig, STUB_TYPE, cryptoSuite);
+        // the signatures after the quorum are not verified
+        assertEquals(verifyCount.get(), quorum);
+
+        // a bad signature costs a single verification, and is made up by the next one
+        blockHeader.getSignatureList().get(0).setSignature(invalidSignature());
+        verifyCount.set(0);
+        BlockHeaderValidation.verifyBlockHeader(
+                blockHeader, quorumVerifierConfig, STUB_TYPE, cryptoSuite);
+        assertEquals(verifyCount.get(), quorum + 1);
+    }
+
+    @Test
+    public void verifyQuorumFailedTest() {
+        BCOSBlockHeader blockHeader = newBlockHeader(SEALER_NUM);
+        blockHeader.getSignatureList().get(0).setSignature(invalidSignature());
+        blockHeader.getSignatureList().get(1).setSignature(invalidSignature());
+        blockHeader.getSignatureList().get(2).setSignature(invalidSignature());
+        verifyCount.set(0);
+        try {
+            BlockHeaderValidation.verifyBlockHeader(
+                    blockHeader, quorumVerifierConfig, STUB_TYPE, cryptoSuite);
+            fail();
+        } catch (WeCrossException e) {
+            assertEquals(e.getErrorCode().intValue(), WeCrossException.ErrorCode.INTERNAL_ERROR);
+        }
+        // the quorum is out of reach once the first 5 are verified
+        assertEquals(verifyCount.get(), quorumVerifierConfig.getQuorum());
+    }
+
+    @Test
+    public void verifyQuorumWithoutSealerTest() {
+        // a single junk signature must not pass a config without any sealer
+        BCOSBlockHeader blockHeader = newBlockHeader(1);
+        blockHeader.getSignatureList().get(0).setSignature(invalidSignature());
+        try {
+            BlockHeaderValidation.verifyBlockHeader(
+                    blockHeader,
+                    "{\"chainType\":\"" + STUB_TYPE + "\",\"pubKey\":[],\"quorumMode\":true}",
+                    STUB_TYPE,
+                    cryptoSuite);
+            fail();
+        } catch (WeCrossException e) {
+            assertEquals(
+                    e.getErrorCode().intValue(), WeCrossException.ErrorCode.UNEXPECTED_CONFIG);
+        }
+    }
+
+    private String invalidSignature() {
+        return cryptoSuite
+                .sign(Hex.decode(blockHash), cryptoSuite.generateRandomKeyPair())
+                .convertToString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import com.webank.wecross.exception.WeCrossException;
+import org.junit.Test;
+
+public class BlockVerifierConfigTest {
+    private static final String SEALER =
+            "ffa9aa23918afcfa5c20a07177e83731c46f153b3ce33b98cb3c4b61c767d06296ef9c1b7f7c6737c3077a6ec61c1a86d665475629cecd1c209b3f9a3b8688dc";
+
+    private static String verifierString(int sealerNum) {
+        StringBuilder builder =
+                new StringBuilder("{\"chainType\":\"BCOS3_ECDSA_EVM\",\"pubKey\":[");
+        for (int i = 0; i < sealerNum; i++) {
+            builder.append(i == 0 ? "" : ",").append('"').append(SEALER).append('"');
+        }
+        return builder.append("]}").toString();
+    }
+
+    @Test
+    public void compileTest() throws WeCrossException {
+        String blockVerifierString = verifierString(4);
+        BlockVerifierConfig config = BlockVerifierConfig.compile(blockVerifierString);
+        assertEquals(config.getChainType(), "BCOS3_ECDSA_EVM");
+        assertEquals(config.getSealers().size(), 4);
+        assertEquals(config.getSealers().get(0), SEALER);
+        assertTrue(config.isCompiledFrom(blockVerifierString));
+        assertFalse(config.isCompiledFrom(verifierString(3)));
+        assertFalse(config.isCompiledFrom(null));
+        assertFalse(config.isQuorumMode());
+        assertTrue(config.isAllKeysFallback());
+
+        config =
+                BlockVerifierConfig.compile(
+                        "{\"chainType\":\"BCOS3_ECDSA_EVM\",\"pubKey\":[\""
+                                + SEALER
+                                + "\"],\"quorumMode\":true,\"allKeysFallback\":false}");
+        assertTrue(config.isQuorumMode());
+        assertFalse(config.isAllKeysFallback());
+    }
+
+    @Test
+    public void quorumTest() throws WeCrossException {
+        assertEquals(BlockVerifierConfig.compile(verifierString(1)).getQuorum(), 1);
+        assertEquals(BlockVerifierConfig.compile(verifierString(3)).getQuorum(), 3);
+        assertEquals(BlockVerifierConfig.compile(verifierString(4)).getQuorum(), 3);
+        assertEquals(BlockVerifierConfig.compile(verifierString(7)).getQuorum(), 5);
+        assertEquals(BlockVerifierConfig.compile(verifierString(10)).getQuorum(), 7);
+    }
+
+    @Test(expected = WeCrossException.class)
+    public void compileWithoutPubKeyTest() throws WeCrossException {
+        BlockVerifierConfig.compile("{\"chainType\":\"BCOS3_ECDSA_EVM\"}");
+    }
+
+    @Test(expected = WeCrossException.class)
+    public void compileEmptyPubKeyTest() throws WeCrossException {
+        BlockVerifierConfig.compile(
+                "{\"chainType\":\"BCOS3_ECDSA_EVM\",\"pubKey\":[],\"quorumMode\":true}");
+    }
+
+    @Test(expected = WeCrossException.class)
+    public void compileWrongPubKeyTest() throws WeCrossException {
+        BlockVerifierConfig.compile("{\"chainType\":\"BCOS3_ECDSA_EVM\",\"pubKey\":[\"ff\"]}");
+    }
+
+    @Test(expected = WeCrossException.class)
+    public void compileInvalidJsonTest() throws WeCrossException {
+        BlockVerifierConfig.compile("{\"chainType\":");
+    }
+}
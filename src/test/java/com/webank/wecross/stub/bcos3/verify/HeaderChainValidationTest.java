@@ -0,0 +1,86 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import static junit.framework.TestCase.fail;
+
+import com.webank.wecross.exception.WeCrossException;
+import com.webank.wecross.stub.bcos3.client.ClientWrapperImplMock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.fisco.bcos.sdk.v3.client.protocol.response.BcosBlockHeader;
+import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.v3.crypto.hash.Hash;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HeaderChainValidationTest {
+    private Hash hash = new CryptoSuite(0).getHashImpl();
+
+    private List<BcosBlockHeader.BlockHeader> headers = new ArrayList<>();
+
+    /** blocks 9 to 12 linked by parent hash */
+    @Before
+    public void setUp() throws Exception {
+        ClientWrapperImplMock clientWrapper = new ClientWrapperImplMock();
+        String parentHash =
+                clientWrapper.getBlockHeaderByNumber(9).getParentInfo().get(0).getBlockHash();
+        for (long number = 9; number <= 12; number++) {
+            BcosBlockHeader.BlockHeader header = clientWrapper.getBlockHeaderByNumber(number);
+            header.setNumber(number);
+            setParent(header, parentHash);
+            parentHash = header.getHash();
+            headers.add(header);
+        }
+    }
+
+    private void setParent(BcosBlockHeader.BlockHeader header, String parentHash)
+            throws Exception {
+        BcosBlockHeader.ParentInfo parentInfo = new BcosBlockHeader.ParentInfo();
+        parentInfo.setBlockNumber(header.getNumber() - 1);
+        parentInfo.setBlockHash(parentHash);
+        header.setParentInfo(Collections.singletonList(parentInfo));
+        header.setHash(header.calculateBlockHeaderHash(hash));
+    }
+
+    @Test
+    public void verifyHeaderChainTest() throws WeCrossException {
+        HeaderChainValidation.verifyHeaderChain(headers, hash);
+        HeaderChainValidation.verifyHeaderChain(headers.subList(3, 4), hash);
+    }
+
+    @Test
+    public void verifyWrongHashTest() {
+        // the content no longer hashes to the hash
+        headers.get(1).setStateRoot(headers.get(1).getReceiptsRoot());
+        try {
+            HeaderChainValidation.verifyHeaderChain(headers, hash);
+            fail();
+        } catch (WeCrossException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void verifyBrokenLinkTest() throws Exception {
+        // a header hashed correctly but not the parent of the next header
+        headers.get(1).setStateRoot(headers.get(1).getReceiptsRoot());
+        setParent(headers.get(1), headers.get(0).getHash());
+        try {
+            HeaderChainValidation.verifyHeaderChain(headers, hash);
+            fail();
+        } catch (WeCrossException e) {
+            // expected
+        }
+
+        // a gap in block numbers
+        try {
+            HeaderChainValidation.verifyHeaderChain(headers.subList(2, 4), hash);
+            HeaderChainValidation.verifyHeaderChain(
+                    Arrays.asList(headers.get(0), headers.get(2)), hash);
+            fail();
+        } catch (WeCrossException e) {
+            // expected
+        }
+    }
+}
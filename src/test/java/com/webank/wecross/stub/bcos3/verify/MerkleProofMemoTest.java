@@ -0,0 +1,115 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.v3.utils.Hex;
+import org.fisco.bcos.sdk.v3.utils.MerkleProofUtility;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MerkleProofMemoTest {
+    private static final String TWO_CHILDREN =
+            "0000000200000000000000000000000000000000000000000000000000000000";
+
+    private CryptoSuite cryptoSuite = new CryptoSuite(0);
+
+    private String[] leaves = new String[4];
+    private String left;
+    private String right;
+    private String root;
+
+    private String hash(String data) {
+        return Hex.toHexString(cryptoSuite.hash(Hex.decode(data)));
+    }
+
+    /** a tree of 4 leaves with 2 children per node */
+    @Before
+    public void init() {
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = hash(Integer.toHexString(i + 0x10));
+        }
+        left = hash(leaves[0] + leaves[1]);
+        right = hash(leaves[2] + leaves[3]);
+        root = "0x" + hash(left + right);
+    }
+
+    private List<String> proof(int leafIndex) {
+        return leafIndex < 2
+                ? Arrays.asList(TWO_CHILDREN, leaves[0], leaves[1], TWO_CHILDREN, left, right)
+                : Arrays.asList(TWO_CHILDREN, leaves[2], leaves[3], TWO_CHILDREN, left, right);
+    }
+
+    @Test
+    public void sameResultTest() {
+        MerkleProofMemo memo = new MerkleProofMemo(1024);
+        for (int i = 0; i < leaves.length; i++) {
+            assertTrue(
+                    MerkleProofUtility.verifyMerkle(root, proof(i), "0x" + leaves[i], cryptoSuite));
+            assertTrue(memo.verifyMerkle(root, proof(i), "0x" + leaves[i], cryptoSuite));
+        }
+
+        String otherLeaf = hash("20");
+        assertFalse(MerkleProofUtility.verifyMerkle(root, proof(0), otherLeaf, cryptoSuite));
+        assertFalse(memo.verifyMerkle(root, proof(0), otherLeaf, cryptoSuite));
+        // the leaf is in the proof, but the proof does not hash up to the root
+        List<String> badProof = Arrays.asList(TWO_CHILDREN, leaves[0], leaves[1]);
+        assertFalse(MerkleProofUtility.verifyMerkle(root, badProof, leaves[0], cryptoSuite));
+        MerkleProofMemo emptyMemo = new MerkleProofMemo(1024);
+        assertFalse(emptyMemo.verifyMerkle(root, badProof, leaves[0], cryptoSuite));
+        // malformed proof
+        List<String> shortProof = Arrays.asList(TWO_CHILDREN, leaves[0]);
+        assertFalse(emptyMemo.verifyMerkle(root, shortProof, leaves[1], cryptoSuite));
+        assertEquals(emptyMemo.getNodes(), 0);
+    }
+
+    @Test
+    public void memoTest() {
+        MerkleProofMemo memo = new MerkleProofMemo(1024);
+        assertTrue(memo.verifyMerkle(root, proof(0), leaves[0], cryptoSuite));
+        assertEquals(memo.getMissCount(), 1);
+        // leaf 0, its parent and the root
+        assertEquals(memo.getNodes(), 3);
+
+        // verified before, no proof needed
+        assertTrue(memo.verifyMerkle(root, null, leaves[0], cryptoSuite));
+        assertEquals(memo.getHitCount(), 1);
+
+        // the same block, the walk stops at the proven root
+        assertTrue(memo.verifyMerkle(root, proof(2), leaves[2], cryptoSuite));
+        assertTrue(memo.isVerified(Hex.trimPrefix(root), leaves[2]));
+        assertTrue(memo.isVerified(Hex.trimPrefix(root), right));
+        assertEquals(memo.getNodes(), 5);
+
+        // never proven under another root
+        assertFalse(memo.verifyMerkle(hash("30"), null, leaves[0], cryptoSuite));
+    }
+
+    @Test
+    public void evictionTest() {
+        MerkleProofMemo memo = new MerkleProofMemo(4);
+        assertTrue(memo.verifyMerkle(root, proof(0), leaves[0], cryptoSuite));
+        // a single leaf tree, the leaf is the root
+        String otherRoot = hash("40");
+        assertTrue(memo.verifyMerkle(otherRoot, null, otherRoot, cryptoSuite));
+        assertEquals(memo.size(), 2);
+        assertEquals(memo.getNodes(), 4);
+
+        // the least recently used root is evicted
+        String anotherRoot = hash("50");
+        assertTrue(memo.verifyMerkle(anotherRoot, null, anotherRoot, cryptoSuite));
+        assertEquals(memo.getEvictionCount(), 1);
+        assertEquals(memo.size(), 2);
+        assertFalse(memo.isVerified(Hex.trimPrefix(root), leaves[0]));
+
+        // removed with the block of the root
+        memo.remove(anotherRoot);
+        assertEquals(memo.size(), 1);
+        assertEquals(memo.getNodes(), 1);
+        assertFalse(memo.isVerified(Hex.trimPrefix(anotherRoot), Hex.trimPrefix(anotherRoot)));
+    }
+}
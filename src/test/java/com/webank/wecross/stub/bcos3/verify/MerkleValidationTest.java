@@ -0,0 +1,132 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import com.webank.wecross.stub.BlockHeader;
+import com.webank.wecross.stub.bcos3.client.ClientDefaultConfig;
+import com.webank.wecross.stub.bcos3.common.BCOSStatusCode;
+import com.webank.wecross.stub.bcos3.common.BCOSStubException;
+import com.webank.wecross.stub.bcos3.protocol.response.TransactionProof;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fisco.bcos.sdk.v3.client.protocol.model.JsonTransactionResponse;
+import org.fisco.bcos.sdk.v3.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.v3.crypto.hash.Hash;
+import org.fisco.bcos.sdk.v3.crypto.hash.Keccak256;
+import org.fisco.bcos.sdk.v3.model.TransactionReceipt;
+import org.fisco.bcos.sdk.v3.utils.Hex;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MerkleValidationTest {
+    private static final String ONE_CHILD =
+            "0000000100000000000000000000000000000000000000000000000000000000";
+    private static final String TWO_CHILDREN =
+            "0000000200000000000000000000000000000000000000000000000000000000";
+
+    private final AtomicInteger hashCount = new AtomicInteger(0);
+
+    private final CryptoSuite cryptoSuite =
+            new CryptoSuite(0) {
+                @Override
+                public Hash getHashImpl() {
+                    return new Keccak256() {
+                        @Override
+                        public byte[] hash(byte[] inputBytes) {
+                            hashCount.incrementAndGet();
+                            return super.hash(inputBytes);
+                        }
+                    };
+                }
+            };
+
+    private MerkleProofMemo merkleProofMemo;
+
+    @Before
+    public void setUp() {
+        // a memo of its own, the exact hash count needs no root remembered by another test
+        merkleProofMemo = new MerkleProofMemo(ClientDefaultConfig.DEFAULT_MERKLE_MEMO_MAX_NODES);
+    }
+
+    /** a binary tree of the leaves, the proofs are filled in the order of the leaves */
+    private String buildTree(List<String> leaves, List<List<String>> proofs, int[] internalNodes) {
+        List<String> level = new ArrayList<>(leaves);
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < leaves.size(); i++) {
+            proofs.add(new ArrayList<>());
+            positions.add(i);
+        }
+        while (level.size() > 1) {
+            List<String> parents = new ArrayList<>();
+            for (int i = 0; i < level.size(); i += 2) {
+                List<String> children = level.subList(i, Math.min(i + 2, level.size()));
+                parents.add(
+                        Hex.toHexString(
+                                new Keccak256().hash(Hex.decode(String.join("", children)))));
+                internalNodes[0]++;
+            }
+            for (int leaf = 0; leaf < leaves.size(); leaf++) {
+                int position = positions.get(leaf);
+                int first = position - position % 2;
+                List<String> children = level.subList(first, Math.min(first + 2, level.size()));
+                proofs.get(leaf).add(children.size() == 2 ? TWO_CHILDREN : ONE_CHILD);
+                proofs.get(leaf).addAll(children);
+                positions.set(leaf, position / 2);
+            }
+            level = parents;
+        }
+        return level.get(0);
+    }
+
+    private String randomHash(int i) {
+        return Hex.toHexString(new Keccak256().hash(Hex.decode(String.format("%08x", i))));
+    }
+
+    @Test
+    public void verifyTransactionProofsTest() throws BCOSStubException {
+        int total = 201;
+        int seed = 0x5eed;
+        List<String> txHashes = new ArrayList<>();
+        List<String> receiptHashes = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            txHashes.add(randomHash(seed + 2 * i));
+            receiptHashes.add(randomHash(seed + 2 * i + 1));
+        }
+        List<List<String>> txProofs = new ArrayList<>();
+        List<List<String>> receiptProofs = new ArrayList<>();
+        int[] internalNodes = new int[1];
+        BlockHeader blockHeader = new BlockHeader();
+        blockHeader.setTransactionRoot("0x" + buildTree(txHashes, txProofs, internalNodes));
+        blockHeader.setReceiptRoot("0x" + buildTree(receiptHashes, receiptProofs, internalNodes));
+
+        List<TransactionProof> transactionProofs = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            JsonTransactionResponse transaction = new JsonTransactionResponse();
+            transaction.setHash("0x" + txHashes.get(i));
+            transaction.setTxProof(txProofs.get(i));
+            TransactionReceipt receipt = new TransactionReceipt();
+            receipt.setReceiptHash("0x" + receiptHashes.get(i));
+            receipt.setTxReceiptProof(receiptProofs.get(i));
+            transactionProofs.add(new TransactionProof(transaction, receipt));
+        }
+
+        MerkleValidation.verifyTransactionProofs(
+                blockHeader, transactionProofs, cryptoSuite, merkleProofMemo);
+        // every node of both trees is hashed once
+        assertEquals(hashCount.get(), internalNodes[0]);
+
+        // the first failed proof is reported
+        transactionProofs.get(150).getTransWithProof().setHash("0x" + randomHash(-1));
+        transactionProofs.get(170).getTransWithProof().setHash("0x" + randomHash(-2));
+        try {
+            MerkleValidation.verifyTransactionProofs(
+                    blockHeader, transactionProofs, cryptoSuite, merkleProofMemo);
+            assertTrue(false);
+        } catch (BCOSStubException e) {
+            assertEquals(e.getErrorCode().intValue(), BCOSStatusCode.TransactionProofVerifyFailed);
+            assertTrue(e.getMessage().contains(randomHash(-1)));
+        }
+    }
+}
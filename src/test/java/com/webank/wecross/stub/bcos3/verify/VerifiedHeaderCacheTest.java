@@ -0,0 +1,80 @@
+package com.webank.wecross.stub.bcos3.verify;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import com.webank.wecross.exception.WeCrossException;
+import org.junit.Test;
+
+public class VerifiedHeaderCacheTest {
+    private static final String VERIFIER_STRING =
+            "{\"chainType\":\"BCOS3_ECDSA_EVM\",\"pubKey\":[\"ffa9aa23918afcfa5c20a07177e83731c46f153b3ce33b98cb3c4b61c767d06296ef9c1b7f7c6737c3077a6ec61c1a86d665475629cecd1c209b3f9a3b8688dc\"]}";
+
+    @Test
+    public void verifiedTest() throws WeCrossException {
+        BlockVerifierConfig config = BlockVerifierConfig.compile(VERIFIER_STRING);
+        VerifiedHeaderCache cache = new VerifiedHeaderCache(2);
+        cache.reset(config);
+        assertFalse(cache.isVerified(config, 1, "0x01"));
+
+        cache.putVerified(config, 1, "0x01");
+        assertTrue(cache.isVerified(config, 1, "0x01"));
+        // another hash of the same number is not verified
+        assertFalse(cache.isVerified(config, 1, "0x02"));
+        assertFalse(cache.isVerified(config, 2, "0x01"));
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 3);
+    }
+
+    @Test
+    public void evictionTest() throws WeCrossException {
+        BlockVerifierConfig config = BlockVerifierConfig.compile(VERIFIER_STRING);
+        VerifiedHeaderCache cache = new VerifiedHeaderCache(2);
+        cache.reset(config);
+        cache.putVerified(config, 1, "0x01");
+        cache.putVerified(config, 2, "0x02");
+        assertTrue(cache.isVerified(config, 1, "0x01"));
+
+        // 2 is the least recently used
+        cache.putVerified(config, 3, "0x03");
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.getEvictionCount(), 1);
+        assertTrue(cache.isVerified(config, 1, "0x01"));
+        assertFalse(cache.isVerified(config, 2, "0x02"));
+        assertTrue(cache.isVerified(config, 3, "0x03"));
+
+        cache.reset(config);
+        assertEquals(cache.size(), 0);
+        assertFalse(cache.isVerified(config, 1, "0x01"));
+    }
+
+    @Test
+    public void resetTest() throws WeCrossException {
+        BlockVerifierConfig oldConfig = BlockVerifierConfig.compile(VERIFIER_STRING);
+        BlockVerifierConfig newConfig = BlockVerifierConfig.compile(VERIFIER_STRING);
+        VerifiedHeaderCache cache = new VerifiedHeaderCache(2);
+        cache.reset(oldConfig);
+        cache.putVerified(oldConfig, 1, "0x01");
+
+        cache.reset(newConfig);
+        assertFalse(cache.isVerified(newConfig, 1, "0x01"));
+        // a verification started with the old config finishes after the reset
+        cache.putVerified(oldConfig, 2, "0x02");
+        assertEquals(cache.size(), 0);
+        assertFalse(cache.isVerified(oldConfig, 2, "0x02"));
+
+        cache.putVerified(newConfig, 2, "0x02");
+        assertTrue(cache.isVerified(newConfig, 2, "0x02"));
+    }
+
+    @Test
+    public void disabledTest() throws WeCrossException {
+        BlockVerifierConfig config = BlockVerifierConfig.compile(VERIFIER_STRING);
+        VerifiedHeaderCache cache = new VerifiedHeaderCache(0);
+        cache.reset(config);
+        cache.putVerified(config, 1, "0x01");
+        assertEquals(cache.size(), 0);
+        assertFalse(cache.isVerified(config, 1, "0x01"));
+    }
+}